@@ -11,8 +11,10 @@ package com.ibm.icu.charset;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.CoderResult;
 import java.nio.charset.UnsupportedCharsetException;
 import java.util.HashMap;
 
@@ -230,6 +232,28 @@ public abstract class CharsetICU extends Charset{
         return Charset.forName(charsetName);
     }
 
+    /**
+     * Converts all of the bytes in one charset from the source buffer into bytes
+     * in another charset in the target buffer, without an intermediate buffer for
+     * the whole text. This is a convenience method equivalent to
+     * <code>new CharsetTranscoder(from, to).transcode(in, out, true)</code>;
+     * use a {@link CharsetTranscoder} to convert text in pieces, to continue after
+     * the target buffer overflows, or to set error actions.
+     *
+     * @param from the charset of the source bytes
+     * @param to the charset of the target bytes
+     * @param in the bytes to be converted
+     * @param out the buffer for the converted bytes
+     * @return {@link CoderResult#UNDERFLOW} if all of the input was converted,
+     *         {@link CoderResult#OVERFLOW} if the target buffer is too small,
+     *         or the error reported for malformed or unmappable input.
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static CoderResult convert(CharsetICU from, CharsetICU to, ByteBuffer in, ByteBuffer out) {
+        return new CharsetTranscoder(from, to).transcode(in, out, true);
+    }
+
 //    /**
 //     * @see java.lang.Comparable#compareTo(java.lang.Object)
 //     * @stable 3.8
@@ -9,6 +9,8 @@
 package com.ibm.icu.charset;
 
 import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.Buffer;
@@ -16,12 +18,14 @@ import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CharsetEncoder;
 import java.nio.charset.CoderResult;
 import java.util.Locale;
 
 import com.ibm.icu.charset.UConverterSharedData.UConverterType;
+import com.ibm.icu.impl.ICUConfig;
 import com.ibm.icu.impl.ICUData;
 import com.ibm.icu.impl.ICUResourceBundle;
 import com.ibm.icu.impl.InvalidFormatException;
@@ -185,6 +189,51 @@ class CharsetMBCS extends CharsetICU {
         this(icuCanonicalName, javaCanonicalName, aliases, ICUResourceBundle.ICU_BUNDLE, null);
     }
 
+    /*
+     * Property naming a directory with ICU converter (.cnv) files to be memory-mapped
+     * instead of being read from the ICU data on the class path. It is looked up
+     * for each converter load, so that a system property set at run time applies.
+     */
+    private static final String MAPPED_DATA_DIRECTORY_PROPERTY = "com.ibm.icu.charset.CharsetMBCS.dataDirectory";
+
+    /*
+     * Memory-map the .cnv file for the named converter from the configured data
+     * directory. The mapping is read-only, so the pages of the file are shared by
+     * all processes which map it, and the extension tables (the bulk of most
+     * large CJK converters) are used directly from the mapped buffer.
+     * Returns null if no directory is configured or the file cannot be mapped,
+     * in which case the converter is loaded from the class path.
+     */
+    private static ByteBuffer mapConverterFile(String name) {
+        String directory = ICUConfig.get(MAPPED_DATA_DIRECTORY_PROPERTY);
+        if (directory == null || directory.length() == 0) {
+            return null;
+        }
+        FileInputStream in = null;
+        try {
+            File file = new File(directory, name + "." + UConverterSharedData.DATA_TYPE);
+            if (!file.isFile()) {
+                return null;
+            }
+            in = new FileInputStream(file);
+            FileChannel channel = in.getChannel();
+            // The mapping remains valid after the channel is closed.
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            return null;
+        } catch (SecurityException e) {
+            return null;
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
     private UConverterSharedData loadConverter(int nestedLoads, String myName, String classPath, ClassLoader loader)
             throws InvalidFormatException {
         boolean noFromU = false;
@@ -192,16 +241,24 @@ class CharsetMBCS extends CharsetICU {
         UConverterStaticData staticData = new UConverterStaticData();
         UConverterDataReader reader = null;
         try {
-            String resourceName = classPath + "/" + myName + "." + UConverterSharedData.DATA_TYPE;
-            InputStream i;
-
-            if (loader != null) {
-                i = ICUData.getRequiredStream(loader, resourceName);
+            ByteBuffer mapped = null;
+            if (loader == null && classPath.equals(ICUResourceBundle.ICU_BUNDLE)) {
+                mapped = mapConverterFile(myName);
+            }
+            if (mapped != null) {
+                reader = new UConverterDataReader(mapped);
             } else {
-                i = ICUData.getRequiredStream(resourceName);
+                String resourceName = classPath + "/" + myName + "." + UConverterSharedData.DATA_TYPE;
+                InputStream i;
+
+                if (loader != null) {
+                    i = ICUData.getRequiredStream(loader, resourceName);
+                } else {
+                    i = ICUData.getRequiredStream(resourceName);
+                }
+                BufferedInputStream b = new BufferedInputStream(i, UConverterConstants.CNV_DATA_BUFFER_SIZE);
+                reader = new UConverterDataReader(b);
             }
-            BufferedInputStream b = new BufferedInputStream(i, UConverterConstants.CNV_DATA_BUFFER_SIZE);
-            reader = new UConverterDataReader(b);
             reader.readStaticData(staticData);
         } catch (IOException e) {
             throw new InvalidFormatException();
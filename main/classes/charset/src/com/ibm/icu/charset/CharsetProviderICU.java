@@ -16,6 +16,7 @@ import java.nio.charset.spi.CharsetProvider;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.ibm.icu.impl.InvalidFormatException;
 
@@ -26,8 +27,28 @@ import com.ibm.icu.impl.InvalidFormatException;
  * @stable ICU 3.6
  */
 public final class CharsetProviderICU extends CharsetProvider{
-    private static String optionsString = null;
-    private static boolean gettingJavaCanonicalName = false;
+    /*
+     * Set while getJavaCanonicalName() asks the JDK about a name, which may call
+     * back into this provider for the same name.
+     */
+    private static final ThreadLocal<Boolean> gettingJavaCanonicalName = new ThreadLocal<Boolean>();
+
+    /*
+     * Charsets that have been created, keyed by the requested charset name and by the
+     * ICU canonical name with options. Charset objects are immutable and can be shared.
+     */
+    private static final ConcurrentHashMap<String, Charset> charsetCache =
+        new ConcurrentHashMap<String, Charset>();
+
+    /* Java canonical names by charset name, see getJavaCanonicalName(). */
+    private static final ConcurrentHashMap<String, String> javaCanonicalNameCache =
+        new ConcurrentHashMap<String, String>();
+
+    /*
+     * Upper bound on the number of requested names remembered in the charsetCache,
+     * since callers may spell the same charset name in arbitrarily many ways.
+     */
+    private static final int MAX_CACHED_NAMES = 1000;
     
     /**
      * Default constructor 
@@ -44,19 +65,43 @@ public final class CharsetProviderICU extends CharsetProvider{
      * @stable ICU 3.6
      */
     public final Charset charsetForName(String charsetName){
+        Charset cs = charsetCache.get(charsetName);
+        if (cs != null) {
+            return cs;
+        }
         try{
             // extract the options from the charset name
-            charsetName = processOptions(charsetName);
+            String optionsString = getOptions(charsetName);
+            String name = charsetName;
+            if (optionsString != null) {
+                name = charsetName.substring(0, charsetName.indexOf(optionsString));
+            }
             // get the canonical name
-            String icuCanonicalName = getICUCanonicalName(charsetName);      
+            String icuCanonicalName = getICUCanonicalName(name);      
     
-                // create the converter object and return it
             if(icuCanonicalName==null || icuCanonicalName.length()==0){
                 // Try the original name, may be something added and not in the alias table. 
                 // Will get an unsupported encoding exception if it doesn't work.
-                return getCharset(charsetName);
+                icuCanonicalName = name;
             }
-            return getCharset(icuCanonicalName);
+            // create the converter object, or share the one for the same canonical name
+            String key = optionsString != null ? icuCanonicalName.concat(optionsString) : icuCanonicalName;
+            cs = charsetCache.get(key);
+            if (cs == null) {
+                cs = getCharset(icuCanonicalName, optionsString);
+                if (gettingJavaCanonicalName.get() != null) {
+                    // Created with an incomplete Java canonical name, do not cache.
+                    return cs;
+                }
+                Charset prev = charsetCache.putIfAbsent(key, cs);
+                if (prev != null) {
+                    cs = prev;
+                }
+            }
+            if (charsetCache.size() < MAX_CACHED_NAMES) {
+                charsetCache.putIfAbsent(charsetName, cs);
+            }
+            return cs;
         }catch(UnsupportedCharsetException ex){
         }catch(IOException ex){
         }
@@ -143,18 +188,15 @@ public final class CharsetProviderICU extends CharsetProvider{
             throw new UnsupportedCharsetException(enc);
         } 
     }
-    private static final Charset getCharset(String icuCanonicalName) throws IOException{
+    private static final Charset getCharset(String icuCanonicalName, String optionsString) throws IOException{
        String[] aliases = getAliases(icuCanonicalName);    
        String canonicalName = getJavaCanonicalName(icuCanonicalName);
        
        /* Concat the option string to the icuCanonicalName so that the options can be handled properly
         * by the actual charset.
-        * Note: getJavaCanonicalName() may eventually call this method so skip the concatenation part
-        * during getJavaCanonicalName() call.
         */
-       if (!gettingJavaCanonicalName && optionsString != null) {
+       if (optionsString != null) {
            icuCanonicalName = icuCanonicalName.concat(optionsString);
-           optionsString = null;
        }
        
        return (CharsetICU.getCharset(icuCanonicalName,canonicalName, aliases));
@@ -179,6 +221,10 @@ public final class CharsetProviderICU extends CharsetProvider{
         if(charsetName==null ){
             return null;
         }  
+        String cachedName = javaCanonicalNameCache.get(charsetName);
+        if (cachedName != null) {
+            return cachedName;
+        }
         try{
             String cName = null;
             /* find out the alias with MIME tag */
@@ -221,18 +267,22 @@ public final class CharsetProviderICU extends CharsetProvider{
              * we have to try to use a java compatible name.
              */
             if (cName != null) {
-                if (!gettingJavaCanonicalName) {
-                    gettingJavaCanonicalName = true;
-                    if (Charset.isSupported(cName)) {
-                        String testName = Charset.forName(cName).name();
-                        /* Ensure that the java canonical name works in ICU */
-                        if (!testName.equals(cName)) {
-                            if (getICUCanonicalName(testName).length() > 0) {
-                                cName = testName;
+                if (gettingJavaCanonicalName.get() == null) {
+                    gettingJavaCanonicalName.set(Boolean.TRUE);
+                    try {
+                        if (Charset.isSupported(cName)) {
+                            String testName = Charset.forName(cName).name();
+                            /* Ensure that the java canonical name works in ICU */
+                            if (!testName.equals(cName)) {
+                                if (getICUCanonicalName(testName).length() > 0) {
+                                    cName = testName;
+                                }
                             }
                         }
+                    } finally {
+                        gettingJavaCanonicalName.remove();
                     }
-                    gettingJavaCanonicalName = false;
+                    javaCanonicalNameCache.put(charsetName, cName);
                 }
             }
             return cName;
@@ -279,7 +329,7 @@ public final class CharsetProviderICU extends CharsetProvider{
         for(int i=0;i<num;i++) {
             String name = UConverterAlias.getAvailableName(i);
             try {
-                Charset cs =  getCharset(name);
+                Charset cs =  getCharset(name, null);
                 map.put(cs, getJavaCanonicalName(name));
             }catch(UnsupportedCharsetException ex){
             }catch (IOException e) {
@@ -327,14 +377,13 @@ public final class CharsetProviderICU extends CharsetProvider{
         return names;
     }
     
-    private static final String processOptions(String charsetName) {
+    /*
+     * Returns the option string portion of the charset name, or null if there is none.
+     */
+    private static final String getOptions(String charsetName) {
         if (charsetName.indexOf(UConverterConstants.OPTION_SWAP_LFNL_STRING) > -1) {
-            /* Remove and save the swap lfnl option string portion of the charset name. */
-            optionsString = UConverterConstants.OPTION_SWAP_LFNL_STRING;
-            
-            charsetName = charsetName.substring(0, charsetName.indexOf(UConverterConstants.OPTION_SWAP_LFNL_STRING));
+            return UConverterConstants.OPTION_SWAP_LFNL_STRING;
         }
-        
-        return charsetName;
+        return null;
     }
 }
@@ -0,0 +1,287 @@
+/**
+*******************************************************************************
+* Copyright (C) 2013, International Business Machines Corporation and         *
+* others. All Rights Reserved.                                                *
+*******************************************************************************
+*/
+
+package com.ibm.icu.charset;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CoderResult;
+
+/**
+ * Converts bytes in one ICU charset directly to bytes in another ICU charset,
+ * streaming through a small, fixed-size UTF-16 pivot buffer instead of decoding
+ * the whole input into an intermediate <code>CharBuffer</code>.
+ * This is the equivalent of ICU4C's <code>ucnv_convertEx()</code>.
+ * <p>
+ * The conversion state, including pivot text that could not yet be written to
+ * the target, is kept in the transcoder between calls, so that input and output
+ * can be passed in arbitrary pieces. Runs of ASCII bytes are copied directly
+ * from the source to the target when both charsets map ASCII bytes to themselves
+ * (for example UTF-8, US-ASCII, ISO-8859-1 and most non-EBCDIC MBCS charsets).
+ * <p>
+ * The transcoder uses the error actions and callbacks of its decoder and encoder,
+ * see {@link #getDecoder()} and {@link #getEncoder()}.
+ * A <code>CharsetTranscoder</code> is not thread-safe.
+ *
+ * @see CharsetICU#convert(CharsetICU, CharsetICU, ByteBuffer, ByteBuffer)
+ * @draft ICU 51
+ * @provisional This API might change or be removed in a future release.
+ */
+public final class CharsetTranscoder {
+    /* default pivot capacity, same as the ICU4C CHUNK_SIZE for ucnv_convertEx() */
+    private static final int DEFAULT_PIVOT_CAPACITY = 1024;
+
+    private final CharsetDecoderICU decoder;
+    private final CharsetEncoderICU encoder;
+    private final boolean asciiTransparent;
+
+    /*
+     * Decoded text that has not yet been encoded, between position and limit.
+     * Kept in "read mode" between calls.
+     */
+    private final CharBuffer pivot;
+
+    /**
+     * Constructs a transcoder with the default pivot buffer capacity.
+     * @param from the charset of the source bytes
+     * @param to the charset of the target bytes
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public CharsetTranscoder(CharsetICU from, CharsetICU to) {
+        this(from, to, DEFAULT_PIVOT_CAPACITY);
+    }
+
+    /**
+     * Constructs a transcoder.
+     * @param from the charset of the source bytes
+     * @param to the charset of the target bytes
+     * @param pivotCapacity the number of UTF-16 code units in the pivot buffer, at least 2
+     * @throws IllegalArgumentException if <code>pivotCapacity</code> is less than 2
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public CharsetTranscoder(CharsetICU from, CharsetICU to, int pivotCapacity) {
+        if (pivotCapacity < 2) {
+            throw new IllegalArgumentException("pivot capacity must be at least 2: " + pivotCapacity);
+        }
+        decoder = (CharsetDecoderICU) from.newDecoder();
+        encoder = (CharsetEncoderICU) to.newEncoder();
+        asciiTransparent = isAsciiTransparent(from, true) && isAsciiTransparent(to, false);
+        pivot = CharBuffer.allocate(pivotCapacity);
+        pivot.flip();
+    }
+
+    /**
+     * Returns the decoder for the source charset, for example to set its error actions.
+     * @return the decoder used by this transcoder
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public CharsetDecoderICU getDecoder() {
+        return decoder;
+    }
+
+    /**
+     * Returns the encoder for the target charset, for example to set its error actions.
+     * @return the encoder used by this transcoder
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public CharsetEncoderICU getEncoder() {
+        return encoder;
+    }
+
+    /**
+     * Resets the decoder and the encoder and discards any pending pivot text.
+     * @return this transcoder
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public CharsetTranscoder reset() {
+        decoder.reset();
+        encoder.reset();
+        pivot.clear();
+        pivot.flip();
+        return this;
+    }
+
+    /**
+     * Converts as many bytes as possible from the source buffer into the target buffer.
+     * <p>
+     * Returns {@link CoderResult#UNDERFLOW} when all of the source has been converted
+     * (and, if <code>flush</code> is true, all conversion state has been written out and
+     * the transcoder has been reset), and {@link CoderResult#OVERFLOW} when the target
+     * is full. In both cases the conversion can be continued with another call.
+     * If a malformed or unmappable sequence is reported by the decoder or the encoder,
+     * the offending input has been consumed, and the conversion can also be continued.
+     *
+     * @param source the bytes to be converted
+     * @param target the buffer for the converted bytes
+     * @param flush true if, and only if, there is no more input after the source
+     * @return the result of the conversion
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public CoderResult transcode(ByteBuffer source, ByteBuffer target, boolean flush) {
+        boolean decoderFlushed = false;
+        for (;;) {
+            // Write out pending pivot text first.
+            if (pivot.hasRemaining()) {
+                CoderResult cr = encoder.encode(pivot, target, null, false);
+                if (cr.isOverflow() || cr.isError()) {
+                    return cr;
+                }
+            }
+
+            CoderResult cr;
+            if (!source.hasRemaining()) {
+                if (!flush) {
+                    return CoderResult.UNDERFLOW;
+                }
+                if (decoderFlushed) {
+                    // All input has been decoded and encoded; flush the encoder.
+                    cr = encoder.encode(pivot, target, null, true);
+                    if (cr.isUnderflow()) {
+                        reset();
+                    }
+                    return cr;
+                }
+                cr = decodeToPivot(source, true);
+                decoderFlushed = cr.isUnderflow();
+            } else if (asciiTransparent && isAtCharacterBoundary()) {
+                if (copyAscii(source, target)) {
+                    return CoderResult.OVERFLOW;
+                }
+                if (!source.hasRemaining()) {
+                    continue;
+                }
+                // Decode only up to the next ASCII byte, which can be copied directly again.
+                int limit = source.limit();
+                int next = nextAsciiIndex(source);
+                source.limit(next);
+                cr = decodeToPivot(source, flush && next == limit);
+                source.limit(limit);
+            } else {
+                cr = decodeToPivot(source, flush);
+                if (cr.isUnderflow() && !flush && !pivot.hasRemaining()) {
+                    // The decoder is waiting for more input.
+                    return cr;
+                }
+            }
+            if (cr.isError()) {
+                return cr;
+            }
+        }
+    }
+
+    /*
+     * Decode into the empty pivot buffer, and leave the decoded text between
+     * its position and limit.
+     */
+    private CoderResult decodeToPivot(ByteBuffer source, boolean flush) {
+        pivot.clear();
+        CoderResult cr = decoder.decode(source, pivot, null, flush);
+        pivot.flip();
+        return cr;
+    }
+
+    /*
+     * True if neither the decoder nor the encoder nor the pivot holds any part
+     * of a character, so that ASCII bytes can be copied from source to target.
+     */
+    private boolean isAtCharacterBoundary() {
+        return !pivot.hasRemaining() &&
+            decoder.toUCountPending() == 0 && decoder.charErrorBufferLength == 0 &&
+            encoder.fromUCountPending() == 0 && encoder.errorBufferLength == 0;
+    }
+
+    /*
+     * Copy the ASCII bytes at the start of the source into the target.
+     * Returns true if the target is full and the source starts with more ASCII.
+     */
+    private static boolean copyAscii(ByteBuffer source, ByteBuffer target) {
+        int count = Math.min(source.remaining(), target.remaining());
+        int i = 0;
+        if (source.hasArray() && target.hasArray()) {
+            byte[] src = source.array();
+            byte[] dest = target.array();
+            int s = source.arrayOffset() + source.position();
+            int t = target.arrayOffset() + target.position();
+            byte b;
+            while (i < count && (b = src[s + i]) >= 0) {
+                dest[t + i++] = b;
+            }
+            source.position(source.position() + i);
+            target.position(target.position() + i);
+        } else {
+            int s = source.position();
+            byte b;
+            while (i < count && (b = source.get(s + i)) >= 0) {
+                target.put(b);
+                ++i;
+            }
+            source.position(s + i);
+        }
+        return !target.hasRemaining() && source.hasRemaining() && source.get(source.position()) >= 0;
+    }
+
+    /*
+     * Index of the first ASCII byte after the current source position, or the source limit.
+     * In an ASCII-transparent charset, a byte below 0x80 is never part of a multi-byte
+     * sequence (see isAsciiTransparent()), so it always starts a new character.
+     */
+    private static int nextAsciiIndex(ByteBuffer source) {
+        int i = source.position();
+        int limit = source.limit();
+        while (i < limit && source.get(i) < 0) {
+            ++i;
+        }
+        return i;
+    }
+
+    /*
+     * True if the charset maps every ASCII byte to the same code point and back,
+     * and ASCII bytes do not change the converter state.
+     * For the source charset, ASCII bytes must also never occur inside multi-byte
+     * sequences. This excludes MBCS tables with trail bytes below 0x80, like
+     * Shift-JIS and GBK (0x40..0x7E), whose state tables accept such bytes after
+     * a lead byte. They still work as target charsets.
+     */
+    static boolean isAsciiTransparent(CharsetICU cs, boolean isSource) {
+        if (cs instanceof CharsetUTF8 || cs instanceof CharsetASCII) {
+            return true;
+        }
+        if (cs instanceof CharsetMBCS) {
+            CharsetMBCS mbcs = (CharsetMBCS) cs;
+            CharsetMBCS.UConverterMBCSTable table = mbcs.sharedData.mbcs;
+            return (mbcs.options & UConverterConstants.OPTION_SWAP_LFNL) == 0 &&
+                table.outputType != CharsetMBCS.MBCS_OUTPUT_DBCS_ONLY &&
+                table.outputType != CharsetMBCS.MBCS_OUTPUT_2_SISO &&
+                table.asciiRoundtrips == 0xffffffffL &&
+                (!isSource || !hasAsciiTrailBytes(table.stateTable));
+        }
+        return false;
+    }
+
+    /*
+     * True if any state other than the initial one accepts a byte below 0x80,
+     * i.e., if such a byte can continue a multi-byte sequence.
+     */
+    private static boolean hasAsciiTrailBytes(int[][] stateTable) {
+        for (int state = 1; state < stateTable.length; ++state) {
+            for (int b = 0; b < 0x80; ++b) {
+                int entry = stateTable[state][b];
+                if (!CharsetMBCS.MBCS_ENTRY_IS_FINAL(entry) ||
+                        CharsetMBCS.MBCS_ENTRY_FINAL_ACTION(entry) != CharsetMBCS.MBCS_STATE_ILLEGAL) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -7,6 +7,7 @@
 package com.ibm.icu.charset;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.CharBuffer;
 import java.nio.IntBuffer;
 import java.nio.charset.CharsetDecoder;
@@ -30,6 +31,8 @@ class CharsetUTF16 extends CharsetICU {
     private static final int ENDIAN_XOR_BE = 0;
     private static final int ENDIAN_XOR_LE = 1;
     private static final int NEED_TO_WRITE_BOM = 1;
+    /* minimum run length for converting through a CharBuffer view of a non-array ByteBuffer */
+    private static final int MIN_VIEW_RUN_LENGTH = 16;
 
     private boolean isEndianSpecified;
     private boolean isBigEndian;
@@ -160,6 +163,9 @@ class CharsetUTF16 extends CharsetICU {
             char char16;
 
             while (true) {
+                if (toULength == 0) {
+                    decodeRun(source, target);
+                }
                 while (toULength < 2) {
                     if (!source.hasRemaining())
                         return CoderResult.UNDERFLOW;
@@ -191,6 +197,54 @@ class CharsetUTF16 extends CharsetICU {
             }
         }
 
+        /*
+         * Converts as many whole code units as possible directly from the source to the target,
+         * and stops before an unpaired surrogate, or a BOM for version 1 of UTF-16BE/LE.
+         * Such a code unit and any trailing odd byte are left for the code unit loop.
+         */
+        private final void decodeRun(ByteBuffer source, CharBuffer target) {
+            int count = Math.min(source.remaining() >> 1, target.remaining());
+            boolean checkBOM = isEndianSpecified && version == 1;
+            int i = 0;
+            if (source.hasArray() && target.hasArray()) {
+                byte[] src = source.array();
+                char[] dest = target.array();
+                int s = source.arrayOffset() + source.position();
+                int t = target.arrayOffset() + target.position();
+                int hi = actualEndianXOR, lo = 1 ^ actualEndianXOR;
+                while (i < count) {
+                    char c = (char) (((src[s + hi] & UConverterConstants.UNSIGNED_BYTE_MASK) << 8) | (src[s + lo] & UConverterConstants.UNSIGNED_BYTE_MASK));
+                    if (UTF16.isSurrogate(c)) {
+                        if (!UTF16.isLeadSurrogate(c) || i + 1 >= count) {
+                            break;
+                        }
+                        char trail = (char) (((src[s + 2 + hi] & UConverterConstants.UNSIGNED_BYTE_MASK) << 8) | (src[s + 2 + lo] & UConverterConstants.UNSIGNED_BYTE_MASK));
+                        if (!UTF16.isTrailSurrogate(trail)) {
+                            break;
+                        }
+                        dest[t + i++] = c;
+                        dest[t + i++] = trail;
+                        s += 4;
+                    } else if (checkBOM && (c == 0xfeff || c == 0xfffe)) {
+                        break;
+                    } else {
+                        dest[t + i++] = c;
+                        s += 2;
+                    }
+                }
+                target.position(target.position() + i);
+            } else if (count >= MIN_VIEW_RUN_LENGTH) {
+                CharBuffer units = source.slice().order(actualEndianXOR == ENDIAN_XOR_BE ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN).asCharBuffer();
+                char c;
+                while (i < count && !UTF16.isSurrogate(c = units.get(i)) && !(checkBOM && (c == 0xfeff || c == 0xfffe))) {
+                    ++i;
+                }
+                units.limit(i);
+                target.put(units);
+            }
+            source.position(source.position() + 2 * i);
+        }
+
         private final CoderResult decodeTrail(ByteBuffer source, CharBuffer target, IntBuffer offsets, char lead) {
             if (!UTF16.isLeadSurrogate(lead)) {
                 // 2 bytes, lead malformed
@@ -274,6 +328,9 @@ class CharsetUTF16 extends CharsetICU {
             }
 
             while (true) {
+                if (offsets == null) {
+                    encodeRun(source, target);
+                }
                 if (!source.hasRemaining())
                     return CoderResult.UNDERFLOW;
                 if (!target.hasRemaining())
@@ -285,6 +342,50 @@ class CharsetUTF16 extends CharsetICU {
             }
         }
 
+        /*
+         * Converts as many code units as possible directly from the source to the target,
+         * and stops before an unpaired surrogate or where the target has no room for a whole
+         * code unit or surrogate pair. Those are left for encodeChar().
+         */
+        private final void encodeRun(CharBuffer source, ByteBuffer target) {
+            int count = Math.min(source.remaining(), target.remaining() >> 1);
+            int i = 0;
+            if (source.hasArray() && target.hasArray()) {
+                char[] src = source.array();
+                byte[] dest = target.array();
+                int s = source.arrayOffset() + source.position();
+                int t = target.arrayOffset() + target.position();
+                int hi = endianXOR, lo = 1 ^ endianXOR;
+                while (i < count) {
+                    char c = src[s + i];
+                    if (UTF16.isSurrogate(c)) {
+                        if (!UTF16.isLeadSurrogate(c) || i + 1 >= count || !UTF16.isTrailSurrogate(src[s + i + 1])) {
+                            break;
+                        }
+                        dest[t + hi] = (byte) (c >>> 8);
+                        dest[t + lo] = (byte) c;
+                        c = src[s + ++i];
+                        t += 2;
+                    }
+                    dest[t + hi] = (byte) (c >>> 8);
+                    dest[t + lo] = (byte) c;
+                    t += 2;
+                    ++i;
+                }
+                source.position(source.position() + i);
+            } else if (count >= MIN_VIEW_RUN_LENGTH) {
+                int start = source.position();
+                while (i < count && !UTF16.isSurrogate(source.get(start + i))) {
+                    ++i;
+                }
+                CharBuffer run = source.duplicate();
+                run.limit(start + i);
+                target.slice().order(isBigEndian ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN).asCharBuffer().put(run);
+                source.position(start + i);
+            }
+            target.position(target.position() + 2 * i);
+        }
+
         private final CoderResult encodeChar(CharBuffer source, ByteBuffer target, IntBuffer offsets, char ch) {
             int sourceIndex = source.position() - 1;
             CoderResult cr;
@@ -13,6 +13,7 @@ import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CharsetEncoder;
 import java.nio.charset.CoderResult;
 
+import com.ibm.icu.lang.UCharacter;
 import com.ibm.icu.text.UTF16;
 import com.ibm.icu.text.UnicodeSet;
 
@@ -122,6 +123,9 @@ class CharsetUTF32 extends CharsetICU {
             int char32;
 
             while (true) {
+                if (toULength == 0 && source.hasArray() && target.hasArray()) {
+                    decodeRun(source, target);
+                }
                 while (toULength < 4) {
                     if (!source.hasRemaining())
                         return CoderResult.UNDERFLOW;
@@ -159,6 +163,42 @@ class CharsetUTF32 extends CharsetICU {
                 }
             }
         }
+
+        /*
+         * Converts as many whole code points as possible directly from the source array
+         * to the target array, and stops before an invalid code point or where the target
+         * has no room for the next one. Those are left for the code point loop.
+         */
+        private final void decodeRun(ByteBuffer source, CharBuffer target) {
+            byte[] src = source.array();
+            char[] dest = target.array();
+            int s = source.arrayOffset() + source.position();
+            int sLimit = s + (source.remaining() & ~3);
+            int t = target.arrayOffset() + target.position();
+            int tLimit = t + target.remaining();
+            int b0 = actualEndianXOR, b1 = 1 ^ actualEndianXOR, b2 = 2 ^ actualEndianXOR, b3 = 3 ^ actualEndianXOR;
+            int sStart = s, tStart = t;
+            while (s < sLimit && t < tLimit) {
+                int c = ((src[s + b0] & UConverterConstants.UNSIGNED_BYTE_MASK) << 24) |
+                        ((src[s + b1] & UConverterConstants.UNSIGNED_BYTE_MASK) << 16) |
+                        ((src[s + b2] & UConverterConstants.UNSIGNED_BYTE_MASK) << 8) |
+                        (src[s + b3] & UConverterConstants.UNSIGNED_BYTE_MASK);
+                if (0 <= c && c <= UConverterConstants.MAXIMUM_UCS2) {
+                    if (isSurrogate(c)) {
+                        break;
+                    }
+                    dest[t++] = (char) c;
+                } else if (UConverterConstants.MAXIMUM_UCS2 < c && c <= UConverterConstants.MAXIMUM_UTF && t + 1 < tLimit) {
+                    dest[t++] = UTF16.getLeadSurrogate(c);
+                    dest[t++] = UTF16.getTrailSurrogate(c);
+                } else {
+                    break;
+                }
+                s += 4;
+            }
+            source.position(source.position() + (s - sStart));
+            target.position(target.position() + (t - tStart));
+        }
     }
 
     class CharsetEncoderUTF32 extends CharsetEncoderICU {
@@ -199,6 +239,9 @@ class CharsetUTF32 extends CharsetICU {
             }
 
             while (true) {
+                if (offsets == null && source.hasArray() && target.hasArray()) {
+                    encodeRun(source, target);
+                }
                 if (!source.hasRemaining())
                     return CoderResult.UNDERFLOW;
                 if (!target.hasRemaining())
@@ -210,6 +253,39 @@ class CharsetUTF32 extends CharsetICU {
             }
         }
 
+        /*
+         * Converts as many code points as possible directly from the source array to the
+         * target array, and stops before an unpaired surrogate or where the target has no
+         * room for a whole code point. Those are left for encodeChar().
+         */
+        private final void encodeRun(CharBuffer source, ByteBuffer target) {
+            char[] src = source.array();
+            byte[] dest = target.array();
+            int s = source.arrayOffset() + source.position();
+            int sLimit = s + source.remaining();
+            int t = target.arrayOffset() + target.position();
+            int tLimit = t + (target.remaining() & ~3);
+            int b1 = 1 ^ endianXOR, b2 = 2 ^ endianXOR, b3 = 3 ^ endianXOR;
+            int sStart = s, tStart = t;
+            while (s < sLimit && t < tLimit) {
+                int char32 = src[s];
+                if (UTF16.isSurrogate((char) char32)) {
+                    if (!UTF16.isLeadSurrogate((char) char32) || s + 1 >= sLimit || !UTF16.isTrailSurrogate(src[s + 1])) {
+                        break;
+                    }
+                    char32 = UCharacter.getCodePoint((char) char32, src[++s]);
+                }
+                ++s;
+                dest[t + endianXOR] = 0;
+                dest[t + b1] = (byte) (char32 >>> 16);
+                dest[t + b2] = (byte) (char32 >>> 8);
+                dest[t + b3] = (byte) (char32);
+                t += 4;
+            }
+            source.position(source.position() + (s - sStart));
+            target.position(target.position() + (t - tStart));
+        }
+
         private final CoderResult encodeChar(CharBuffer source, ByteBuffer target, IntBuffer offsets, char ch) {
             int sourceIndex = source.position() - 1;
             CoderResult cr;
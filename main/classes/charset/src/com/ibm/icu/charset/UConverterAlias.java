@@ -12,6 +12,7 @@ import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.util.HashMap;
 
 import com.ibm.icu.impl.ICUData;
 import com.ibm.icu.impl.ICUResourceBundle;
@@ -49,7 +50,23 @@ final class UConverterAlias {
 
     static byte[] gNormalizedStringTable = null;
 
+    /*
+     * Indexes built once when the alias data is loaded, and never modified afterwards.
+     * gStrings caches the extracted converter, tag and alias names by string table index.
+     * gAliasIndex maps each normalized alias to its index in gAliasList/gUntaggedConvArray.
+     * gTagNumbers maps each tag (standard) name to its tag number.
+     */
+    private static String[] gStrings = null;
+
+    private static HashMap<String, Integer> gAliasIndex = null;
+
+    private static HashMap<String, Integer> gTagNumbers = null;
+
     static final String GET_STRING(int idx) {
+        String s;
+        if (gStrings != null && (s = gStrings[idx]) != null) {
+            return s;
+        }
         return extractString(gStringTable, 2 * idx);
     }
 
@@ -164,6 +181,8 @@ final class UConverterAlias {
             if (gOptionTable[0] != STD_NORMALIZED) {
                 throw new IOException("Unsupported alias normalization");
             }
+
+            buildIndexes();
             
             // agljport:todo umtx_lock(NULL);
             if (gAliasData == null) {
@@ -185,6 +204,55 @@ final class UConverterAlias {
         return true;
     }
 
+    /*
+     * Build the lookup indexes over the alias tables, so that an alias lookup
+     * is a hash lookup instead of a binary search with string extraction.
+     */
+    private static void buildIndexes() {
+        HashMap<String, Integer> aliasIndex = new HashMap<String, Integer>(gAliasList.length * 2);
+        for (int i = 0; i < gAliasList.length; i++) {
+            String normalized = GET_NORMALIZED_STRING(gAliasList[i]);
+            if (!aliasIndex.containsKey(normalized)) {
+                aliasIndex.put(normalized, Integer.valueOf(i));
+            }
+        }
+
+        String[] strings = new String[gStringTable.length / 2];
+        for (int i = 0; i < gConverterList.length; i++) {
+            cacheString(strings, gConverterList[i]);
+        }
+        HashMap<String, Integer> tagNumbers = new HashMap<String, Integer>(gTagList.length * 2);
+        for (int i = 0; i < gTagList.length; i++) {
+            String tagName = cacheString(strings, gTagList[i]);
+            if (!tagNumbers.containsKey(tagName)) {
+                tagNumbers.put(tagName, Integer.valueOf(i));
+            }
+        }
+        for (int i = 0; i < gTaggedAliasArray.length; i++) {
+            int listOffset = gTaggedAliasArray[i];
+            if (listOffset != 0 && listOffset < gTaggedAliasLists.length) {
+                int listLimit = Math.min(listOffset + 1 + gTaggedAliasLists[listOffset], gTaggedAliasLists.length);
+                for (int j = listOffset + 1; j < listLimit; j++) {
+                    if (gTaggedAliasLists[j] != 0) {
+                        cacheString(strings, gTaggedAliasLists[j]);
+                    }
+                }
+            }
+        }
+
+        gStrings = strings;
+        gAliasIndex = aliasIndex;
+        gTagNumbers = tagNumbers;
+    }
+
+    private static String cacheString(String[] strings, int idx) {
+        String s = strings[idx];
+        if (s == null) {
+            strings[idx] = s = extractString(gStringTable, 2 * idx);
+        }
+        return s;
+    }
+
     // U_CFUNC const char * io_getConverterName(const char *alias, UErrorCode
     // *pErrorCode)
 //    public static final String io_getConverterName(String alias)
@@ -206,55 +274,25 @@ final class UConverterAlias {
     // static U_INLINE uint32_t findConverter(const char *alias, UErrorCode
     // *pErrorCode)
     private static final int findConverter(String alias, boolean[] isAmbigous) {
-        int mid, start, limit;
-        int lastMid;
-        int result;
-        StringBuilder strippedName = new StringBuilder();
-        String aliasToCompare;
+        StringBuilder strippedName = new StringBuilder(alias.length());
 
         stripForCompare(strippedName, alias);
-        alias = strippedName.toString();
 
-        /* do a binary search for the alias */
-        start = 0;
-        limit = gUntaggedConvArray.length;
-        mid = limit;
-        lastMid = Integer.MAX_VALUE;
-
-        for (;;) {
-            mid = (start + limit) / 2;
-            if (lastMid == mid) { /* Have we moved? */
-                break; /* We haven't moved, and it wasn't found. */
-            }
-            lastMid = mid;
-            aliasToCompare = GET_NORMALIZED_STRING(gAliasList[mid]);
-            result = alias.compareTo(aliasToCompare);
-
-            if (result < 0) {
-                limit = mid;
-            } else if (result > 0) {
-                start = mid;
-            } else {
-                /*
-                 * Since the gencnval tool folds duplicates into one entry, this
-                 * alias in gAliasList is unique, but different standards may
-                 * map an alias to different converters.
-                 */
-                if ((gUntaggedConvArray[mid] & AMBIGUOUS_ALIAS_MAP_BIT) != 0) {
-                    isAmbigous[0]=true;
-                }
-                /* State whether the canonical converter name contains an option.
-                This information is contained in this list in order to maintain backward & forward compatibility. */
-                /*if (containsOption) {
-                    UBool containsCnvOptionInfo = (UBool)gMainTable.optionTable->containsCnvOptionInfo;
-                    *containsOption = (UBool)((containsCnvOptionInfo
-                        && ((gMainTable.untaggedConvArray[mid] & UCNV_CONTAINS_OPTION_BIT) != 0))
-                        || !containsCnvOptionInfo);
-                }*/
-                return gUntaggedConvArray[mid] & CONVERTER_INDEX_MASK;
-            }
+        /* look up the normalized alias */
+        Integer mid = gAliasIndex.get(strippedName.toString());
+        if (mid == null) {
+            return Integer.MAX_VALUE;
         }
-        return Integer.MAX_VALUE;
+        /*
+         * Since the gencnval tool folds duplicates into one entry, this
+         * alias in gAliasList is unique, but different standards may
+         * map an alias to different converters.
+         */
+        int convFlags = gUntaggedConvArray[mid.intValue()];
+        if ((convFlags & AMBIGUOUS_ALIAS_MAP_BIT) != 0) {
+            isAmbigous[0]=true;
+        }
+        return convFlags & CONVERTER_INDEX_MASK;
     }
 
     /**
@@ -589,12 +627,10 @@ final class UConverterAlias {
 
     // static uint32_t getTagNumber(const char *tagname)
     private static int getTagNumber(String tagName) {
-        if (gTagList != null) {
-            int tagNum;
-            for (tagNum = 0; tagNum < gTagList.length; tagNum++) {
-                if (tagName.equals(GET_STRING(gTagList[tagNum]))) {
-                    return tagNum;
-                }
+        if (gTagNumbers != null) {
+            Integer tagNum = gTagNumbers.get(tagName);
+            if (tagNum != null) {
+                return tagNum.intValue();
             }
         }
 
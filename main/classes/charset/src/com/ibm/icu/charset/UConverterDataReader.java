@@ -11,6 +11,8 @@ import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
 
 import com.ibm.icu.impl.ICUBinary;
 
@@ -429,6 +431,18 @@ final class UConverterDataReader implements ICUBinary.Authenticate {
         //if(debug) System.out.println("Bytes left in dataInputStream " +dataInputStream.available());
     }
     
+    /**
+     * <p>Constructor for converter data in a (typically memory-mapped) buffer.
+     * The mapping tables are read with bulk buffer operations, and the extension
+     * tables are returned as read-only views into the buffer rather than copies.</p>
+     * @param data .cnv file contents, positioned at the start of the file
+     * @exception IOException throw if data file fails authentication 
+     */
+    protected UConverterDataReader(ByteBuffer data) throws IOException {
+        this(new ByteBufferInputStream(data));
+        mappedData = data;
+    }
+    
     // protected methods -------------------------------------------------
     
     protected void readStaticData(UConverterStaticData sd) throws IOException
@@ -498,31 +512,52 @@ final class UConverterDataReader implements ICUBinary.Authenticate {
     
     protected void readMBCSTable(int[][] stateTableArray, CharsetMBCS.MBCSToUFallback[] toUFallbacksArray, char[] unicodeCodeUnitsArray, char[] fromUnicodeTableArray, byte[] fromUnicodeBytesArray) throws IOException
     {
-        int i, j;
+        // The tables are indexed directly by the conversion loops, so they are
+        // copied into arrays, one bulk read per table section.
+        int i, length = toUFallbacksArray.length * 2;
         for(i = 0; i < stateTableArray.length; ++i){
-            for(j = 0; j < stateTableArray[i].length; ++j){
-                stateTableArray[i][j] = dataInputStream.readInt();
-                bytesRead+=4;
-            }
+            length += stateTableArray[i].length;
         }
-        for(i = 0; i < toUFallbacksArray.length; ++i) {
-            toUFallbacksArray[i].offset = dataInputStream.readInt();
-            bytesRead+=4;
-            toUFallbacksArray[i].codePoint = dataInputStream.readInt();
-            bytesRead+=4;
+        IntBuffer ib = readSection(length * 4).asIntBuffer();
+        for(i = 0; i < stateTableArray.length; ++i){
+            ib.get(stateTableArray[i]);
         }
-        for(i = 0; i < unicodeCodeUnitsArray.length; ++i){
-            unicodeCodeUnitsArray[i] = dataInputStream.readChar();
-            bytesRead+=2;
+        for(i = 0; i < toUFallbacksArray.length; ++i) {
+            toUFallbacksArray[i].offset = ib.get();
+            toUFallbacksArray[i].codePoint = ib.get();
         }
-        for(i = 0; i < fromUnicodeTableArray.length; ++i){
-            fromUnicodeTableArray[i] = dataInputStream.readChar();
-            bytesRead+=2;
+        CharBuffer cb = readSection((unicodeCodeUnitsArray.length + fromUnicodeTableArray.length) * 2).asCharBuffer();
+        cb.get(unicodeCodeUnitsArray);
+        cb.get(fromUnicodeTableArray);
+        if (mappedData != null) {
+            if (fromUnicodeBytesArray.length > mappedData.remaining()) {
+                throw new IOException("truncated converter data");
+            }
+            mappedData.get(fromUnicodeBytesArray);
+        } else {
+            dataInputStream.readFully(fromUnicodeBytesArray);
         }
-        for(i = 0; i < fromUnicodeBytesArray.length; ++i){
-            fromUnicodeBytesArray[i] = dataInputStream.readByte();
-            bytesRead++;
+        bytesRead += fromUnicodeBytesArray.length;
+    }
+
+    /*
+     * Returns the next length bytes of the data as a big-endian buffer:
+     * a view of the mapped data, or a copy read from the stream.
+     */
+    private ByteBuffer readSection(int length) throws IOException {
+        if (mappedData != null) {
+            if (length > mappedData.remaining()) {
+                throw new IOException("truncated converter data");
+            }
+            ByteBuffer section = mappedData.slice();
+            section.limit(length);
+            skipMapped(length);
+            return section;
         }
+        byte[] bytes = new byte[length];
+        dataInputStream.readFully(bytes);
+        bytesRead += length;
+        return ByteBuffer.wrap(bytes);
     }
 
     protected String readBaseTableName() throws IOException
@@ -544,6 +579,22 @@ final class UConverterDataReader implements ICUBinary.Authenticate {
         if(skipped != skip){
             throw new IOException("could not skip "+ skip +" bytes");
         }
+        if (mappedData != null) {
+            // indexes[EXT_SIZE] is the total size of the extension data, including the indexes.
+            int start = mappedData.position();
+            if (mappedData.remaining() < (EXT_SIZE + 1) * 4) {
+                throw new IOException("truncated extension data");
+            }
+            int size = mappedData.getInt(start + EXT_SIZE * 4);
+            if (size < (EXT_SIZE + 1) * 4 || size > mappedData.remaining()) {
+                throw new IOException("invalid extension data size " + size);
+            }
+            ByteBuffer ext = mappedData.duplicate();
+            ext.limit(start + size);
+            ext.position(start);
+            skipMapped(size);
+            return ext.slice();
+        }
         int n = dataInputStream.readInt();
         bytesRead+=4;
         int[] indexes = new int[n];
@@ -566,6 +617,57 @@ final class UConverterDataReader implements ICUBinary.Authenticate {
         return b;
     }
 
+    /*
+     * Advance the position of the mapped data after reading through a view buffer.
+     */
+    private void skipMapped(int length) {
+        mappedData.position(mappedData.position() + length);
+        bytesRead += length;
+    }
+
+    /*
+     * Read-only InputStream over a ByteBuffer, so that the data header can be
+     * authenticated with ICUBinary and the small header structures can be read
+     * with the same DataInputStream code as for stream data.
+     * It reads from the buffer directly, so the buffer position tracks the stream.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buf;
+
+        ByteBufferInputStream(ByteBuffer buf) {
+            this.buf = buf;
+        }
+
+        public int read() {
+            if (!buf.hasRemaining()) {
+                return -1;
+            }
+            return buf.get() & 0xff;
+        }
+
+        public int read(byte[] bytes, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buf.hasRemaining()) {
+                return -1;
+            }
+            len = Math.min(len, buf.remaining());
+            buf.get(bytes, off, len);
+            return len;
+        }
+
+        public long skip(long n) {
+            int count = (int) Math.max(0, Math.min(n, buf.remaining()));
+            buf.position(buf.position() + count);
+            return count;
+        }
+
+        public int available() {
+            return buf.remaining();
+        }
+    }
+
     /*protected byte[] readExtTables(int n) throws IOException
     {
         byte[] tables = new byte[n];
@@ -596,6 +698,15 @@ final class UConverterDataReader implements ICUBinary.Authenticate {
     * ICU data file input stream
     */
     DataInputStream dataInputStream;
+
+    /**
+    * Converter data buffer, or null if the data is read from a stream.
+    * When set, dataInputStream reads from this buffer.
+    */
+    private ByteBuffer mappedData;
+
+    /* index of the total extension data size in the extension indexes, see CharsetMBCS */
+    private static final int EXT_SIZE = 31;
     
 //    private byte[] unicodeVersion;
                                        
@@ -1,6 +1,6 @@
 /*
  *******************************************************************************
- * Copyright (C) 2008-2012, Google Inc, International Business Machines Corporation
+ * Copyright (C) 2008-2013, Google Inc, International Business Machines Corporation
  * and others. All Rights Reserved.
  *******************************************************************************
  */
@@ -20,6 +20,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.ibm.icu.impl.MultiComparator;
 import com.ibm.icu.lang.UCharacter;
@@ -675,6 +676,102 @@ public final class AlphabeticIndex<V> implements Iterable<Bucket<V>> {
         return result;
     }
 
+    /**
+     * Builds an immutable, thread-safe version of this index, with the same buckets but without any records.
+     * The immutable index assigns names to buckets much faster than {@link #getBucketIndex(CharSequence)}.
+     * 
+     * @return an immutable index with the buckets of this index
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public ImmutableIndex<V> buildImmutableIndex() {
+        if (buckets == null) {
+            initBuckets();
+        }
+        // Copy the buckets without their records
+        List<Bucket<V>> fullList = new ArrayList<Bucket<V>>(buckets.bucketList.size());
+        Map<Bucket<V>, Bucket<V>> copies = new HashMap<Bucket<V>, Bucket<V>>();
+        for (Bucket<V> bucket : buckets.bucketList) {
+            Bucket<V> copy = new Bucket<V>(bucket.label, bucket.lowerBoundary, bucket.labelType);
+            fullList.add(copy);
+            copies.put(bucket, copy);
+        }
+        List<Bucket<V>> visibleList = new ArrayList<Bucket<V>>();
+        for (Bucket<V> bucket : buckets) {
+            visibleList.add(copies.get(bucket));
+        }
+
+        // The primary sort keys of the lower boundaries, and the visible bucket index of each bucket,
+        // the same as rawGetBucketIndex() would return for a name that sorts into that bucket
+        int boundaryCount = 0;
+        while (boundaryCount < fullList.size() && fullList.get(boundaryCount).lowerBoundary != null) {
+            ++boundaryCount;
+        }
+        byte[][] boundaryKeys = new byte[boundaryCount][];
+        int[] visibleIndexes = new int[boundaryCount];
+        RawCollationKey key = new RawCollationKey();
+        for (int i = 0; i < boundaryCount; ++i) {
+            Bucket<V> bucket = buckets.bucketList.get(i);
+            collatorPrimaryOnly.getRawCollationKey(bucket.lowerBoundary, key);
+            boundaryKeys[i] = new byte[key.size];
+            System.arraycopy(key.bytes, 0, boundaryKeys[i], 0, key.size);
+            if (buckets.rebucket == null) {
+                visibleIndexes[i] = i;
+            } else {
+                Bucket<V> target = buckets.rebucket.get(bucket);
+                if (target == null) {
+                    target = bucket;
+                }
+                int index = 0;
+                for (Bucket<V> bucket2 : buckets) {
+                    if (bucket2 == target) {
+                        break;
+                    }
+                    ++index;
+                }
+                visibleIndexes[i] = index;
+            }
+        }
+        RuleBasedCollator collator = collatorPrimaryOnly.cloneAsThawed();
+        collator.freeze();
+        return new ImmutableIndex<V>(collator, Collections.unmodifiableList(visibleList), boundaryKeys,
+                visibleIndexes);
+    }
+
+    /**
+     * Immutable indexes by locale, for getImmutableIndex(ULocale)
+     */
+    private static final ConcurrentHashMap<ULocale, ImmutableIndex<Object>> IMMUTABLE_INDEXES =
+            new ConcurrentHashMap<ULocale, ImmutableIndex<Object>>();
+    private static final int IMMUTABLE_INDEXES_MAX_SIZE = 100;
+
+    /**
+     * Returns the immutable index for the locale, with the default labels of the locale. The index is built once and
+     * then shared by all callers.
+     * 
+     * @param locale
+     *            The locale for the index.
+     * @return the shared immutable index for the locale
+     * @see #buildImmutableIndex()
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> ImmutableIndex<V> getImmutableIndex(ULocale locale) {
+        ImmutableIndex<Object> index = IMMUTABLE_INDEXES.get(locale);
+        if (index == null) {
+            index = new AlphabeticIndex<Object>(locale).buildImmutableIndex();
+            if (IMMUTABLE_INDEXES.size() < IMMUTABLE_INDEXES_MAX_SIZE) {
+                ImmutableIndex<Object> cached = IMMUTABLE_INDEXES.putIfAbsent(locale, index);
+                if (cached != null) {
+                    index = cached;
+                }
+            }
+        }
+        // The buckets of an immutable index have no records, so they work for any record data type.
+        return (ImmutableIndex<V>) (ImmutableIndex<?>) index;
+    }
+
     /**
      * Clear the index.
      * 
@@ -912,6 +1009,166 @@ public final class AlphabeticIndex<V> implements Iterable<Bucket<V>> {
         }
     }
 
+    /**
+     * An immutable, thread-safe version of an AlphabeticIndex, for assigning names to buckets. It has the buckets of
+     * the index that it was built from, without records.
+     * <p>
+     * Names are assigned to buckets by the first bytes of their primary sort keys, which are compared with the
+     * precomputed sort keys of the bucket boundaries. A table of the first key byte narrows the comparison to the few
+     * buckets that start with the same byte, so that the time per name hardly depends on the number of buckets or on
+     * the length of the name.
+     * 
+     * @param <V>
+     *            Data type of the records of the buckets, which are always empty
+     * @see AlphabeticIndex#buildImmutableIndex()
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static final class ImmutableIndex<V> implements Iterable<Bucket<V>> {
+        private final RuleBasedCollator collatorPrimaryOnly;
+        private final List<Bucket<V>> buckets;
+        private final byte[][] boundaryKeys;
+        private final int[] visibleIndexes;
+        // Sort key bytes needed to compare a name with any boundary
+        private final int prefixLength;
+        // The boundaries whose keys start with byte b are firstByteStarts[b] to firstByteStarts[b + 1] - 1
+        private final int[] firstByteStarts = new int[257];
+
+        private ImmutableIndex(RuleBasedCollator collatorPrimaryOnly, List<Bucket<V>> buckets, byte[][] boundaryKeys,
+                int[] visibleIndexes) {
+            this.collatorPrimaryOnly = collatorPrimaryOnly;
+            this.buckets = buckets;
+            this.boundaryKeys = boundaryKeys;
+            this.visibleIndexes = visibleIndexes;
+            int maxLength = 1;
+            for (byte[] key : boundaryKeys) {
+                maxLength = Math.max(maxLength, key.length);
+            }
+            prefixLength = maxLength;
+            int i = 0;
+            for (int b = 0; b <= 256; ++b) {
+                while (i < boundaryKeys.length
+                        && (boundaryKeys[i].length == 0 || (boundaryKeys[i][0] & 0xff) < b)) {
+                    ++i;
+                }
+                firstByteStarts[b] = i;
+            }
+        }
+
+        /**
+         * Returns the number of buckets.
+         * 
+         * @return the number of buckets
+         * @draft ICU 51
+         * @provisional This API might change or be removed in a future release.
+         */
+        public int getBucketCount() {
+            return buckets.size();
+        }
+
+        /**
+         * Returns a bucket.
+         * 
+         * @param index
+         *            the bucket index
+         * @return the bucket, which has no records
+         * @draft ICU 51
+         * @provisional This API might change or be removed in a future release.
+         */
+        public Bucket<V> getBucket(int index) {
+            return buckets.get(index);
+        }
+
+        /**
+         * Returns an iterator over the buckets, which have no records.
+         * 
+         * @return an iterator over the buckets
+         * @draft ICU 51
+         * @provisional This API might change or be removed in a future release.
+         */
+        public Iterator<Bucket<V>> iterator() {
+            return buckets.iterator();
+        }
+
+        /**
+         * Returns the index of the bucket for the name, the same as
+         * {@link AlphabeticIndex#getBucketIndex(CharSequence)} of the index that this was built from.
+         * 
+         * @param name
+         *            Name, such as a name
+         * @return the bucket index
+         * @draft ICU 51
+         * @provisional This API might change or be removed in a future release.
+         */
+        public int getBucketIndex(CharSequence name) {
+            return getBucketIndex(collatorPrimaryOnly, name, new byte[prefixLength]);
+        }
+
+        /**
+         * Returns the indexes of the buckets for many names. This is faster than calling
+         * {@link #getBucketIndex(CharSequence)} for each name.
+         * 
+         * @param names
+         *            the names
+         * @param bucketIndexes
+         *            the array for the bucket indexes, or null. A new array is allocated if this is null or shorter
+         *            than the names array.
+         * @return the array of bucket indexes, in the order of the names
+         * @draft ICU 51
+         * @provisional This API might change or be removed in a future release.
+         */
+        public int[] getBucketIndexes(CharSequence[] names, int[] bucketIndexes) {
+            if (bucketIndexes == null || bucketIndexes.length < names.length) {
+                bucketIndexes = new int[names.length];
+            }
+            // A thawed clone does not lock the collator for each name
+            RuleBasedCollator collator = collatorPrimaryOnly.cloneAsThawed();
+            byte[] prefix = new byte[prefixLength];
+            for (int i = 0; i < names.length; ++i) {
+                bucketIndexes[i] = getBucketIndex(collator, names[i], prefix);
+            }
+            return bucketIndexes;
+        }
+
+        private int getBucketIndex(RuleBasedCollator collator, CharSequence name, byte[] prefix) {
+            // The prefix is at least as long as every boundary key, which ends with a terminator byte,
+            // so comparing the prefix gives the same result as comparing the whole sort key of the name.
+            int length = collator.getSortKeyPart(name.toString(), 0, prefix, 0, prefixLength);
+            int first = length == 0 ? 0 : prefix[0] & 0xff;
+            // Find the first boundary that is not less than the name, like rawGetBucketIndex()
+            int start = firstByteStarts[first];
+            int limit = firstByteStarts[first + 1];
+            while (start < limit) {
+                int middle = (start + limit) >>> 1;
+                if (compareKeys(boundaryKeys[middle], prefix, length) < 0) {
+                    start = middle + 1;
+                } else {
+                    limit = middle;
+                }
+            }
+            int bucket;
+            if (start < boundaryKeys.length && compareKeys(boundaryKeys[start], prefix, length) == 0) {
+                bucket = start;
+            } else {
+                // the first boundary is always "", so this is never -1
+                bucket = start - 1;
+            }
+            return visibleIndexes[bucket];
+        }
+
+        private static int compareKeys(byte[] key, byte[] prefix, int prefixLength) {
+            int length = Math.min(key.length, prefixLength);
+            for (int i = 0; i < length; ++i) {
+                int b1 = key[i] & 0xff;
+                int b2 = prefix[i] & 0xff;
+                if (b1 != b2) {
+                    return b1 - b2;
+                }
+            }
+            return key.length - prefixLength;
+        }
+    }
+
     /**
      * A record to be sorted into buckets with getIndexBucketCharacters.
      * 
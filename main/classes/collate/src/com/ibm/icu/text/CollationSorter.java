@@ -0,0 +1,336 @@
+/*
+ *******************************************************************************
+ * Copyright (C) 2013, International Business Machines Corporation and         *
+ * others. All Rights Reserved.                                                *
+ *******************************************************************************
+ */
+package com.ibm.icu.text;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Sorts large arrays of strings with a <code>RuleBasedCollator</code>, using multiple threads.
+ * <p>
+ * The sort key of each string is generated once, in parallel, and the strings are then sorted
+ * by comparing their sort key bytes, with a parallel merge sort. This is much faster than
+ * <code>Arrays.sort(strings, collator)</code>, which compares the strings with the collator
+ * about n*log(n) times, and which uses only one thread. The sort is stable: strings with equal
+ * sort keys stay in their original order.
+ * <p>
+ * Each thread generates sort keys with its own clone of the collator, so that the threads do not
+ * wait for each other even if the collator is frozen. The collator itself is not modified.
+ * The sort keys are kept in memory until the sort is done.
+ *
+ * @draft ICU 51
+ * @provisional This API might change or be removed in a future release.
+ */
+public final class CollationSorter {
+    /**
+     * Each thread gets at least this many strings; shorter arrays are sorted in the calling thread.
+     */
+    private static final int MIN_LENGTH_PER_THREAD = 1000;
+
+    /**
+     * Ranges shorter than this are sorted with an insertion sort.
+     */
+    private static final int INSERTION_SORT_LENGTH = 16;
+
+    private CollationSorter() {
+    }
+
+    /**
+     * Sorts the strings with the collator, using as many threads as there are processors.
+     * @param collator the collator
+     * @param strings the strings to be sorted in place, none of them null
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static void sort(RuleBasedCollator collator, String[] strings) {
+        sort(collator, strings, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Sorts the strings with the collator.
+     * @param collator the collator
+     * @param strings the strings to be sorted in place, none of them null
+     * @param threads the maximum number of threads to use
+     * @throws IllegalArgumentException if threads is less than 1
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static void sort(RuleBasedCollator collator, String[] strings, int threads) {
+        int[] order = sortedIndexes(collator, strings, threads);
+        String[] sorted = new String[strings.length];
+        for (int i = 0; i < order.length; ++i) {
+            sorted[i] = strings[order[i]];
+        }
+        System.arraycopy(sorted, 0, strings, 0, sorted.length);
+    }
+
+    /**
+     * Returns the permutation that sorts the strings with the collator, using as many threads as
+     * there are processors. The strings are not modified.
+     * @param collator the collator
+     * @param strings the strings, none of them null
+     * @return the indexes of the strings in sorted order
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static int[] sortedIndexes(RuleBasedCollator collator, String[] strings) {
+        return sortedIndexes(collator, strings, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Returns the permutation that sorts the strings with the collator. The strings are not modified.
+     * @param collator the collator
+     * @param strings the strings, none of them null
+     * @param threads the maximum number of threads to use
+     * @return the indexes of the strings in sorted order
+     * @throws IllegalArgumentException if threads is less than 1
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static int[] sortedIndexes(RuleBasedCollator collator, String[] strings, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1: " + threads);
+        }
+        int length = strings.length;
+        if (threads > length / MIN_LENGTH_PER_THREAD) {
+            threads = Math.max(1, length / MIN_LENGTH_PER_THREAD);
+        }
+        byte[][] keys = new byte[length][];
+        if (threads == 1) {
+            generateKeys(collator.cloneAsThawed(), strings, keys, 0, length);
+            return sortKeys(keys, null, 1);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            // Several key generation tasks per thread, because their string lengths may differ
+            List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+            int chunks = threads * 4;
+            for (int c = 0; c < chunks; ++c) {
+                tasks.add(new KeyTask(collator, strings, keys, chunkStart(c, chunks, length),
+                        chunkStart(c + 1, chunks, length)));
+            }
+            runAll(executor, tasks);
+            return sortKeys(keys, executor, threads);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /*
+     * Returns the indexes of the keys in sorted order.
+     * Sorts one range per thread, then merges pairs of adjacent ranges until one is left.
+     */
+    private static int[] sortKeys(byte[][] keys, ExecutorService executor, int threads) {
+        int length = keys.length;
+        int[] order = new int[length];
+        for (int i = 0; i < length; ++i) {
+            order[i] = i;
+        }
+        int[] temp = new int[length];
+        if (threads == 1) {
+            mergeSort(order, temp, 0, length, keys);
+            return order;
+        }
+        int[] starts = new int[threads + 1];
+        for (int c = 0; c <= threads; ++c) {
+            starts[c] = chunkStart(c, threads, length);
+        }
+        List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+        for (int c = 0; c < threads; ++c) {
+            tasks.add(new SortTask(order, temp, starts[c], starts[c + 1], keys));
+        }
+        runAll(executor, tasks);
+        int count = threads;
+        while (count > 1) {
+            tasks.clear();
+            int newCount = 0;
+            for (int c = 0; c < count; c += 2) {
+                if (c + 1 < count) {
+                    tasks.add(new MergeTask(order, temp, starts[c], starts[c + 1], starts[c + 2], keys));
+                }
+                starts[newCount++] = starts[c];
+            }
+            starts[newCount] = length;
+            runAll(executor, tasks);
+            count = newCount;
+        }
+        return order;
+    }
+
+    private static int chunkStart(int chunk, int chunks, int length) {
+        return (int) ((long) length * chunk / chunks);
+    }
+
+    private static void runAll(ExecutorService executor, List<Callable<Object>> tasks) {
+        try {
+            for (Future<Object> f : executor.invokeAll(tasks)) {
+                f.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while sorting", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static void generateKeys(RuleBasedCollator collator, String[] strings, byte[][] keys, int start,
+            int limit) {
+        RawCollationKey key = new RawCollationKey();
+        for (int i = start; i < limit; ++i) {
+            if (strings[i] == null) {
+                throw new NullPointerException("strings[" + i + "] is null");
+            }
+            collator.getRawCollationKey(strings[i], key);
+            byte[] bytes = new byte[key.size];
+            System.arraycopy(key.bytes, 0, bytes, 0, key.size);
+            keys[i] = bytes;
+        }
+    }
+
+    /*
+     * Compares sort keys as unsigned bytes.
+     */
+    private static int compareKeys(byte[] key1, byte[] key2) {
+        int length = key1.length < key2.length ? key1.length : key2.length;
+        for (int i = 0; i < length; ++i) {
+            int b1 = key1[i] & 0xff;
+            int b2 = key2[i] & 0xff;
+            if (b1 != b2) {
+                return b1 - b2;
+            }
+        }
+        return key1.length - key2.length;
+    }
+
+    /*
+     * Stable merge sort of order[start..limit[ by the keys of the indexes.
+     */
+    private static void mergeSort(int[] order, int[] temp, int start, int limit, byte[][] keys) {
+        if (limit - start <= INSERTION_SORT_LENGTH) {
+            for (int i = start + 1; i < limit; ++i) {
+                int index = order[i];
+                byte[] key = keys[index];
+                int j = i;
+                while (j > start && compareKeys(keys[order[j - 1]], key) > 0) {
+                    order[j] = order[j - 1];
+                    --j;
+                }
+                order[j] = index;
+            }
+            return;
+        }
+        int middle = (start + limit) >>> 1;
+        mergeSort(order, temp, start, middle, keys);
+        mergeSort(order, temp, middle, limit, keys);
+        merge(order, temp, start, middle, limit, keys);
+    }
+
+    /*
+     * Merges the sorted ranges order[start..middle[ and order[middle..limit[.
+     */
+    private static void merge(int[] order, int[] temp, int start, int middle, int limit, byte[][] keys) {
+        if (start == middle || middle == limit || compareKeys(keys[order[middle - 1]], keys[order[middle]]) <= 0) {
+            return; // already in order
+        }
+        System.arraycopy(order, start, temp, start, limit - start);
+        int i = start;
+        int j = middle;
+        int k = start;
+        while (i < middle && j < limit) {
+            if (compareKeys(keys[temp[j]], keys[temp[i]]) < 0) {
+                order[k++] = temp[j++];
+            } else {
+                order[k++] = temp[i++];
+            }
+        }
+        while (i < middle) {
+            order[k++] = temp[i++];
+        }
+        while (j < limit) {
+            order[k++] = temp[j++];
+        }
+    }
+
+    private static final class KeyTask implements Callable<Object> {
+        private final RuleBasedCollator collator;
+        private final String[] strings;
+        private final byte[][] keys;
+        private final int start;
+        private final int limit;
+
+        KeyTask(RuleBasedCollator collator, String[] strings, byte[][] keys, int start, int limit) {
+            this.collator = collator;
+            this.strings = strings;
+            this.keys = keys;
+            this.start = start;
+            this.limit = limit;
+        }
+
+        public Object call() {
+            generateKeys(collator.cloneAsThawed(), strings, keys, start, limit);
+            return null;
+        }
+    }
+
+    private static final class SortTask implements Callable<Object> {
+        private final int[] order;
+        private final int[] temp;
+        private final int start;
+        private final int limit;
+        private final byte[][] keys;
+
+        SortTask(int[] order, int[] temp, int start, int limit, byte[][] keys) {
+            this.order = order;
+            this.temp = temp;
+            this.start = start;
+            this.limit = limit;
+            this.keys = keys;
+        }
+
+        public Object call() {
+            mergeSort(order, temp, start, limit, keys);
+            return null;
+        }
+    }
+
+    private static final class MergeTask implements Callable<Object> {
+        private final int[] order;
+        private final int[] temp;
+        private final int start;
+        private final int middle;
+        private final int limit;
+        private final byte[][] keys;
+
+        MergeTask(int[] order, int[] temp, int start, int middle, int limit, byte[][] keys) {
+            this.order = order;
+            this.temp = temp;
+            this.start = start;
+            this.middle = middle;
+            this.limit = limit;
+            this.keys = keys;
+        }
+
+        public Object call() {
+            merge(order, temp, start, middle, limit, keys);
+            return null;
+        }
+    }
+}
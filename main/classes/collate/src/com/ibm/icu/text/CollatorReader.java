@@ -1,6 +1,6 @@
 /**
  *******************************************************************************
- * Copyright (C) 1996-2011, International Business Machines Corporation and
+ * Copyright (C) 1996-2013, International Business Machines Corporation and
  * others. All Rights Reserved.
  *******************************************************************************
  */
@@ -8,9 +8,12 @@ package com.ibm.icu.text;
 
 import java.io.BufferedInputStream;
 import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 import com.ibm.icu.impl.ICUBinary;
 import com.ibm.icu.impl.ICUData;
@@ -44,7 +47,7 @@ final class CollatorReader {
                        LeadByteConstants leadByteConstants, Output<Integer> maxUCAContractionLength)
             throws IOException {
         InputStream i = ICUData.getRequiredStream(ICUResourceBundle.ICU_BUNDLE + "/coll/ucadata.icu");
-        BufferedInputStream b = new BufferedInputStream(i, 90000);
+        BufferedInputStream b = new BufferedInputStream(i, TABLE_CHUNK_SIZE_);
         CollatorReader reader = new CollatorReader(b);
         char[] ucaContractions = reader.readImp(rbc, ucac, leadByteConstants, maxUCAContractionLength);
         b.close();
@@ -61,6 +64,9 @@ final class CollatorReader {
             }
 
             public int read(byte[] bytes, int off, int len) throws IOException {
+                if (len > 0 && !buf.hasRemaining()) {
+                    return -1;
+                }
                 len = Math.min(len, buf.remaining());
                 buf.get(bytes, off, len);
                 return len;
@@ -71,10 +77,7 @@ final class CollatorReader {
     static void initRBC(RuleBasedCollator rbc, ByteBuffer data) throws IOException {
         final int MIN_BINARY_DATA_SIZE_ = (42 + 25) << 2;
         int dataLength = data.remaining();
-        // TODO: Change the rest of this class to use the ByteBuffer directly, rather than
-        // a DataInputStream, except for passing an InputStream to ICUBinary.readHeader().
-        // Consider changing ICUBinary to also work with a ByteBuffer.
-        CollatorReader reader = new CollatorReader(makeByteBufferInputStream(data), false);
+        CollatorReader reader = new CollatorReader(data, false);
         if (dataLength > MIN_BINARY_DATA_SIZE_) {
             reader.readImp(rbc, null, null, null);
         } else {
@@ -101,54 +104,255 @@ final class CollatorReader {
         // }
     }
 
+    /**
+     * Writes the tables, default options and rules of a collator built from rules, so that they can be read by
+     * readTailoring() instead of building the tailoring again. Unlike the ICU4C binary image read by initRBC(),
+     * the tables are written with the offsets of the tailoring builder, and the rules and reorder codes are included.
+     * 
+     * @param rbc
+     *            RuleBasedCollator to write
+     * @param outputStream
+     *            the output stream
+     * @exception IOException
+     *                thrown when there's an error writing the data.
+     */
+    static void writeTailoring(RuleBasedCollator rbc, OutputStream outputStream) throws IOException {
+        DataOutputStream output = new DataOutputStream(outputStream);
+        output.writeInt(TAILORING_FORMAT_ID_);
+        output.writeInt(TAILORING_FORMAT_VERSION_);
+        writeVersion(output, RuleBasedCollator.UCA_.m_UCA_version_);
+        writeVersion(output, RuleBasedCollator.UCA_.m_UCD_version_);
+        writeChars(output, rbc.m_rules_ == null ? new char[0] : rbc.m_rules_.toCharArray());
+
+        output.writeInt(rbc.m_defaultVariableTopValue_);
+        output.writeBoolean(rbc.m_defaultIsFrenchCollation_);
+        output.writeBoolean(rbc.m_defaultIsAlternateHandlingShifted_);
+        output.writeInt(rbc.m_defaultCaseFirst_);
+        output.writeBoolean(rbc.m_defaultIsCaseLevel_);
+        output.writeInt(rbc.m_defaultDecomposition_);
+        output.writeInt(rbc.m_defaultStrength_);
+        output.writeBoolean(rbc.m_defaultIsHiragana4_);
+        output.writeBoolean(rbc.m_defaultIsNumericCollation_);
+        writeInts(output, rbc.m_defaultReorderCodes_);
+
+        // A tailoring of only options uses the UCA tables
+        boolean isUCATables = rbc.m_trie_ == RuleBasedCollator.UCA_.m_trie_;
+        output.writeBoolean(isUCATables);
+        if (!isUCATables) {
+            output.writeBoolean(rbc.m_isJamoSpecial_);
+            output.writeInt(rbc.m_expansionOffset_);
+            output.writeInt(rbc.m_contractionOffset_);
+            writeInts(output, rbc.m_expansion_);
+            writeChars(output, rbc.m_contractionIndex_);
+            writeInts(output, rbc.m_contractionCE_);
+            rbc.m_trie_.serialize(output);
+            writeInts(output, rbc.m_expansionEndCE_);
+            writeBytes(output, rbc.m_expansionEndCEMaxSize_);
+            writeBytes(output, rbc.m_unsafe_);
+            writeBytes(output, rbc.m_contractionEnd_);
+        }
+        output.flush();
+    }
+
+    /**
+     * Reads the data written by writeTailoring() into a collator. The collator still has to be initialized with the
+     * default options.
+     * 
+     * @param rbc
+     *            RuleBasedCollator to populate
+     * @param data
+     *            the binary data; its position is not changed
+     * @exception IOException
+     *                thrown when there's a data error, or when the data was written with a different UCA version.
+     */
+    static void readTailoring(RuleBasedCollator rbc, ByteBuffer data) throws IOException {
+        ByteBuffer buffer = data.duplicate();
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        DataInputStream input = new DataInputStream(makeByteBufferInputStream(buffer));
+        if (input.readInt() != TAILORING_FORMAT_ID_ || input.readInt() != TAILORING_FORMAT_VERSION_) {
+            throw new IOException("Invalid collation tailoring data format");
+        }
+        if (!readVersion(input).equals(RuleBasedCollator.UCA_.m_UCA_version_)
+                || !readVersion(input).equals(RuleBasedCollator.UCA_.m_UCD_version_)) {
+            throw new IOException("Collation tailoring data was built with a different UCA or Unicode version");
+        }
+        rbc.setWithUCAData();
+        char[] rules = readChars(input, buffer);
+        if (rules == null) {
+            throw new IOException("Collation tailoring data without rules");
+        }
+        rbc.m_rules_ = new String(rules);
+
+        rbc.m_defaultVariableTopValue_ = input.readInt();
+        rbc.m_defaultIsFrenchCollation_ = input.readBoolean();
+        rbc.m_defaultIsAlternateHandlingShifted_ = input.readBoolean();
+        rbc.m_defaultCaseFirst_ = input.readInt();
+        rbc.m_defaultIsCaseLevel_ = input.readBoolean();
+        rbc.m_defaultDecomposition_ = input.readInt();
+        rbc.m_defaultStrength_ = input.readInt();
+        rbc.m_defaultIsHiragana4_ = input.readBoolean();
+        rbc.m_defaultIsNumericCollation_ = input.readBoolean();
+        rbc.m_defaultReorderCodes_ = readInts(input, buffer);
+
+        if (input.readBoolean()) {
+            rbc.setWithUCATables();
+        } else {
+            rbc.m_isJamoSpecial_ = input.readBoolean();
+            rbc.m_expansionOffset_ = input.readInt();
+            rbc.m_contractionOffset_ = input.readInt();
+            rbc.m_expansion_ = readInts(input, buffer);
+            rbc.m_contractionIndex_ = readChars(input, buffer);
+            rbc.m_contractionCE_ = readInts(input, buffer);
+            rbc.m_trie_ = new IntTrie(buffer, RuleBasedCollator.DataManipulate.getInstance());
+            rbc.m_expansionEndCE_ = readInts(input, buffer);
+            rbc.m_expansionEndCEMaxSize_ = readBytes(input, buffer);
+            rbc.m_unsafe_ = readBytes(input, buffer);
+            rbc.m_contractionEnd_ = readBytes(input, buffer);
+            if (rbc.m_expansion_ == null || rbc.m_expansionEndCE_ == null || rbc.m_expansionEndCEMaxSize_ == null
+                    || rbc.m_unsafe_ == null || rbc.m_contractionEnd_ == null) {
+                throw new IOException("Collation tailoring data is missing tables");
+            }
+        }
+    }
+
+    /*
+     * Arrays are written with their length, or -1 for null.
+     */
+    private static void writeInts(DataOutputStream output, int[] array) throws IOException {
+        if (array == null) {
+            output.writeInt(-1);
+            return;
+        }
+        output.writeInt(array.length);
+        for (int i = 0; i < array.length; i++) {
+            output.writeInt(array[i]);
+        }
+    }
+
+    private static void writeChars(DataOutputStream output, char[] array) throws IOException {
+        if (array == null) {
+            output.writeInt(-1);
+            return;
+        }
+        output.writeInt(array.length);
+        for (int i = 0; i < array.length; i++) {
+            output.writeChar(array[i]);
+        }
+    }
+
+    private static void writeBytes(DataOutputStream output, byte[] array) throws IOException {
+        if (array == null) {
+            output.writeInt(-1);
+            return;
+        }
+        output.writeInt(array.length);
+        output.write(array);
+    }
+
+    /*
+     * The array lengths come from the data, so they are checked against the remaining bytes before allocating.
+     * The values are copied out of the buffer that the input stream reads from.
+     */
+    private static int[] readInts(DataInputStream input, ByteBuffer buffer) throws IOException {
+        int length = readLength(input, buffer, 4);
+        if (length < 0) {
+            return null;
+        }
+        int[] array = new int[length];
+        buffer.asIntBuffer().get(array);
+        buffer.position(buffer.position() + length * 4);
+        return array;
+    }
+
+    private static char[] readChars(DataInputStream input, ByteBuffer buffer) throws IOException {
+        int length = readLength(input, buffer, 2);
+        if (length < 0) {
+            return null;
+        }
+        char[] array = new char[length];
+        buffer.asCharBuffer().get(array);
+        buffer.position(buffer.position() + length * 2);
+        return array;
+    }
+
+    private static byte[] readBytes(DataInputStream input, ByteBuffer buffer) throws IOException {
+        int length = readLength(input, buffer, 1);
+        if (length < 0) {
+            return null;
+        }
+        byte[] array = new byte[length];
+        buffer.get(array);
+        return array;
+    }
+
+    /*
+     * Reads an array length, -1 for null, and checks that the buffer has that many values of the given size.
+     */
+    private static int readLength(DataInputStream input, ByteBuffer buffer, int valueSize) throws IOException {
+        int length = input.readInt();
+        if (length < -1 || length > buffer.remaining() / valueSize) {
+            throw new IOException("Invalid array length in collation tailoring data: " + length);
+        }
+        return length;
+    }
+
+    private static void writeVersion(DataOutputStream output, VersionInfo version) throws IOException {
+        output.writeByte(version.getMajor());
+        output.writeByte(version.getMinor());
+        output.writeByte(version.getMilli());
+        output.writeByte(version.getMicro());
+    }
+
     // protected constructor ---------------------------------------------
 
     /**
      * <p>
-     * Protected constructor.
+     * Protected constructor for uca.icu. The tables are read from the stream in chunks, straight into their arrays.
      * </p>
      * 
      * @param inputStream
-     *            ICU collator file input stream
+     *            ICU uca data file input stream
      * @exception IOException
      *                throw if data file fails authentication
      */
     private CollatorReader(InputStream inputStream) throws IOException {
-        this(inputStream, true);
-        /*
-         * byte[] UnicodeVersion = ICUBinary.readHeader(inputStream, DATA_FORMAT_ID_, UCA_AUTHENTICATE_); // weiv: check
-         * that we have the correct Unicode version in // binary files VersionInfo UCDVersion =
-         * UCharacter.getUnicodeVersion(); if(UnicodeVersion[0] != UCDVersion.getMajor() || UnicodeVersion[1] !=
-         * UCDVersion.getMinor()) { throw new IOException(WRONG_UNICODE_VERSION_ERROR_); } m_dataInputStream_ = new
-         * DataInputStream(inputStream);
-         */
+        readICUHeader(inputStream);
+        m_dataInputStream_ = new DataInputStream(inputStream);
     }
 
     /**
      * <p>
-     * Protected constructor.
+     * Protected constructor. The tables are copied out of the buffer in bulk, and the scalar values are read through
+     * a stream on the same buffer. The position of the argument buffer is not changed.
      * </p>
      * 
-     * @param inputStream
-     *            ICU uprops.icu file input stream
+     * @param data
+     *            big-endian collation data
      * @param readICUHeader
      *            flag to indicate if the ICU header has to be read
      * @exception IOException
      *                throw if data file fails authentication
      */
-    private CollatorReader(InputStream inputStream, boolean readICUHeader) throws IOException {
+    private CollatorReader(ByteBuffer data, boolean readICUHeader) throws IOException {
+        m_buffer_ = data.duplicate();
+        m_buffer_.order(ByteOrder.BIG_ENDIAN);
+        InputStream inputStream = makeByteBufferInputStream(m_buffer_);
         if (readICUHeader) {
-            byte[] UnicodeVersion = ICUBinary.readHeader(inputStream, DATA_FORMAT_ID_, UCA_AUTHENTICATE_);
-            // weiv: check that we have the correct Unicode version in
-            // binary files
-            VersionInfo UCDVersion = UCharacter.getUnicodeVersion();
-            if (UnicodeVersion[0] != UCDVersion.getMajor() || UnicodeVersion[1] != UCDVersion.getMinor()) {
-                throw new IOException(WRONG_UNICODE_VERSION_ERROR_);
-            }
+            readICUHeader(inputStream);
         }
         m_dataInputStream_ = new DataInputStream(inputStream);
     }
 
+    private static void readICUHeader(InputStream inputStream) throws IOException {
+        byte[] UnicodeVersion = ICUBinary.readHeader(inputStream, DATA_FORMAT_ID_, UCA_AUTHENTICATE_);
+        // weiv: check that we have the correct Unicode version in
+        // binary files
+        VersionInfo UCDVersion = UCharacter.getUnicodeVersion();
+        if (UnicodeVersion[0] != UCDVersion.getMajor() || UnicodeVersion[1] != UCDVersion.getMinor()) {
+            throw new IOException(WRONG_UNICODE_VERSION_ERROR_);
+        }
+    }
+
     // protected methods -------------------------------------------------
 
     /**
@@ -346,46 +550,32 @@ final class CollatorReader {
         readOptions(rbc);
         readcount += m_optionSize_;
         m_expansionSize_ >>= 2;
-        rbc.m_expansion_ = new int[m_expansionSize_];
-        for (int i = 0; i < m_expansionSize_; i++) {
-            rbc.m_expansion_[i] = m_dataInputStream_.readInt();
-        }
+        rbc.m_expansion_ = readIntTable(m_expansionSize_);
         readcount += (m_expansionSize_ << 2);
         if (m_contractionIndexSize_ > 0) {
             m_contractionIndexSize_ >>= 1;
-            rbc.m_contractionIndex_ = new char[m_contractionIndexSize_];
-            for (int i = 0; i < m_contractionIndexSize_; i++) {
-                rbc.m_contractionIndex_[i] = m_dataInputStream_.readChar();
-            }
+            rbc.m_contractionIndex_ = readCharTable(m_contractionIndexSize_);
             readcount += (m_contractionIndexSize_ << 1);
             m_contractionCESize_ >>= 2;
-            rbc.m_contractionCE_ = new int[m_contractionCESize_];
-            for (int i = 0; i < m_contractionCESize_; i++) {
-                rbc.m_contractionCE_[i] = m_dataInputStream_.readInt();
-            }
+            rbc.m_contractionCE_ = readIntTable(m_contractionCESize_);
             readcount += (m_contractionCESize_ << 2);
         }
-        rbc.m_trie_ = new IntTrie(m_dataInputStream_, RuleBasedCollator.DataManipulate.getInstance());
+        if (m_buffer_ != null) {
+            rbc.m_trie_ = new IntTrie(m_buffer_, RuleBasedCollator.DataManipulate.getInstance());
+        } else {
+            rbc.m_trie_ = new IntTrie(m_dataInputStream_, RuleBasedCollator.DataManipulate.getInstance());
+        }
         if (!rbc.m_trie_.isLatin1Linear()) {
             throw new IOException("Data corrupted, " + "Collator Tries expected to have linear "
                     + "latin one data arrays");
         }
         readcount += rbc.m_trie_.getSerializedDataSize();
         m_expansionEndCESize_ >>= 2;
-        rbc.m_expansionEndCE_ = new int[m_expansionEndCESize_];
-        for (int i = 0; i < m_expansionEndCESize_; i++) {
-            rbc.m_expansionEndCE_[i] = m_dataInputStream_.readInt();
-        }
+        rbc.m_expansionEndCE_ = readIntTable(m_expansionEndCESize_);
         readcount += (m_expansionEndCESize_ << 2);
-        rbc.m_expansionEndCEMaxSize_ = new byte[m_expansionEndCEMaxSizeSize_];
-        for (int i = 0; i < m_expansionEndCEMaxSizeSize_; i++) {
-            rbc.m_expansionEndCEMaxSize_[i] = m_dataInputStream_.readByte();
-        }
+        rbc.m_expansionEndCEMaxSize_ = readByteTable(m_expansionEndCEMaxSizeSize_);
         readcount += m_expansionEndCEMaxSizeSize_;
-        rbc.m_unsafe_ = new byte[m_unsafeSize_];
-        for (int i = 0; i < m_unsafeSize_; i++) {
-            rbc.m_unsafe_[i] = m_dataInputStream_.readByte();
-        }
+        rbc.m_unsafe_ = readByteTable(m_unsafeSize_);
         readcount += m_unsafeSize_;
         if (UCAConst != null) {
             // we are reading the UCA
@@ -396,10 +586,7 @@ final class CollatorReader {
         } else {
             m_contractionSize_ = m_size_ - readcount;
         }
-        rbc.m_contractionEnd_ = new byte[m_contractionSize_];
-        for (int i = 0; i < m_contractionSize_; i++) {
-            rbc.m_contractionEnd_[i] = m_dataInputStream_.readByte();
-        }
+        rbc.m_contractionEnd_ = readByteTable(m_contractionSize_);
         readcount += m_contractionSize_;
         if (UCAConst != null) {
             UCAConst.FIRST_TERTIARY_IGNORABLE_[0] = m_dataInputStream_.readInt();
@@ -481,10 +668,7 @@ final class CollatorReader {
 
             int resultsize = (rbc.m_scriptToLeadBytes - readcount) / 2;
             assert resultsize == m_UCAcontractionSize_ / 2;
-            ucaContractions = new char[resultsize];
-            for (int i = 0; i < resultsize; i++) {
-                ucaContractions[i] = m_dataInputStream_.readChar();
-            }
+            ucaContractions = readCharTable(resultsize);
             readcount += m_UCAcontractionSize_;
         }
 
@@ -502,6 +686,69 @@ final class CollatorReader {
         return ucaContractions;
     }
 
+    /*
+     * Read a table of length values. From a buffer, the values are copied out in bulk, and the position of the buffer,
+     * which the data input stream reads from, is advanced past them. From a stream, they are read in chunks straight
+     * into the table, without buffering the whole data.
+     */
+    private int[] readIntTable(int length) throws IOException {
+        checkRemaining(length, 4);
+        int[] table = new int[length];
+        if (m_buffer_ != null) {
+            m_buffer_.asIntBuffer().get(table);
+            m_buffer_.position(m_buffer_.position() + (length << 2));
+            return table;
+        }
+        byte[] chunk = new byte[Math.min(length << 2, TABLE_CHUNK_SIZE_)];
+        for (int start = 0; start < length;) {
+            int count = Math.min(length - start, chunk.length >> 2);
+            m_dataInputStream_.readFully(chunk, 0, count << 2);
+            ByteBuffer.wrap(chunk, 0, count << 2).asIntBuffer().get(table, start, count);
+            start += count;
+        }
+        return table;
+    }
+
+    private char[] readCharTable(int length) throws IOException {
+        checkRemaining(length, 2);
+        char[] table = new char[length];
+        if (m_buffer_ != null) {
+            m_buffer_.asCharBuffer().get(table);
+            m_buffer_.position(m_buffer_.position() + (length << 1));
+            return table;
+        }
+        byte[] chunk = new byte[Math.min(length << 1, TABLE_CHUNK_SIZE_)];
+        for (int start = 0; start < length;) {
+            int count = Math.min(length - start, chunk.length >> 1);
+            m_dataInputStream_.readFully(chunk, 0, count << 1);
+            ByteBuffer.wrap(chunk, 0, count << 1).asCharBuffer().get(table, start, count);
+            start += count;
+        }
+        return table;
+    }
+
+    private byte[] readByteTable(int length) throws IOException {
+        checkRemaining(length, 1);
+        byte[] table = new byte[length];
+        if (m_buffer_ != null) {
+            m_buffer_.get(table);
+        } else {
+            m_dataInputStream_.readFully(table);
+        }
+        return table;
+    }
+
+    /*
+     * A table must fit into the rest of the buffer. The end of a stream is detected by readFully().
+     */
+    private void checkRemaining(int length, int valueSize) throws IOException {
+        if (length < 0 || (m_buffer_ != null && length > m_buffer_.remaining() / valueSize)) {
+            // /CLOVER:OFF
+            throw new IOException("Internal Error: Data file size error");
+            // /CLOVER:ON
+        }
+    }
+
     /**
      * Reads in the inverse uca data
      * 
@@ -597,9 +844,17 @@ final class CollatorReader {
     };
 
     /**
-     * Data input stream for uca.icu
+     * Data input stream for the header, options and constants of uca.icu or a tailoring
      */
     private DataInputStream m_dataInputStream_;
+    /**
+     * Buffer that m_dataInputStream_ reads from, or null when reading uca.icu from a stream
+     */
+    private ByteBuffer m_buffer_;
+    /**
+     * Size of the chunks in which tables are read from a stream, and of the stream buffer for uca.icu
+     */
+    private static final int TABLE_CHUNK_SIZE_ = 8192;
 
     /**
      * File format version and id that this class understands. No guarantees are made if a older version is used
@@ -613,6 +868,12 @@ final class CollatorReader {
     private static final byte INVERSE_UCA_DATA_FORMAT_VERSION_[] = { (byte) 0x2, (byte) 0x1, (byte) 0x0, (byte) 0x0 };
     private static final byte INVERSE_UCA_DATA_FORMAT_ID_[] = { (byte) 0x49, (byte) 0x6e, (byte) 0x76, (byte) 0x43 };
 
+    /**
+     * Format id ("UcTl") and version of the data written by writeTailoring()
+     */
+    private static final int TAILORING_FORMAT_ID_ = 0x5563546c;
+    private static final int TAILORING_FORMAT_VERSION_ = 1;
+
     /**
      * Wrong unicode version error string
      */
@@ -1,6 +1,6 @@
 /**
 *******************************************************************************
-* Copyright (C) 2003-2010, International Business Machines Corporation and         *
+* Copyright (C) 2003-2013, International Business Machines Corporation and         *
 * others. All Rights Reserved.                                                *
 *******************************************************************************
 */
@@ -10,6 +10,7 @@ package com.ibm.icu.text;
 import java.util.Locale;
 import java.util.MissingResourceException;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.ibm.icu.impl.ICULocaleService;
 import com.ibm.icu.impl.ICULocaleService.LocaleKeyFactory;
@@ -21,11 +22,60 @@ import com.ibm.icu.util.ULocale;
 
 final class CollatorServiceShim extends Collator.ServiceShim {
 
+    /**
+     * Maximum number of locales in the cache of frozen collators.
+     * When the cache is full, new collators are frozen but not cached.
+     */
+    private static final int FROZEN_CACHE_MAX_SIZE = 1000;
+
+    /*
+     * Frozen collators by requested locale. Lookups do not lock, unlike the service.
+     * The cache is cleared when a collator or factory is registered or unregistered,
+     * and when the default locale changes, since that is the service's fallback locale.
+     */
+    private static final ConcurrentHashMap<ULocale, Collator> frozenCache =
+        new ConcurrentHashMap<ULocale, Collator>();
+    private static volatile Locale frozenCacheDefault;
+    private static volatile int frozenCacheGeneration;
+
     Collator getInstance(ULocale locale) {
-    // use service cache, it's faster than instantiation
-//          if (service.isDefault()) {
-//              return new RuleBasedCollator(locale);
-//          }
+        // The default service has only RuleBasedCollators, which can be frozen;
+        // cloning the shared frozen collator avoids the locks in the service.
+        if (service.isDefault()) {
+            return getFrozenInstance(locale).cloneAsThawed();
+        }
+        return getServiceInstance(locale);
+    }
+
+    Collator getFrozenInstance(ULocale locale) {
+        Locale currentDefault = Locale.getDefault();
+        if (currentDefault != frozenCacheDefault) {
+            frozenCacheDefault = currentDefault;
+            clearFrozenCache();
+        }
+        Collator coll = frozenCache.get(locale);
+        if (coll == null) {
+            int generation = frozenCacheGeneration;
+            coll = getServiceInstance(locale).freeze();
+            if (frozenCache.size() < FROZEN_CACHE_MAX_SIZE) {
+                Collator cached = frozenCache.putIfAbsent(locale, coll);
+                if (cached != null) {
+                    coll = cached;
+                } else if (generation != frozenCacheGeneration) {
+                    // the service changed while the collator was created
+                    frozenCache.remove(locale, coll);
+                }
+            }
+        }
+        return coll;
+    }
+
+    private static void clearFrozenCache() {
+        ++frozenCacheGeneration;
+        frozenCache.clear();
+    }
+
+    private Collator getServiceInstance(ULocale locale) {
         try {
             ULocale[] actualLoc = new ULocale[1];
             Collator coll = (Collator)service.get(locale, actualLoc);
@@ -47,7 +97,9 @@ final class CollatorServiceShim extends Collator.ServiceShim {
     }
 
     Object registerInstance(Collator collator, ULocale locale) {
-        return service.registerObject(collator, locale);
+        Object key = service.registerObject(collator, locale);
+        clearFrozenCache();
+        return key;
     }
 
     Object registerFactory(CollatorFactory f) {
@@ -74,11 +126,15 @@ final class CollatorServiceShim extends Collator.ServiceShim {
             }
         }
 
-        return service.registerFactory(new CFactory(f));
+        Object key = service.registerFactory(new CFactory(f));
+        clearFrozenCache();
+        return key;
     }
 
     boolean unregister(Object registryKey) {
-        return service.unregisterFactory((Factory)registryKey);
+        boolean result = service.unregisterFactory((Factory)registryKey);
+        clearFrozenCache();
+        return result;
     }
 
     Locale[] getAvailableLocales() {
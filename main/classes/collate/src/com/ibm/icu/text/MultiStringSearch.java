@@ -0,0 +1,367 @@
+/*
+ *******************************************************************************
+ * Copyright (C) 2013, International Business Machines Corporation and         *
+ * others. All Rights Reserved.                                                *
+ *******************************************************************************
+ */
+package com.ibm.icu.text;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Language-sensitive search for many patterns at once, based on the comparison
+ * rules of a {@link RuleBasedCollator}.
+ * <p>
+ * The collation elements of all patterns, masked to the strength of the collator
+ * like in {@link StringSearch}, are compiled into an Aho-Corasick automaton. A text
+ * is searched by iterating over its collation elements once with a
+ * {@link CollationElementIterator}, regardless of the number of patterns, instead of
+ * once per pattern with a <code>StringSearch</code> for each.
+ * <p>
+ * A match starts with the first collation element of a character or contraction,
+ * and ends with the last collation element of a character or contraction. Combining
+ * marks that follow a match are part of it if they are ignorable at the strength of
+ * the collator; otherwise they prevent the match. All matches are reported,
+ * including overlapping matches of the same or of different patterns.
+ * <p>
+ * Instances are immutable, and can be used by multiple threads.
+ * For example:
+ * <pre>
+ * RuleBasedCollator coll = (RuleBasedCollator)Collator.getInstance(ULocale.FRENCH);
+ * coll.setStrength(Collator.PRIMARY);
+ * MultiStringSearch search = new MultiStringSearch(terms, coll);
+ * int count = search.findAll(text, patternIndexes, starts, lengths);
+ * </pre>
+ *
+ * @see StringSearch
+ * @draft ICU 51
+ * @provisional This API might change or be removed in a future release.
+ */
+public final class MultiStringSearch {
+    private final String[] patterns;
+    private final RuleBasedCollator collator;
+    private final int ceMask;
+
+    // Number of non-ignorable collation elements of each pattern
+    private final int[] patternCELengths;
+    private final int maxPatternCELength;
+
+    // The automaton. The transitions of state s are the sorted collation elements
+    // edgeCEs[edgeStarts[s]..edgeStarts[s + 1][ to the states at the same index of edgeTargets.
+    // State 0 is the start state.
+    private final int[] edgeStarts;
+    private final int[] edgeCEs;
+    private final int[] edgeTargets;
+    private final int[] failures;
+    // Indexes of the patterns that end in each state, including those of its failure states, or null
+    private final int[][] outputs;
+
+    /**
+     * Compiles the patterns for searching with the collator.
+     * @param patterns the texts to look for
+     * @param collator the collator that defines the language rules. A frozen
+     *        collator is used as is, otherwise a frozen copy of it is used.
+     * @throws IllegalArgumentException if there are no patterns, or a pattern is
+     *         null or has no collation elements that are significant at the
+     *         strength of the collator
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public MultiStringSearch(String[] patterns, RuleBasedCollator collator) {
+        if (patterns.length == 0) {
+            throw new IllegalArgumentException("There must be at least one pattern");
+        }
+        this.patterns = patterns.clone();
+        this.collator = collator.isFrozen() ? collator : (RuleBasedCollator)collator.cloneAsThawed().freeze();
+        ceMask = StringSearch.getMask(this.collator.getStrength());
+
+        // Build the trie of the pattern collation elements
+        List<TreeMap<Integer, Integer>> trie = new ArrayList<TreeMap<Integer, Integer>>();
+        List<List<Integer>> ends = new ArrayList<List<Integer>>();
+        trie.add(new TreeMap<Integer, Integer>());
+        ends.add(null);
+        patternCELengths = new int[patterns.length];
+        int maxLength = 0;
+        CollationElementIterator iter = this.collator.getCollationElementIterator("");
+        for (int p = 0; p < patterns.length; ++p) {
+            if (patterns[p] == null) {
+                throw new IllegalArgumentException("Pattern " + p + " is null");
+            }
+            iter.setText(patterns[p]);
+            int state = 0;
+            int length = 0;
+            for (int ce = iter.next(); ce != CollationElementIterator.NULLORDER; ce = iter.next()) {
+                ce = getCE(ce);
+                if (ce == CollationElementIterator.IGNORABLE) {
+                    continue;
+                }
+                Integer next = trie.get(state).get(ce);
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<Integer, Integer>());
+                    ends.add(null);
+                    trie.get(state).put(ce, next);
+                }
+                state = next;
+                ++length;
+            }
+            if (length == 0) {
+                throw new IllegalArgumentException("Pattern " + p + " has no significant collation elements");
+            }
+            if (ends.get(state) == null) {
+                ends.set(state, new ArrayList<Integer>(1));
+            }
+            ends.get(state).add(p);
+            patternCELengths[p] = length;
+            maxLength = Math.max(maxLength, length);
+        }
+        maxPatternCELength = maxLength;
+
+        // Flatten the trie into the transition arrays
+        int stateCount = trie.size();
+        edgeStarts = new int[stateCount + 1];
+        int edgeCount = 0;
+        for (int s = 0; s < stateCount; ++s) {
+            edgeCount += trie.get(s).size();
+        }
+        edgeCEs = new int[edgeCount];
+        edgeTargets = new int[edgeCount];
+        int edge = 0;
+        for (int s = 0; s < stateCount; ++s) {
+            edgeStarts[s] = edge;
+            for (Map.Entry<Integer, Integer> e : trie.get(s).entrySet()) {
+                edgeCEs[edge] = e.getKey();
+                edgeTargets[edge++] = e.getValue();
+            }
+        }
+        edgeStarts[stateCount] = edge;
+
+        // Compute the failure states breadth-first, and merge the outputs of the failure states
+        failures = new int[stateCount];
+        outputs = new int[stateCount][];
+        LinkedList<Integer> queue = new LinkedList<Integer>();
+        queue.add(0);
+        while (!queue.isEmpty()) {
+            int s = queue.removeFirst();
+            for (int e = edgeStarts[s]; e < edgeStarts[s + 1]; ++e) {
+                int target = edgeTargets[e];
+                int failure = 0;
+                if (s != 0) {
+                    int f = failures[s];
+                    int next;
+                    while ((next = transition(f, edgeCEs[e])) < 0 && f != 0) {
+                        f = failures[f];
+                    }
+                    failure = next < 0 ? 0 : next;
+                }
+                failures[target] = failure;
+                outputs[target] = mergeOutputs(ends.get(target), outputs[failure]);
+                queue.add(target);
+            }
+        }
+    }
+
+    private static int[] mergeOutputs(List<Integer> own, int[] inherited) {
+        if (own == null) {
+            return inherited;
+        }
+        int inheritedLength = inherited == null ? 0 : inherited.length;
+        int[] result = new int[own.size() + inheritedLength];
+        for (int i = 0; i < own.size(); ++i) {
+            result[i] = own.get(i);
+        }
+        if (inherited != null) {
+            System.arraycopy(inherited, 0, result, own.size(), inheritedLength);
+        }
+        return result;
+    }
+
+    /*
+     * Returns the state after the collation element, or -1 if the state has no such transition.
+     */
+    private int transition(int state, int ce) {
+        int start = edgeStarts[state];
+        int limit = edgeStarts[state + 1] - 1;
+        while (start <= limit) {
+            int middle = (start + limit) >>> 1;
+            int middleCE = edgeCEs[middle];
+            if (middleCE < ce) {
+                start = middle + 1;
+            } else if (middleCE > ce) {
+                limit = middle - 1;
+            } else {
+                return edgeTargets[middle];
+            }
+        }
+        return -1;
+    }
+
+    /*
+     * Masks a collation element to the strength of the collator, like StringSearch.
+     */
+    private int getCE(int ce) {
+        ce &= ceMask;
+        if (collator.isAlternateHandlingShifted()) {
+            if (((collator.m_variableTopValue_ << 16) & 0xffffffffL) > (ce & 0xffffffffL)) {
+                if (collator.getStrength() == Collator.QUATERNARY) {
+                    ce = CollationElementIterator.primaryOrder(ce);
+                } else {
+                    ce = CollationElementIterator.IGNORABLE;
+                }
+            }
+        }
+        return ce;
+    }
+
+    /**
+     * Returns the number of patterns.
+     * @return the number of patterns
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public int getPatternCount() {
+        return patterns.length;
+    }
+
+    /**
+     * Returns a pattern.
+     * @param index the index of the pattern
+     * @return the pattern
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public String getPattern(int index) {
+        return patterns[index];
+    }
+
+    /**
+     * Returns the frozen collator that the patterns were compiled with.
+     * @return the collator
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public RuleBasedCollator getCollator() {
+        return collator;
+    }
+
+    /**
+     * Finds the matches of all patterns in the text, and stores the pattern index,
+     * start offset and length of each match in the argument arrays. Matches are
+     * stored in the order of their end offsets; matches that end at the same offset
+     * are stored in no particular order. The search stops when the arrays are full.
+     * @param text the text to search
+     * @param patternIndexes array to store the index of the pattern of each match
+     * @param starts array to store the start offset of each match
+     * @param lengths array to store the length of each match
+     * @return the number of matches stored in the arrays
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public int findAll(CharSequence text, int[] patternIndexes, int[] starts, int[] lengths) {
+        int capacity = Math.min(patternIndexes.length, Math.min(starts.length, lengths.length));
+        if (text.length() == 0 || capacity == 0) {
+            return 0;
+        }
+        CollationElementIterator iter = collator.getCollationElementIterator(text.toString());
+
+        // Start offsets of the last maxPatternCELength significant collation elements,
+        // or -1 for those that do not start a character or contraction
+        int[] ceStarts = new int[maxPatternCELength];
+        int ceCount = 0;
+        // Matches that end with the last significant collation element, which are
+        // confirmed when the next character or contraction starts
+        int[] pendingPatterns = new int[4];
+        int[] pendingStarts = new int[4];
+        int pendingCount = 0;
+        int pendingLimit = 0;
+
+        int count = 0;
+        int state = 0;
+        int unitStart = 0;
+        boolean unitHasCE = false;
+        int offset = iter.getOffset();
+        for (int ce = iter.next();; ce = iter.next()) {
+            int before = offset;
+            offset = iter.getOffset();
+            if (ce == CollationElementIterator.NULLORDER) {
+                break;
+            }
+            // Collation elements that do not move the iterator come from the same
+            // character or contraction (expansions) or normalization segment.
+            boolean isNewUnit = offset != before;
+            int maskedCE = getCE(ce);
+            if (pendingCount > 0) {
+                if (!isNewUnit && maskedCE != CollationElementIterator.IGNORABLE) {
+                    // the match ends inside a character or contraction
+                    pendingCount = 0;
+                } else if (isNewUnit && ce != CollationElementIterator.IGNORABLE
+                        && CollationElementIterator.primaryOrder(ce) == 0) {
+                    // a combining mark
+                    if (maskedCE != CollationElementIterator.IGNORABLE) {
+                        pendingCount = 0;
+                    } else {
+                        pendingLimit = offset;
+                    }
+                } else if (isNewUnit) {
+                    for (int i = 0; i < pendingCount && count < capacity; ++i) {
+                        patternIndexes[count] = pendingPatterns[i];
+                        starts[count] = pendingStarts[i];
+                        lengths[count++] = pendingLimit - pendingStarts[i];
+                    }
+                    pendingCount = 0;
+                    if (count == capacity) {
+                        return count;
+                    }
+                }
+            }
+            if (isNewUnit) {
+                unitStart = before;
+                unitHasCE = false;
+            }
+            if (maskedCE == CollationElementIterator.IGNORABLE) {
+                continue;
+            }
+            ceStarts[ceCount++ % maxPatternCELength] = unitHasCE ? -1 : unitStart;
+            unitHasCE = true;
+
+            int next;
+            while ((next = transition(state, maskedCE)) < 0 && state != 0) {
+                state = failures[state];
+            }
+            state = next < 0 ? 0 : next;
+            int[] ends = outputs[state];
+            if (ends != null) {
+                for (int i = 0; i < ends.length; ++i) {
+                    int p = ends[i];
+                    int start = ceStarts[(ceCount - patternCELengths[p]) % maxPatternCELength];
+                    if (start < 0) {
+                        continue;
+                    }
+                    if (pendingCount == pendingPatterns.length) {
+                        pendingPatterns = grow(pendingPatterns);
+                        pendingStarts = grow(pendingStarts);
+                    }
+                    pendingPatterns[pendingCount] = p;
+                    pendingStarts[pendingCount++] = start;
+                }
+                pendingLimit = offset;
+            }
+        }
+        for (int i = 0; i < pendingCount && count < capacity; ++i) {
+            patternIndexes[count] = pendingPatterns[i];
+            starts[count] = pendingStarts[i];
+            lengths[count++] = pendingLimit - pendingStarts[i];
+        }
+        return count;
+    }
+
+    private static int[] grow(int[] array) {
+        int[] result = new int[array.length * 2];
+        System.arraycopy(array, 0, result, 0, array.length);
+        return result;
+    }
+}
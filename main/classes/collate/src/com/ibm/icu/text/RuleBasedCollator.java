@@ -1,19 +1,22 @@
 /**
  *******************************************************************************
- * Copyright (C) 1996-2012, International Business Machines Corporation and
+ * Copyright (C) 1996-2013, International Business Machines Corporation and
  * others. All Rights Reserved.
  *******************************************************************************
  */
 package com.ibm.icu.text;
 
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.lang.ref.SoftReference;
 import java.nio.ByteBuffer;
 import java.text.CharacterIterator;
 import java.text.ParseException;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.MissingResourceException;
 import java.util.Set;
@@ -21,6 +24,7 @@ import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 import com.ibm.icu.impl.BOCU;
+import com.ibm.icu.impl.ICUConfig;
 import com.ibm.icu.impl.ICUDebug;
 import com.ibm.icu.impl.ICUResourceBundle;
 import com.ibm.icu.impl.ImplicitCEGenerator;
@@ -215,7 +219,60 @@ public final class RuleBasedCollator extends Collator {
         if (rules == null) {
             throw new IllegalArgumentException("Collation rules can not be null");
         }
-        init(rules);
+        RuleBasedCollator tailoring = getCachedTailoring(rules);
+        if (tailoring != null) {
+            initFromTailoring(tailoring);
+        } else {
+            init(rules);
+            cacheTailoring(this);
+        }
+    }
+
+    /**
+     * Returns the tables and default options of this collator in a compact binary form. A collator created from it
+     * with {@link #openBinary(byte[])} compares like a new collator created from the same rules, without building the
+     * tailoring from the rules again. Attributes that were changed after this collator was created are not included.
+     * The binary form can only be used with the same version of the UCA data.
+     * 
+     * @return the binary form of the collation tailoring
+     * @see #openBinary(byte[])
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public byte[] cloneBinary() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            CollatorReader.writeTailoring(this, bytes);
+        } catch (IOException e) {
+            // cannot happen when writing to a ByteArrayOutputStream
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Creates a collator from the binary form returned by {@link #cloneBinary()}, with the default options of the
+     * tailoring.
+     * 
+     * @param bin the binary form of a collation tailoring
+     * @return the new collator
+     * @throws IOException if the data is not valid, or if it was created with a different version of the UCA data
+     * @see #cloneBinary()
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static RuleBasedCollator openBinary(byte[] bin) throws IOException {
+        RuleBasedCollator result = new RuleBasedCollator();
+        try {
+            CollatorReader.readTailoring(result, ByteBuffer.wrap(bin));
+        } catch (RuntimeException e) {
+            // array index errors from corrupted tables
+            throw new IOException("Invalid collation tailoring data: " + e);
+        }
+        result.init();
+        result.buildPermutationTable();
+        // Not cached: the tables of the data are not known to match its rules
+        return result;
     }
 
     // public methods --------------------------------------------------------
@@ -239,11 +296,6 @@ public final class RuleBasedCollator extends Collator {
     private Object clone(boolean frozen) throws CloneNotSupportedException {
         //TODO: once buffer and threading issue is resolved have frozen clone just return itself
         RuleBasedCollator result = (RuleBasedCollator) super.clone();
-        if (latinOneCEs_ != null) {
-            result.m_reallocLatinOneCEs_ = true;
-            result.m_ContInfo_ = new ContractionInfo();
-        }
-
         // since all collation data in the RuleBasedCollator do not change
         // we can safely assign the result.fields to this collator 
         // except in cases where we can't
@@ -1084,7 +1136,171 @@ public final class RuleBasedCollator extends Collator {
         }
     }
 
+    /**
+     * Gets part of the sort key of the source string, starting with the sort key byte at the offset.
+     * Parts of a sort key can be compared like the sort keys themselves, for example to compare fixed-size
+     * prefixes of sort keys, or to store them in an index.
+     * <p>
+     * As long as the requested bytes are within the primary weights of the sort key, collation elements
+     * are generated only for the beginning of the source string that is needed for them, which is much
+     * faster than generating the whole sort key of a long string. Bytes of the other levels require the
+     * whole sort key. Each call starts from the beginning of the string; to read a sort key piece by piece,
+     * use {@link #getSortKeyPart(String, SortKeyPartState, byte[], int, int)} instead.
+     * 
+     * @param source the text String
+     * @param offset the index of the first sort key byte to be returned
+     * @param dest the array for the sort key bytes
+     * @param destStart the index in dest for the first sort key byte
+     * @param count the maximum number of sort key bytes to be returned
+     * @return the number of sort key bytes written into dest, less than count only if the end of the sort key
+     *         (which includes its terminating zero byte) has been reached
+     * @throws IllegalArgumentException if offset or count is negative, or if dest is too short
+     * @see #getRawCollationKey
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public int getSortKeyPart(String source, int offset, byte[] dest, int destStart, int count) {
+        if (offset < 0 || count < 0 || destStart < 0 || destStart > dest.length - count) {
+            throw new IllegalArgumentException("Invalid sort key part: offset " + offset + ", destStart "
+                    + destStart + ", count " + count);
+        }
+        if (count == 0) {
+            return 0;
+        }
+        // Generate primary weights up to the end of the requested part, if they go that far
+        int primaryLimit = (offset > Integer.MAX_VALUE - count) ? Integer.MAX_VALUE : offset + count;
+        CollationBuffer buffer = null;
+        try {
+            buffer = getCollationBuffer();
+            RawCollationKey key = getRawCollationKey(source, buffer.m_utilRawCollationKey_, buffer, primaryLimit);
+            buffer.m_utilRawCollationKey_ = key;
+            int length = key.size - offset;
+            if (length <= 0) {
+                return 0;
+            }
+            if (length > count) {
+                length = count;
+            }
+            System.arraycopy(key.bytes, offset, dest, destStart, length);
+            return length;
+        } finally {
+            releaseCollationBuffer(buffer);
+        }
+    }
+
+    /**
+     * Gets the next part of the sort key of the source string, continuing where the previous call with the same
+     * state object stopped. This is the equivalent of ICU4C's <code>ucol_nextSortKeyPart()</code>: a sort key is
+     * read piece by piece by calling this method until it returns less than count.
+     * <p>
+     * The state keeps the sort key bytes generated so far. When more primary weights are needed, the primary
+     * weights generated next reach at least twice as far, so reading the sort key of a string in parts of any size
+     * takes time proportional to the length of the string, and only its beginning is processed if only the
+     * beginning of the sort key is read.
+     * 
+     * @param source the text String
+     * @param state the state of the iteration, for this source string and collator
+     * @param dest the array for the sort key bytes
+     * @param destStart the index in dest for the first sort key byte
+     * @param count the maximum number of sort key bytes to be returned
+     * @return the number of sort key bytes written into dest, less than count only if the end of the sort key
+     *         (which includes its terminating zero byte) has been reached
+     * @throws IllegalArgumentException if count is negative, if dest is too short, or if the state was used
+     *         with a different source string
+     * @see SortKeyPartState
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public int getSortKeyPart(String source, SortKeyPartState state, byte[] dest, int destStart, int count) {
+        if (count < 0 || destStart < 0 || destStart > dest.length - count) {
+            throw new IllegalArgumentException("Invalid sort key part: destStart " + destStart + ", count " + count);
+        }
+        if (state.source == null) {
+            state.source = source;
+        } else if (!state.source.equals(source)) {
+            throw new IllegalArgumentException("The sort key part state was used with a different source string");
+        }
+        if (count == 0) {
+            return 0;
+        }
+        int limit = (state.offset > Integer.MAX_VALUE - count) ? Integer.MAX_VALUE : state.offset + count;
+        if (state.key == null || (!state.isComplete && state.key.size < limit)) {
+            int primaryLimit = limit;
+            if (state.primaryLimit > 0 && primaryLimit <= Integer.MAX_VALUE / 2) {
+                primaryLimit = Math.max(primaryLimit, state.primaryLimit * 2);
+            }
+            CollationBuffer buffer = null;
+            try {
+                buffer = getCollationBuffer();
+                state.key = getRawCollationKey(source, state.key, buffer, primaryLimit);
+            } finally {
+                releaseCollationBuffer(buffer);
+            }
+            state.primaryLimit = primaryLimit;
+            // A key cut off at the primary limit has at least primaryLimit bytes
+            state.isComplete = state.key.size < primaryLimit;
+        }
+        int length = state.key.size - state.offset;
+        if (length <= 0) {
+            return 0;
+        }
+        if (length > count) {
+            length = count;
+        }
+        System.arraycopy(state.key.bytes, state.offset, dest, destStart, length);
+        state.offset += length;
+        return length;
+    }
+
+    /**
+     * The state of reading a sort key in parts with
+     * {@link RuleBasedCollator#getSortKeyPart(String, SortKeyPartState, byte[], int, int)}.
+     * A new state starts at the beginning of the sort key. A state is used with one source string and one
+     * collator whose attributes do not change, and by one thread at a time.
+     * 
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static final class SortKeyPartState {
+        private String source;
+        private RawCollationKey key;
+        private int primaryLimit;
+        private boolean isComplete;
+        private int offset;
+
+        /**
+         * Creates a state for reading a sort key from its beginning.
+         * 
+         * @draft ICU 51
+         * @provisional This API might change or be removed in a future release.
+         */
+        public SortKeyPartState() {
+        }
+
+        /**
+         * Returns the number of sort key bytes that have been read with this state.
+         * 
+         * @return the offset in the sort key of the next part
+         * @draft ICU 51
+         * @provisional This API might change or be removed in a future release.
+         */
+        public int getOffset() {
+            return offset;
+        }
+    }
+
     private RawCollationKey getRawCollationKey(String source, RawCollationKey key, CollationBuffer buffer) {
+        return getRawCollationKey(source, key, buffer, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Gets the sort key, or only its beginning if the primary weights reach primaryLimit bytes.
+     * 
+     * @param primaryLimit the number of primary weight bytes after which the collation elements iteration
+     *            stops, and the key is set to just the primary weight bytes so far
+     */
+    private RawCollationKey getRawCollationKey(String source, RawCollationKey key, CollationBuffer buffer,
+            int primaryLimit) {
         int strength = getStrength();
         buffer.m_utilCompare0_ = m_isCaseLevel_;
         // m_utilCompare1_ = true;
@@ -1118,10 +1334,16 @@ public final class RuleBasedCollator extends Collator {
             // enough for us to work on.
             source = Normalizer.normalize(source, Normalizer.FCD);
         }
-        getSortKeyBytes(source, doFrench, hiragana4, commonBottom4, bottomCount4, buffer);
+        boolean complete = getSortKeyBytes(source, doFrench, hiragana4, commonBottom4, bottomCount4, primaryLimit,
+                buffer);
         if (key == null) {
             key = new RawCollationKey();
         }
+        if (!complete) {
+            // The primary weight bytes so far are the beginning of the sort key
+            key.set(buffer.m_utilBytes1_, 0, buffer.m_utilBytesCount1_);
+            return key;
+        }
         getSortKey(source, doFrench, commonBottom4, bottomCount4, key, buffer);
         return key;
     }
@@ -1395,6 +1617,138 @@ public final class RuleBasedCollator extends Collator {
         return rules.hashCode();
     }
 
+    /**
+     * Returns a hash code of the text that is consistent with this collator's comparison: strings that compare as
+     * equal with {@link #compare(String, String)} have the same hash code, with the current strength and attributes.
+     * This allows hashing strings under collation equality, for example in hash maps keyed by a wrapper, without
+     * generating their collation keys.
+     * <p>
+     * The hash code is computed while iterating over the collation elements of the text, from their primary weights
+     * and, depending on the strength, their secondary and tertiary weights. The case level, the quaternary level and
+     * the identical level are not used, so strings that differ only on these levels have the same hash code.
+     * The hash codes change if the attributes or the strength of the collator are changed.
+     *
+     * @param text the text
+     * @return the hash code of the text under this collator
+     * @see #equals(CharSequence, CharSequence)
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public int hashCode(CharSequence text) {
+        String source = text.toString();
+        CollationBuffer buffer = null;
+        try {
+            buffer = getCollationBuffer();
+            return hashCode(source, buffer);
+        } finally {
+            releaseCollationBuffer(buffer);
+        }
+    }
+
+    /**
+     * Compares two texts for equality under this collator. This is the same as <code>compare(source, target) ==
+     * 0</code>; the comparison stops at the first difference, without generating collation keys.
+     *
+     * @param source the source text
+     * @param target the target text
+     * @return true if the texts are equal according to this collator
+     * @see #hashCode(CharSequence)
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public boolean equals(CharSequence source, CharSequence target) {
+        return compare(source.toString(), target.toString()) == 0;
+    }
+
+    /*
+     * Hashes the weights of the collation elements that go into the primary, secondary and tertiary levels of the
+     * sort key, like getSortKeyBytes(), but without the compression of common weights. French secondaries are summed,
+     * since their order in the sort key is changed.
+     */
+    private int hashCode(String source, CollationBuffer buffer) {
+        int strength = getStrength();
+        boolean doSecondary = strength >= SECONDARY;
+        boolean doTertiary = strength >= TERTIARY;
+        boolean doFrench = m_isFrenchCollation_ && doSecondary;
+        // Same normalization as for the sort key
+        if (strength == IDENTICAL && Normalizer.quickCheck(source, Normalizer.NFD, 0) != Normalizer.YES) {
+            source = Normalizer.decompose(source, false);
+        } else if (getDecomposition() != NO_DECOMPOSITION
+                && Normalizer.quickCheck(source, Normalizer.FCD, 0) != Normalizer.YES) {
+            source = Normalizer.normalize(source, Normalizer.FCD);
+        }
+
+        int hash1 = 0;
+        int hash2 = 0;
+        int hash3 = 0;
+        // The source has been normalized already.
+        int backupDecomposition = getDecomposition();
+        internalSetDecomposition(NO_DECOMPOSITION);
+        try {
+            buffer.m_srcUtilIter_.setText(source);
+            buffer.m_srcUtilColEIter_.setText(buffer.m_srcUtilIter_);
+
+            boolean doShift = false;
+            while (true) {
+                int ce = buffer.m_srcUtilColEIter_.next();
+                if (ce == CollationElementIterator.NULLORDER) {
+                    break;
+                }
+                if (ce == CollationElementIterator.IGNORABLE) {
+                    continue;
+                }
+                boolean notIsContinuation = !isContinuation(ce);
+                boolean isPrimaryByteIgnorable = (ce & CE_PRIMARY_MASK_) == 0;
+                boolean isSmallerThanVariableTop = (ce >>> CE_PRIMARY_SHIFT_) <= m_variableTopValue_;
+                doShift = (m_isAlternateHandlingShifted_
+                        && ((notIsContinuation && isSmallerThanVariableTop && !isPrimaryByteIgnorable)
+                                || (!notIsContinuation && doShift)) || (doShift && isPrimaryByteIgnorable));
+                if (doShift) {
+                    // shifted collation elements only go into the quaternary level
+                    continue;
+                }
+
+                int p1 = ce >>> 24;
+                int p2 = (ce >>> 16) & LAST_BYTE_MASK_;
+                if (p1 != 0) {
+                    hash1 = hash1 * 31 + p1;
+                    if (p2 != 0) {
+                        hash1 = hash1 * 31 + p2;
+                    }
+                }
+
+                if (doSecondary) {
+                    int s = (ce >> 8) & LAST_BYTE_MASK_;
+                    if (s != 0) {
+                        if (doFrench) {
+                            hash2 += s * (s + 31);
+                        } else {
+                            hash2 = hash2 * 31 + s;
+                        }
+                    }
+                }
+
+                if (doTertiary) {
+                    int t = ce & LAST_BYTE_MASK_;
+                    if (!notIsContinuation) {
+                        t = ce & CE_REMOVE_CONTINUATION_MASK_;
+                    }
+                    if (!(m_isCaseLevel_ && (!isPrimaryByteIgnorable || doSecondary)) && notIsContinuation) {
+                        // case bits that are not moved to the case level
+                        t ^= m_caseSwitch_;
+                    }
+                    t &= m_mask3_;
+                    if (t != 0) {
+                        hash3 = hash3 * 31 + t;
+                    }
+                }
+            }
+        } finally {
+            internalSetDecomposition(backupDecomposition);
+        }
+        return (hash1 * 31 + hash2) * 31 + hash3;
+    }
+
     /**
      * Compares the source text String to the target text String according to the collation rules, strength and
      * decomposition mode for this RuleBasedCollator. Returns an integer less than, equal to or greater than zero
@@ -1426,32 +1780,26 @@ public final class RuleBasedCollator extends Collator {
         if (source == target) {
             return 0;
         }
+        // Find the length of any leading portion that is equal
+        int offset = getFirstUnmatchedOffset(source, target);
+        if (latinOneUse_
+                && (offset >= source.length() || source.charAt(offset) <= ENDOFLATINONERANGE_)
+                && (offset >= target.length() || target.charAt(offset) <= ENDOFLATINONERANGE_)) {
+            // Try the Latin-1 fast path first, without acquiring the collation buffer
+            int result = compareUseLatin1(source, target, offset);
+            if (result != BAIL_OUT_RESULT_) {
+                return result;
+            }
+        }
         CollationBuffer buffer = null;
         try {
             buffer = getCollationBuffer();
-            return compare(source, target, buffer);
+            return compareRegular(source, target, offset, buffer);
         } finally {
             releaseCollationBuffer(buffer);
         }
     }
 
-    private int compare(String source, String target, CollationBuffer buffer) {
-        // Find the length of any leading portion that is equal
-        int offset = getFirstUnmatchedOffset(source, target);
-        // return compareRegular(source, target, offset);
-        if (latinOneUse_) {
-            if ((offset < source.length() && source.charAt(offset) > ENDOFLATINONERANGE_)
-                    || (offset < target.length() && target.charAt(offset) > ENDOFLATINONERANGE_)) {
-                // source or target start with non-latin-1
-                return compareRegular(source, target, offset, buffer);
-            } else {
-                return compareUseLatin1(source, target, offset, buffer);
-            }
-        } else {
-            return compareRegular(source, target, offset, buffer);
-        }
-    }
-
     // package private inner interfaces --------------------------------------
 
     /**
@@ -2562,6 +2910,102 @@ public final class RuleBasedCollator extends Collator {
 
     // private methods -------------------------------------------------------
 
+    /**
+     * Built tailorings by rules string, so that collators for the same rules are not built again.
+     * The collators in the cache are never modified; new collators share their tables.
+     * The cache holds the least recently used tailorings, with soft references.
+     */
+    private static final TailoringCache TAILORING_CACHE_;
+    static {
+        int size = 100;
+        try {
+            size = Integer.parseInt(ICUConfig.get("com.ibm.icu.text.RuleBasedCollator.tailoringCacheSize", "100").trim());
+        } catch (NumberFormatException e) {
+            // use the default size
+        }
+        TAILORING_CACHE_ = new TailoringCache(size);
+    }
+
+    private static final class TailoringCache extends LinkedHashMap<String, SoftReference<RuleBasedCollator>> {
+        private static final long serialVersionUID = 1L;
+        private final int maxSize;
+
+        TailoringCache(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        protected boolean removeEldestEntry(Map.Entry<String, SoftReference<RuleBasedCollator>> eldest) {
+            return size() > maxSize;
+        }
+    }
+
+    private static RuleBasedCollator getCachedTailoring(String rules) {
+        synchronized (TAILORING_CACHE_) {
+            SoftReference<RuleBasedCollator> ref = TAILORING_CACHE_.get(rules);
+            if (ref == null) {
+                return null;
+            }
+            RuleBasedCollator tailoring = ref.get();
+            if (tailoring == null) {
+                TAILORING_CACHE_.remove(rules);
+            }
+            return tailoring;
+        }
+    }
+
+    /**
+     * Adds a copy of a collator newly built from rules to the tailoring cache.
+     */
+    private static void cacheTailoring(RuleBasedCollator built) {
+        if (TAILORING_CACHE_.maxSize <= 0) {
+            return;
+        }
+        RuleBasedCollator tailoring;
+        try {
+            tailoring = (RuleBasedCollator) built.clone(false);
+        } catch (CloneNotSupportedException e) {
+            return;
+        }
+        synchronized (TAILORING_CACHE_) {
+            TAILORING_CACHE_.put(built.m_rules_, new SoftReference<RuleBasedCollator>(tailoring));
+        }
+    }
+
+    /**
+     * Initializes this collator with the tables and default options of a collator that was built from rules, instead
+     * of building them again.
+     */
+    private void initFromTailoring(RuleBasedCollator tailoring) {
+        setWithUCAData();
+        m_rules_ = tailoring.m_rules_;
+        m_contractionOffset_ = tailoring.m_contractionOffset_;
+        m_expansionOffset_ = tailoring.m_expansionOffset_;
+        m_expansion_ = tailoring.m_expansion_;
+        m_contractionIndex_ = tailoring.m_contractionIndex_;
+        m_contractionCE_ = tailoring.m_contractionCE_;
+        m_trie_ = tailoring.m_trie_;
+        m_expansionEndCE_ = tailoring.m_expansionEndCE_;
+        m_expansionEndCEMaxSize_ = tailoring.m_expansionEndCEMaxSize_;
+        m_unsafe_ = tailoring.m_unsafe_;
+        m_contractionEnd_ = tailoring.m_contractionEnd_;
+        m_isJamoSpecial_ = tailoring.m_isJamoSpecial_;
+
+        m_defaultStrength_ = tailoring.m_defaultStrength_;
+        m_defaultDecomposition_ = tailoring.m_defaultDecomposition_;
+        m_defaultIsFrenchCollation_ = tailoring.m_defaultIsFrenchCollation_;
+        m_defaultIsAlternateHandlingShifted_ = tailoring.m_defaultIsAlternateHandlingShifted_;
+        m_defaultIsCaseLevel_ = tailoring.m_defaultIsCaseLevel_;
+        m_defaultCaseFirst_ = tailoring.m_defaultCaseFirst_;
+        m_defaultIsHiragana4_ = tailoring.m_defaultIsHiragana4_;
+        m_defaultIsNumericCollation_ = tailoring.m_defaultIsNumericCollation_;
+        m_defaultVariableTopValue_ = tailoring.m_defaultVariableTopValue_;
+        m_defaultReorderCodes_ = tailoring.m_defaultReorderCodes_ == null ? null
+                : tailoring.m_defaultReorderCodes_.clone();
+        init();
+        buildPermutationTable();
+    }
+
     private void init(String rules) throws Exception {
         setWithUCAData();
         CollationParsedRuleBuilder builder = new CollationParsedRuleBuilder(rules);
@@ -2979,10 +3423,12 @@ public final class RuleBasedCollator extends Collator {
      * @param hiragana4 offset for Hiragana quaternary
      * @param commonBottom4 smallest common quaternary byte
      * @param bottomCount4 smallest quaternary byte
+     * @param primaryLimit stop when there are this many primary bytes
      * @param buffer collation buffer temporary state
+     * @return true if all ces were processed, false if the iteration stopped at primaryLimit
      */
-    private final void getSortKeyBytes(String source, boolean doFrench, byte hiragana4, int commonBottom4,
-            int bottomCount4, CollationBuffer buffer)
+    private final boolean getSortKeyBytes(String source, boolean doFrench, byte hiragana4, int commonBottom4,
+            int bottomCount4, int primaryLimit, CollationBuffer buffer)
 
     {
         int backupDecomposition = getDecomposition();
@@ -2998,8 +3444,13 @@ public final class RuleBasedCollator extends Collator {
 
         int leadPrimary = 0; // int for easier comparison
         int caseShift = 0;
+        boolean complete = true;
 
         while (true) {
+            if (buffer.m_utilBytesCount1_ >= primaryLimit) {
+                complete = false;
+                break;
+            }
             int ce = buffer.m_srcUtilColEIter_.next();
             if (ce == CollationElementIterator.NULLORDER) {
                 break;
@@ -3065,6 +3516,7 @@ public final class RuleBasedCollator extends Collator {
             // one last round of checks
             reverseBuffer(buffer.m_utilBytes2_, buffer.m_utilFrenchStart_, buffer.m_utilFrenchEnd_);
         }
+        return complete;
     }
 
     /**
@@ -4244,6 +4696,10 @@ public final class RuleBasedCollator extends Collator {
     private static final int ENDOFLATINONERANGE_ = 0xFF;
     private static final int LATINONETABLELEN_ = (ENDOFLATINONERANGE_ + 50);
     private static final int BAIL_OUT_CE_ = 0xFF000000;
+    /**
+     * Returned by compareUseLatin1() when the strings have to be compared with compareRegular()
+     */
+    private static final int BAIL_OUT_RESULT_ = Integer.MIN_VALUE;
 
     /**
      * Generate latin-1 tables
@@ -4317,16 +4773,10 @@ public final class RuleBasedCollator extends Collator {
     }
 
     private final boolean setUpLatinOne() {
-        if (latinOneCEs_ == null || m_reallocLatinOneCEs_) {
-            latinOneCEs_ = new int[3 * LATINONETABLELEN_];
-            latinOneTableLen_ = LATINONETABLELEN_;
-            m_reallocLatinOneCEs_ = false;
-        } else {
-            Arrays.fill(latinOneCEs_, 0);
-        }
-        if (m_ContInfo_ == null) {
-            m_ContInfo_ = new ContractionInfo();
-        }
+        // Always build a new table, the old one may be shared with clones and
+        // read by concurrent compare() calls without any locking.
+        latinOneCEs_ = new int[3 * LATINONETABLELEN_];
+        latinOneTableLen_ = LATINONETABLELEN_;
         char ch = 0;
         // StringBuffer sCh = new StringBuffer();
         // CollationElementIterator it = getCollationElementIterator(sCh.toString());
@@ -4466,14 +4916,12 @@ public final class RuleBasedCollator extends Collator {
         return true;
     }
 
-    private static class ContractionInfo {
-        int index;
-    }
-
-    ContractionInfo m_ContInfo_;
-
-    private int getLatinOneContraction(int strength, int CE, String s) {
-        // int strength, int CE, String s, Integer ind) {
+    /**
+     * Returns the Latin-1 CE for the contraction starting with CE, matching the text of s at index.
+     * The result is the CE in the lower 32 bits and the index after the match in the upper 32 bits,
+     * so that the method is reentrant and can be used by concurrent compare() calls.
+     */
+    private long getLatinOneContraction(int strength, int CE, String s, int index) {
         int len = s.length();
         // const UChar *UCharOffset = (UChar *)coll->image+getContractOffset(CE&0xFFF);
         int UCharOffset = (CE & 0xFFF) - m_contractionOffset_;
@@ -4487,10 +4935,10 @@ public final class RuleBasedCollator extends Collator {
                                          * return(coll->latinOneCEs[strength*coll->latinOneTableLen+latinOneOffset]); } else { schar = s[*index]; }
                                          * } else {
                                          */
-                                        if (m_ContInfo_.index == len) {
-                                            return (latinOneCEs_[strength * latinOneTableLen_ + latinOneOffset]);
+                                        if (index == len) {
+                                            return latinOneContractionResult(index, latinOneCEs_[strength * latinOneTableLen_ + latinOneOffset]);
                                         } else {
-                                            schar = s.charAt(m_ContInfo_.index);
+                                            schar = s.charAt(index);
                                         }
                                         // }
 
@@ -4500,32 +4948,37 @@ public final class RuleBasedCollator extends Collator {
                                         }
 
                                         if (schar == tchar) {
-                                            m_ContInfo_.index++;
-                                            return (latinOneCEs_[strength * latinOneTableLen_ + latinOneOffset + offset]);
+                                            index++;
+                                            return latinOneContractionResult(index, latinOneCEs_[strength * latinOneTableLen_ + latinOneOffset + offset]);
                                         } else {
                                             if (schar > ENDOFLATINONERANGE_ /* & 0xFF00 */) {
-                                                return BAIL_OUT_CE_;
+                                                return latinOneContractionResult(index, BAIL_OUT_CE_);
                                             }
                                             // skip completely ignorables
                                             int isZeroCE = m_trie_.getLeadValue(schar); // UTRIE_GET32_FROM_LEAD(coll->mapping, schar);
                                             if (isZeroCE == 0) { // we have to ignore completely ignorables
-                                                m_ContInfo_.index++;
+                                                index++;
                                                 continue;
                                             }
 
-                                            return (latinOneCEs_[strength * latinOneTableLen_ + latinOneOffset]);
+                                            return latinOneContractionResult(index, latinOneCEs_[strength * latinOneTableLen_ + latinOneOffset]);
                                         }
                                     }
     }
 
+    private static long latinOneContractionResult(int index, int CE) {
+        return ((long) index << 32) | (CE & 0xffffffffL);
+    }
+
     /**
      * This is a fast strcoll, geared towards text in Latin-1. It supports contractions of size two, French secondaries
      * and case switching. You can use it with strengths primary to tertiary. It does not support shifted and case
      * level. It relies on the table build by setupLatin1Table. If it doesn't understand something, it will go to the
-     * regular strcoll.
-     * @param buffer collation buffer temporary state
+     * regular strcoll: it then returns BAIL_OUT_RESULT_.
+     * It uses only the immutable Latin-1 table and no collation buffer, so that concurrent calls
+     * on a frozen collator do not need to lock.
      */
-    private final int compareUseLatin1(String source, String target, int startOffset, CollationBuffer buffer) {
+    private final int compareUseLatin1(String source, String target, int startOffset) {
         int sLen = source.length();
         int tLen = target.length();
 
@@ -4557,23 +5010,23 @@ public final class RuleBasedCollator extends Collator {
                     // }
                     if (sChar > ENDOFLATINONERANGE_) { // if we encounter non-latin-1, we bail out
                         // fprintf(stderr, "R");
-                        return compareRegular(source, target, startOffset, buffer);
+                        return BAIL_OUT_RESULT_;
                     }
                     sOrder = latinOneCEs_[sChar];
                     if (isSpecial(sOrder)) { // if we got a special
                         // specials can basically be either contractions or bail-out signs. If we get anything
                         // else, we'll bail out anywasy
                         if (getTag(sOrder) == CollationElementIterator.CE_CONTRACTION_TAG_) {
-                            m_ContInfo_.index = sIndex;
-                            sOrder = getLatinOneContraction(0, sOrder, source);
-                            sIndex = m_ContInfo_.index;
+                            long contraction = getLatinOneContraction(0, sOrder, source, sIndex);
+                            sOrder = (int) contraction;
+                            sIndex = (int) (contraction >>> 32);
                             haveContractions = true; // if there are contractions, we cannot do French secondary
                             // However, if there are contractions in the table, but we always use just one char,
                             // we might be able to do French. This should be checked out.
                         }
                         if (isSpecial(sOrder) /* == UCOL_BAIL_OUT_CE */) {
                             // fprintf(stderr, "S");
-                            return compareRegular(source, target, startOffset, buffer);
+                            return BAIL_OUT_RESULT_;
                         }
                     }
                 }
@@ -4590,20 +5043,20 @@ public final class RuleBasedCollator extends Collator {
                     tChar = target.charAt(tIndex++); // [tIndex++];
                     if (tChar > ENDOFLATINONERANGE_) { // if we encounter non-latin-1, we bail out
                         // fprintf(stderr, "R");
-                        return compareRegular(source, target, startOffset, buffer);
+                        return BAIL_OUT_RESULT_;
                     }
                     tOrder = latinOneCEs_[tChar];
                     if (isSpecial(tOrder)) {
                         // Handling specials, see the comments for source
                         if (getTag(tOrder) == CollationElementIterator.CE_CONTRACTION_TAG_) {
-                            m_ContInfo_.index = tIndex;
-                            tOrder = getLatinOneContraction(0, tOrder, target);
-                            tIndex = m_ContInfo_.index;
+                            long contraction = getLatinOneContraction(0, tOrder, target, tIndex);
+                            tOrder = (int) contraction;
+                            tIndex = (int) (contraction >>> 32);
                             haveContractions = true;
                         }
                         if (isSpecial(tOrder)/* == UCOL_BAIL_OUT_CE */) {
                             // fprintf(stderr, "S");
-                            return compareRegular(source, target, startOffset, buffer);
+                            return BAIL_OUT_RESULT_;
                         }
                     }
                 }
@@ -4659,9 +5112,9 @@ public final class RuleBasedCollator extends Collator {
                         sChar = source.charAt(sIndex++); // [sIndex++];
                         sOrder = latinOneCEs_[offset + sChar];
                         if (isSpecial(sOrder)) {
-                            m_ContInfo_.index = sIndex;
-                            sOrder = getLatinOneContraction(1, sOrder, source);
-                            sIndex = m_ContInfo_.index;
+                            long contraction = getLatinOneContraction(1, sOrder, source, sIndex);
+                            sOrder = (int) contraction;
+                            sIndex = (int) (contraction >>> 32);
                         }
                     }
 
@@ -4676,9 +5129,9 @@ public final class RuleBasedCollator extends Collator {
                         tChar = target.charAt(tIndex++); // [tIndex++];
                         tOrder = latinOneCEs_[offset + tChar];
                         if (isSpecial(tOrder)) {
-                            m_ContInfo_.index = tIndex;
-                            tOrder = getLatinOneContraction(1, tOrder, target);
-                            tIndex = m_ContInfo_.index;
+                            long contraction = getLatinOneContraction(1, tOrder, target, tIndex);
+                            tOrder = (int) contraction;
+                            tIndex = (int) (contraction >>> 32);
                         }
                     }
                     if (endOfSource) {
@@ -4705,7 +5158,7 @@ public final class RuleBasedCollator extends Collator {
             } else { // French
                 if (haveContractions) { // if we have contractions, we have to bail out
                     // since we don't really know how to handle them here
-                    return compareRegular(source, target, startOffset, buffer);
+                    return BAIL_OUT_RESULT_;
                 }
                 // For French, we go backwards
                 sIndex = sLen;
@@ -4773,9 +5226,9 @@ public final class RuleBasedCollator extends Collator {
                     sChar = source.charAt(sIndex++); // [sIndex++];
                     sOrder = latinOneCEs_[offset + sChar];
                     if (isSpecial(sOrder)) {
-                        m_ContInfo_.index = sIndex;
-                        sOrder = getLatinOneContraction(2, sOrder, source);
-                        sIndex = m_ContInfo_.index;
+                        long contraction = getLatinOneContraction(2, sOrder, source, sIndex);
+                        sOrder = (int) contraction;
+                        sIndex = (int) (contraction >>> 32);
                     }
                 }
                 while (tOrder == 0) {
@@ -4789,9 +5242,9 @@ public final class RuleBasedCollator extends Collator {
                     tChar = target.charAt(tIndex++); // [tIndex++];
                     tOrder = latinOneCEs_[offset + tChar];
                     if (isSpecial(tOrder)) {
-                        m_ContInfo_.index = tIndex;
-                        tOrder = getLatinOneContraction(2, tOrder, target);
-                        tIndex = m_ContInfo_.index;
+                        long contraction = getLatinOneContraction(2, tOrder, target, tIndex);
+                        tOrder = (int) contraction;
+                        tIndex = (int) (contraction >>> 32);
                     }
                 }
                 if (endOfSource) {
@@ -4858,8 +5311,6 @@ public final class RuleBasedCollator extends Collator {
         return UCA_.m_UCA_version_;
     }
 
-    private transient boolean m_reallocLatinOneCEs_;
-
     private CollationBuffer collationBuffer;
 
     private final CollationBuffer getCollationBuffer() {
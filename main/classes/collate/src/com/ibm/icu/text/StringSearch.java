@@ -1,6 +1,6 @@
 /*
  *******************************************************************************
- * Copyright (C) 1996-2011, International Business Machines Corporation and
+ * Copyright (C) 1996-2013, International Business Machines Corporation and
  * others. All Rights Reserved.
  *******************************************************************************
  */
@@ -173,6 +173,34 @@ public final class StringSearch extends SearchIterator
      */
     public StringSearch(String pattern, CharacterIterator target,
                         RuleBasedCollator collator, BreakIterator breakiter) 
+    {
+        this(new Pattern(pattern), false, target, collator, breakiter);
+    }
+
+    /**
+     * Initializes the iterator to search for a compiled pattern in the 
+     * argument target text. The collation element table and the Boyer-Moore 
+     * shift tables of the compiled pattern are shared, not recalculated, 
+     * which makes this constructor much faster than the others. The 
+     * collator of this StringSearch is the frozen collator of the compiled 
+     * pattern. No BreakIterators are set to test for logical matches.
+     * @param pattern compiled pattern to look for.
+     * @param target target text to search for pattern. 
+     * @exception IllegalArgumentException thrown when argument target is null,
+     *            or of length 0
+     * @see CompiledPattern
+     * @see #findAll(CharSequence, int[], int[])
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public StringSearch(CompiledPattern pattern, CharacterIterator target) 
+    {
+        this(pattern.m_pattern_, true, target, pattern.m_collator_, null);
+    }
+
+    private StringSearch(Pattern pattern, boolean isPatternShared, 
+                         CharacterIterator target, RuleBasedCollator collator, 
+                         BreakIterator breakiter) 
     {
         super(target, breakiter);
         m_textBeginOffset_ = targetText.getBeginIndex();
@@ -182,11 +210,14 @@ public final class StringSearch extends SearchIterator
         m_utilColEIter_ = collator.getCollationElementIterator("");
         m_ceMask_ = getMask(m_collator_.getStrength());
         m_isCanonicalMatch_ = false;
-        m_pattern_ = new Pattern(pattern);
+        m_pattern_ = pattern;
+        m_isPatternShared_ = isPatternShared;
         m_matchedIndex_ = DONE;
         m_charBreakIter_ = BreakIterator.getCharacterInstance(/*m_collator_.getLocale(ULocale.ACTUAL_LOCALE)*/);
         m_charBreakIter_.setText(target);
-        initialize();
+        if (!isPatternShared) {
+            initialize();
+        }
     }
 
     /**
@@ -390,7 +421,13 @@ public final class StringSearch extends SearchIterator
             throw new IllegalArgumentException(
                     "Pattern to search for can not be null or of length 0");
         }
-        m_pattern_.targetText = pattern;
+        if (m_isPatternShared_) {
+            m_pattern_ = new Pattern(pattern);
+            m_isPatternShared_ = false;
+        }
+        else {
+            m_pattern_.targetText = pattern;
+        }
         initialize();
     }
     
@@ -503,6 +540,44 @@ public final class StringSearch extends SearchIterator
         m_utilColEIter_.setCollator(m_collator_);
     }
 
+    /**
+     * <p>
+     * Finds all matches of the pattern in the argument text, and stores their 
+     * start offsets and lengths in the argument arrays, in text order. This 
+     * is equivalent to setting the target text to the argument text and 
+     * iterating with {@link #first()} and {@link #next()}, so the overlapping 
+     * and canonical match settings apply. The search stops when the arrays 
+     * are full.
+     * </p>
+     * <p>
+     * Together with {@link #StringSearch(CompiledPattern, CharacterIterator)},
+     * this searches many texts for the same pattern with one StringSearch 
+     * per thread, without recalculating the pattern tables for each text.
+     * </p>
+     * @param text the text to search, which becomes the target text of this 
+     *        StringSearch unless it is empty
+     * @param starts array to store the start offsets of the matches
+     * @param lengths array to store the lengths of the matches
+     * @return the number of matches stored in the arrays
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public int findAll(CharSequence text, int[] starts, int[] lengths)
+    {
+        int capacity = Math.min(starts.length, lengths.length);
+        if (text.length() == 0 || capacity == 0) {
+            return 0;
+        }
+        setTarget(new StringCharacterIterator(text.toString()));
+        int count = 0;
+        for (int start = first(); start != DONE && count < capacity; 
+             start = next()) {
+            starts[count] = start;
+            lengths[count ++] = getMatchLength();
+        }
+        return count;
+    }
+
     // protected methods -----------------------------------------------------
     
     /**
@@ -640,6 +715,77 @@ public final class StringSearch extends SearchIterator
         return m_matchedIndex_;
     }
 
+    // public static inner classes -----------------------------------------
+
+    /**
+     * <p>
+     * An immutable search pattern, compiled once for a pattern string and a 
+     * collator: the collation elements of the pattern and its Boyer-Moore 
+     * shift tables. A compiled pattern can be shared by multiple threads, 
+     * each of which searches with its own StringSearch created by 
+     * {@link StringSearch#StringSearch(CompiledPattern, CharacterIterator)}.
+     * </p>
+     * <p>
+     * The collator is frozen, or a frozen copy of it is used, so that the 
+     * pattern tables stay consistent with the collation attributes.
+     * </p>
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static final class CompiledPattern 
+    {
+        private final Pattern m_pattern_;
+        private final RuleBasedCollator m_collator_;
+
+        /**
+         * Compiles the pattern for searching with the collator.
+         * @param pattern text to look for
+         * @param collator RuleBasedCollator that defines the language rules
+         * @exception IllegalArgumentException thrown if pattern is null or 
+         *            of length 0, or if collator is null
+         * @draft ICU 51
+         * @provisional This API might change or be removed in a future release.
+         */
+        public CompiledPattern(String pattern, RuleBasedCollator collator) 
+        {
+            if (pattern == null || pattern.length() <= 0) {
+                throw new IllegalArgumentException(
+                        "Pattern to search for can not be null or of length 0");
+            }
+            if (collator == null) {
+                throw new IllegalArgumentException("Collator can not be null");
+            }
+            m_collator_ = collator.isFrozen() ? collator 
+                    : (RuleBasedCollator)collator.cloneAsThawed().freeze();
+            // the pattern itself serves as the target text while compiling
+            StringSearch search = new StringSearch(pattern, 
+                    new StringCharacterIterator(pattern), m_collator_, null);
+            m_pattern_ = search.m_pattern_;
+        }
+
+        /**
+         * Returns the pattern string.
+         * @return the pattern searched for
+         * @draft ICU 51
+         * @provisional This API might change or be removed in a future release.
+         */
+        public String getPattern() 
+        {
+            return m_pattern_.targetText;
+        }
+
+        /**
+         * Returns the frozen collator that the pattern was compiled with.
+         * @return the collator
+         * @draft ICU 51
+         * @provisional This API might change or be removed in a future release.
+         */
+        public RuleBasedCollator getCollator() 
+        {
+            return m_collator_;
+        }
+    }
+
     // private static inner classes ----------------------------------------
     
     private static class Pattern 
@@ -726,6 +872,11 @@ public final class StringSearch extends SearchIterator
      * Current pattern to search for
      */
     private Pattern m_pattern_;
+    /**
+     * Flag indicator if m_pattern_ belongs to a CompiledPattern, which must 
+     * not be modified
+     */
+    private boolean m_isPatternShared_;
     /**
      * Collator whose rules are used to perform the search
      */
@@ -1061,6 +1212,11 @@ public final class StringSearch extends SearchIterator
      */ 
     private final void initialize()
     {
+        if (m_isPatternShared_) {
+            // the tables of a compiled pattern are shared by other threads
+            m_pattern_ = new Pattern(m_pattern_.targetText);
+            m_isPatternShared_ = false;
+        }
         int expandlength  = initializePattern();   
         if (m_pattern_.m_CELength_ > 0) {
             char minlength = (char)(m_pattern_.m_CELength_ > expandlength 
@@ -3146,7 +3302,7 @@ public final class StringSearch extends SearchIterator
      * @param strength collation strength
       * @return collation element mask
      */
-    private static final int getMask(int strength) 
+    static final int getMask(int strength) 
     {
         switch (strength) 
         {
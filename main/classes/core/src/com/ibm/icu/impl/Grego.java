@@ -104,9 +104,8 @@ public class Grego {
      * @return the day of week
      */
     public static int dayOfWeek(long day) {
-        long[] remainder = new long[1];
-        floorDivide(day + Calendar.THURSDAY, 7, remainder);
-        int dayOfWeek = (int)remainder[0];
+        long n = day + Calendar.THURSDAY;
+        int dayOfWeek = (int)(n - floorDivide(n, 7) * 7);
         dayOfWeek = (dayOfWeek == 0) ? 7 : dayOfWeek;
         return dayOfWeek;
     }
@@ -118,14 +117,19 @@ public class Grego {
         // Convert from 1970 CE epoch to 1 CE epoch (Gregorian calendar)
         day += JULIAN_1970_CE - JULIAN_1_CE;
 
-        long[] rem = new long[1];
-        long n400 = floorDivide(day, 146097, rem);
-        long n100 = floorDivide(rem[0], 36524, rem);
-        long n4 = floorDivide(rem[0], 1461, rem);
-        long n1 = floorDivide(rem[0], 365, rem);
+        // The remainder of the first division is non-negative, so that
+        // the rest can be done with plain int arithmetic.
+        long n400 = floorDivide(day, 146097);
+        int rem = (int)(day - n400 * 146097);
+        int n100 = rem / 36524;
+        rem %= 36524;
+        int n4 = rem / 1461;
+        rem %= 1461;
+        int n1 = rem / 365;
+        rem %= 365;
 
         int year = (int)(400 * n400 + 100 * n100 + 4 * n4 + n1);
-        int dayOfYear = (int)rem[0];
+        int dayOfYear = rem;
         if (n100 == 4 || n1 == 4) {
             dayOfYear = 365;    // Dec 31 at end of 4- or 400-yr cycle
         }
@@ -170,10 +174,9 @@ public class Grego {
         if (fields == null || fields.length < 6) {
             fields = new int[6];
         }
-        long[] remainder = new long[1];
-        long day = floorDivide(time, 24*60*60*1000 /* milliseconds per day */, remainder);
+        long day = floorDivide(time, MILLIS_PER_DAY);
         dayToFields(day, fields);
-        fields[5] = (int)remainder[0];
+        fields[5] = (int)(time - day * MILLIS_PER_DAY);
         return fields;
     }
 
@@ -185,16 +188,6 @@ public class Grego {
             ((numerator + 1) / denominator) - 1;
     }
 
-    private static long floorDivide(long numerator, long denominator, long[] remainder) {
-        if (numerator >= 0) {
-            remainder[0] = numerator % denominator;
-            return numerator / denominator;
-        }
-        long quotient = ((numerator + 1) / denominator) - 1;
-        remainder[0] = numerator - (quotient * denominator);
-        return quotient;
-    }
-
     /*
      * Returns the ordinal number for the specified day of week in the month.
      * The valid return value is 1, 2, 3, 4 or -1.
@@ -1,6 +1,6 @@
 /**
  *******************************************************************************
- * Copyright (C) 2001-2011, International Business Machines Corporation and    *
+ * Copyright (C) 2001-2013, International Business Machines Corporation and    *
  * others. All Rights Reserved.                                                *
  *******************************************************************************
  */
@@ -21,6 +21,7 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.ibm.icu.util.ULocale;
 import com.ibm.icu.util.ULocale.Category;
@@ -407,9 +408,9 @@ public class ICUService extends ICUNotifier {
                 }
                 if (cache == null) {
                     if (DEBUG) System.out.println("Service " + name + " cache was empty");
-                    // synchronized since additions and queries on the cache must be atomic
-                    // they can be interleaved, though
-                    cache = Collections.synchronizedMap(new HashMap<String, CacheEntry>());
+                    // concurrent since additions and queries on the cache must be atomic
+                    // they can be interleaved, though; queries do not lock
+                    cache = new ConcurrentHashMap<String, CacheEntry>();
 //                  hardRef = cache; // debug
                     cref = new SoftReference<Map<String, CacheEntry>>(cache);
                 }
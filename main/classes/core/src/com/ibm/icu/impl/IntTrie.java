@@ -1,6 +1,6 @@
 /*
 ******************************************************************************
-* Copyright (C) 1996-2011, International Business Machines Corporation and   *
+* Copyright (C) 1996-2013, International Business Machines Corporation and   *
 * others. All Rights Reserved.                                               *
 ******************************************************************************
 */
@@ -8,8 +8,11 @@
 package com.ibm.icu.impl;
 
 import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 import com.ibm.icu.text.UTF16;
@@ -44,6 +47,26 @@ public class IntTrie extends Trie
         }
     }
 
+    /**
+    * <p>Creates a new Trie from the 32-bit-aligned, big-endian buffer.</p>
+    * <p>The index and data are copied out of the buffer in bulk, rather
+    * than one value at a time as with an input stream. The position of the
+    * buffer is advanced past the trie.</p>
+    * @param bytes buffer positioned at the start of the trie
+    * @param dataManipulate object which provides methods to parse the char 
+    *                        data
+    * @throws IOException thrown when the buffer is too short
+    */
+    public IntTrie(ByteBuffer bytes, DataManipulate dataManipulate)
+                                                    throws IOException
+    {
+        super(bytes, dataManipulate);
+        if (!isIntTrie()) {
+            throw new IllegalArgumentException(
+                               "Data given does not belong to a int trie.");
+        }
+    }
+
     /**
      * Make a dummy IntTrie.
      * A dummy trie is an empty runtime trie, used when a real data trie cannot
@@ -239,6 +262,22 @@ public class IntTrie extends Trie
     }
     ///CLOVER:ON
     
+    /**
+    * <p>Writes this trie in the format that is read by
+    * {@link #IntTrie(InputStream, Trie.DataManipulate)}.</p>
+    * @param outputStream output stream for the trie
+    * @throws IOException thrown when data writing fails
+    */
+    public void serialize(OutputStream outputStream) throws IOException
+    {
+        DataOutputStream output = new DataOutputStream(outputStream);
+        serializeHeaderAndIndex(output);
+        for (int i = 0; i < m_dataLength_; i ++) {
+            output.writeInt(m_data_[i]);
+        }
+        output.flush();
+    }
+
     // protected methods -----------------------------------------------
 
     /**
@@ -259,6 +298,23 @@ public class IntTrie extends Trie
         }
         m_initialValue_ = m_data_[0];
     }
+
+    /**
+    * <p>Reads the trie index and data from the buffer in bulk.</p>
+    * @param bytes buffer containing trie data
+    * @exception IOException thrown when the buffer is too short
+    */
+    protected final void unserialize(ByteBuffer bytes) throws IOException
+    {
+        super.unserialize(bytes);
+        if (m_dataLength_ < 1 || m_dataLength_ > bytes.remaining() / 4) {
+            throw new IOException("ICU data file error: Trie data is truncated");
+        }
+        m_data_ = new int[m_dataLength_];
+        bytes.asIntBuffer().get(m_data_);
+        bytes.position(bytes.position() + (m_dataLength_ << 2));
+        m_initialValue_ = m_data_[0];
+    }
     
     /**
     * Gets the offset to the data which the surrogate pair points to.
@@ -0,0 +1,193 @@
+/*
+ *******************************************************************************
+ * Copyright (C) 2013, International Business Machines Corporation and         *
+ * others. All Rights Reserved.                                                *
+ *******************************************************************************
+ */
+package com.ibm.icu.impl;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.ibm.icu.text.MessagePattern;
+import com.ibm.icu.text.MessagePattern.ApostropheMode;
+
+/**
+ * A bounded cache of frozen, parsed <code>MessagePattern</code> objects, keyed by
+ * pattern string, pattern style and apostrophe mode. <code>MessageFormat</code>,
+ * <code>PluralFormat</code> and <code>SelectFormat</code> share the cached patterns
+ * instead of parsing the same pattern strings again.
+ * <p>
+ * The cache is disabled unless its maximum size is set with the ICUConfig property
+ * <code>com.ibm.icu.impl.MessagePatternCache.maxSize</code> or with {@link #setMaxSize(int)}.
+ * When the cache is full, patterns are parsed but not added.
+ * The cache and its counters are thread-safe.
+ */
+public final class MessagePatternCache {
+    private static final int STYLE_MESSAGE = 0;
+    private static final int STYLE_PLURAL = 1;
+    private static final int STYLE_SELECT = 2;
+
+    private static final ConcurrentHashMap<Key, MessagePattern> CACHE =
+            new ConcurrentHashMap<Key, MessagePattern>();
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+
+    private static volatile int maxSize;
+    static {
+        int size = 0;
+        try {
+            size = Integer.parseInt(ICUConfig.get("com.ibm.icu.impl.MessagePatternCache.maxSize", "0").trim());
+        } catch (NumberFormatException e) {
+            // keep the cache disabled
+        }
+        maxSize = size;
+    }
+
+    private MessagePatternCache() {
+    }
+
+    /**
+     * Returns the frozen MessagePattern for a MessageFormat pattern.
+     * @param pattern the MessageFormat pattern string
+     * @param mode the apostrophe mode
+     * @return the frozen pattern, or null if the cache is disabled
+     * @throws IllegalArgumentException for syntax errors in the pattern string
+     */
+    public static MessagePattern getMessage(String pattern, ApostropheMode mode) {
+        return get(pattern, STYLE_MESSAGE, mode);
+    }
+
+    /**
+     * Returns the frozen MessagePattern for a PluralFormat pattern,
+     * parsed with the default apostrophe mode.
+     * @param pattern the PluralFormat pattern string
+     * @return the frozen pattern, or null if the cache is disabled
+     * @throws IllegalArgumentException for syntax errors in the pattern string
+     */
+    public static MessagePattern getPluralStyle(String pattern) {
+        return get(pattern, STYLE_PLURAL, null);
+    }
+
+    /**
+     * Returns the frozen MessagePattern for a SelectFormat pattern,
+     * parsed with the default apostrophe mode.
+     * @param pattern the SelectFormat pattern string
+     * @return the frozen pattern, or null if the cache is disabled
+     * @throws IllegalArgumentException for syntax errors in the pattern string
+     */
+    public static MessagePattern getSelectStyle(String pattern) {
+        return get(pattern, STYLE_SELECT, null);
+    }
+
+    private static MessagePattern get(String pattern, int style, ApostropheMode mode) {
+        if (maxSize <= 0) {
+            return null;
+        }
+        Key key = new Key(pattern, style, mode);
+        MessagePattern result = CACHE.get(key);
+        if (result != null) {
+            HITS.incrementAndGet();
+            return result;
+        }
+        MISSES.incrementAndGet();
+        result = (mode == null) ? new MessagePattern() : new MessagePattern(mode);
+        switch (style) {
+        case STYLE_PLURAL:
+            result.parsePluralStyle(pattern);
+            break;
+        case STYLE_SELECT:
+            result.parseSelectStyle(pattern);
+            break;
+        default:
+            result.parse(pattern);
+            break;
+        }
+        result.freeze();
+        if (CACHE.size() < maxSize) {
+            MessagePattern cached = CACHE.putIfAbsent(key, result);
+            if (cached != null) {
+                result = cached;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sets the maximum number of cached patterns. 0 disables the cache.
+     * If the cache holds more patterns than the new maximum, it is cleared.
+     * @param size the maximum number of cached patterns
+     */
+    public static void setMaxSize(int size) {
+        maxSize = size;
+        if (CACHE.size() > size) {
+            CACHE.clear();
+        }
+    }
+
+    /**
+     * Returns the maximum number of cached patterns, 0 if the cache is disabled.
+     * @return the maximum size
+     */
+    public static int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the number of cached patterns.
+     * @return the size of the cache
+     */
+    public static int size() {
+        return CACHE.size();
+    }
+
+    /**
+     * Returns the number of lookups that found a cached pattern.
+     * @return the hit count
+     */
+    public static long getHitCount() {
+        return HITS.get();
+    }
+
+    /**
+     * Returns the number of lookups that parsed the pattern,
+     * whether or not the result was added to the cache.
+     * @return the miss count
+     */
+    public static long getMissCount() {
+        return MISSES.get();
+    }
+
+    /**
+     * Removes all cached patterns and resets the counters.
+     */
+    public static void clear() {
+        CACHE.clear();
+        HITS.set(0);
+        MISSES.set(0);
+    }
+
+    private static final class Key {
+        private final String pattern;
+        private final int style;
+        private final ApostropheMode mode;
+
+        Key(String pattern, int style, ApostropheMode mode) {
+            this.pattern = pattern;
+            this.style = style;
+            this.mode = mode;
+        }
+
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key o = (Key)other;
+            return style == o.style && mode == o.mode && pattern.equals(o.pattern);
+        }
+
+        public int hashCode() {
+            return pattern.hashCode() * 31 + style * 3 + (mode == null ? 0 : mode.ordinal() + 1);
+        }
+    }
+}
@@ -249,6 +249,7 @@ public class OlsonTimeZone extends BasicTimeZone {
             finalZone.setRawOffset(offsetMillis);
         }
 
+        finalOffsets = new FinalOffsetsHolder();
         transitionRulesInitialized = false;
     }
 
@@ -266,6 +267,13 @@ public class OlsonTimeZone extends BasicTimeZone {
     @Override
     public void getOffset(long date, boolean local, int[] offsets)  {
         if (finalZone != null && date >= finalStartMillis) {
+            if (!local) {
+                FinalOffsets fo = getFinalOffsets();
+                if (date < fo.limit) {
+                    fo.getOffset(date, offsets);
+                    return;
+                }
+            }
             finalZone.getOffset(date, local, offsets);
         } else {
             getHistoricalOffset(date, local,
@@ -677,6 +685,20 @@ public class OlsonTimeZone extends BasicTimeZone {
                 // Before the first transition time
                 offsets[0] = initialRawOffset() * Grego.MILLIS_PER_SECOND;
                 offsets[1] = initialDstOffset() * Grego.MILLIS_PER_SECOND;
+            } else if (!local) {
+                // Binary search for the last transition at or before the time
+                int lo = 0;
+                int hi = transitionCount - 1;
+                while (lo < hi) {
+                    int mid = (lo + hi + 1) >>> 1;
+                    if (transitionTimes64[mid] <= sec) {
+                        lo = mid;
+                    } else {
+                        hi = mid - 1;
+                    }
+                }
+                offsets[0] = rawOffsetAt(lo) * Grego.MILLIS_PER_SECOND;
+                offsets[1] = dstOffsetAt(lo) * Grego.MILLIS_PER_SECOND;
             } else {
                 // Linear search from the end is the fastest approach, since
                 // most lookups will happen at/near the end.
@@ -740,6 +762,103 @@ public class OlsonTimeZone extends BasicTimeZone {
         }
     }
 
+    /*
+     * The UTC offsets of the final rule from finalStartMillis up to the start
+     * of FINAL_OFFSETS_LIMIT_YEAR, materialized as a table of the times the
+     * offsets change, so that getOffset for a UTC time in that range is a
+     * binary search rather than a rule evaluation. Immutable once built.
+     */
+    private static final class FinalOffsets {
+        // UTC millis of each offset change; times[0] is the start of the table
+        final long[] times;
+        final int[] rawOffsets;
+        final int[] dstSavings;
+        // Exclusive end of the table in UTC millis
+        final long limit;
+
+        FinalOffsets(SimpleTimeZone zone, long start, long limit) {
+            int[] offsets = new int[2];
+            int count = 0;
+            long[] tmpTimes = new long[16];
+            int[] tmpRaw = new int[16];
+            int[] tmpDst = new int[16];
+
+            boolean hasTransitions = zone.useDaylightTime();
+            long time = start;
+            while (true) {
+                if (count == tmpTimes.length) {
+                    long[] newTimes = new long[count * 2];
+                    System.arraycopy(tmpTimes, 0, newTimes, 0, count);
+                    tmpTimes = newTimes;
+                    int[] newRaw = new int[count * 2];
+                    System.arraycopy(tmpRaw, 0, newRaw, 0, count);
+                    tmpRaw = newRaw;
+                    int[] newDst = new int[count * 2];
+                    System.arraycopy(tmpDst, 0, newDst, 0, count);
+                    tmpDst = newDst;
+                }
+                // Use the offsets the zone itself computes, so that the table
+                // matches SimpleTimeZone#getOffset exactly.
+                zone.getOffset(time, false, offsets);
+                tmpTimes[count] = time;
+                tmpRaw[count] = offsets[0];
+                tmpDst[count] = offsets[1];
+                count++;
+
+                if (!hasTransitions) {
+                    break;
+                }
+                TimeZoneTransition tzt = zone.getNextTransition(time, false);
+                if (tzt == null || tzt.getTime() >= limit) {
+                    break;
+                }
+                time = tzt.getTime();
+            }
+
+            times = new long[count];
+            System.arraycopy(tmpTimes, 0, times, 0, count);
+            rawOffsets = new int[count];
+            System.arraycopy(tmpRaw, 0, rawOffsets, 0, count);
+            dstSavings = new int[count];
+            System.arraycopy(tmpDst, 0, dstSavings, 0, count);
+            this.limit = limit;
+        }
+
+        /*
+         * Sets the offsets at a UTC time in the range [times[0], limit).
+         */
+        void getOffset(long date, int[] offsets) {
+            int idx = Arrays.binarySearch(times, date);
+            if (idx < 0) {
+                idx = -idx - 2;
+            }
+            offsets[0] = rawOffsets[idx];
+            offsets[1] = dstSavings[idx];
+        }
+    }
+
+    /*
+     * Holds the lazily built FinalOffsets. Clones share the holder of the
+     * instance they were cloned from, so that the table of a system zone is
+     * built once, no matter how many clones TimeZone.getTimeZone returns.
+     */
+    private static final class FinalOffsetsHolder {
+        volatile FinalOffsets offsets;
+    }
+
+    private FinalOffsets getFinalOffsets() {
+        FinalOffsetsHolder holder = finalOffsets;
+        FinalOffsets fo = holder.offsets;
+        if (fo == null) {
+            // Racing threads build equal tables
+            long start = (long)finalStartMillis;
+            long limit = Math.max(start, FINAL_OFFSETS_LIMIT_MILLIS);
+            fo = new FinalOffsets(finalZone, start, limit);
+            holder.offsets = fo;
+        }
+        return fo;
+    }
+
     private int getInt(byte val){
         return val & 0xFF; 
     }
@@ -875,6 +994,29 @@ public class OlsonTimeZone extends BasicTimeZone {
      */
     private volatile String canonicalID = null;
 
+    /**
+     * The offsets of finalZone for UTC times before this year are materialized
+     * in finalOffsets. Configurable by the ICU config property
+     * com.ibm.icu.impl.OlsonTimeZone.finalOffsetsLimitYear.
+     */
+    private static final long FINAL_OFFSETS_LIMIT_MILLIS;
+    static {
+        int limitYear = 2100;
+        try {
+            limitYear = Integer.parseInt(
+                    ICUConfig.get("com.ibm.icu.impl.OlsonTimeZone.finalOffsetsLimitYear", "2100").trim());
+        } catch (NumberFormatException e) {
+            // use the default
+        }
+        FINAL_OFFSETS_LIMIT_MILLIS = Grego.fieldsToDay(limitYear, 0, 1) * Grego.MILLIS_PER_DAY;
+    }
+
+    /**
+     * Holder of the lazily built table of the UTC offsets of finalZone,
+     * shared with clones. Replaced when finalZone is modified.
+     */
+    private transient FinalOffsetsHolder finalOffsets = new FinalOffsetsHolder();
+
     private static final String ZONEINFORES = "zoneinfo64";
 
     private static final boolean DEBUG = ICUDebug.enabled("olson");
@@ -1226,6 +1368,7 @@ public class OlsonTimeZone extends BasicTimeZone {
 
     private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
         stream.defaultReadObject();
+        finalOffsets = new FinalOffsetsHolder();
 
         if (serialVersionOnStream < 1) {
             // No version - 4.2 or older
@@ -1291,6 +1434,7 @@ public class OlsonTimeZone extends BasicTimeZone {
         // transitionTimes64
         // typeMapData
         // typeOffsets
+        // finalOffsets (replaced by setRawOffset)
 
         tz.isFrozen = false;
         return tz;
@@ -1,6 +1,6 @@
 /*
  *******************************************************************************
- * Copyright (C) 2008-2012, International Business Machines Corporation and    *
+ * Copyright (C) 2008-2013, International Business Machines Corporation and    *
  * others. All Rights Reserved.                                                *
  *******************************************************************************
  */
@@ -14,6 +14,7 @@ import java.util.Map;
 import java.util.MissingResourceException;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.ibm.icu.text.PluralRules;
 import com.ibm.icu.text.PluralRules.PluralType;
@@ -24,17 +25,28 @@ import com.ibm.icu.util.UResourceBundle;
  * Loader for plural rules data.
  */
 public class PluralRulesLoader {
-    private final Map<String, PluralRules> rulesIdToRules;
-    // lazy init, use getLocaleIdToRulesIdMap to access
-    private Map<String, String> localeIdToCardinalRulesId;
+    // Don't cache the rules of more locales than this, the locale IDs are not validated.
+    private static final int MAX_CACHED_LOCALES = 1000;
+
+    // Stands for missing rules in the caches, which cannot contain null.
+    private static final PluralRules NO_RULES = PluralRules.createRules("other: n");
+
+    private final ConcurrentHashMap<String, PluralRules> rulesIdToRules;
+    private final ConcurrentHashMap<ULocale, PluralRules> cardinalRulesCache;
+    private final ConcurrentHashMap<ULocale, PluralRules> ordinalRulesCache;
+    // lazy init, use getLocaleIdToRulesIdMap to access.
+    // localeIdToCardinalRulesId is published last.
     private Map<String, String> localeIdToOrdinalRulesId;
     private Map<String, ULocale> rulesIdToEquivalentULocale;
+    private volatile Map<String, String> localeIdToCardinalRulesId;
 
     /**
      * Access through singleton.
      */
     private PluralRulesLoader() {
-        rulesIdToRules = new HashMap<String, PluralRules>();
+        rulesIdToRules = new ConcurrentHashMap<String, PluralRules>();
+        cardinalRulesCache = new ConcurrentHashMap<ULocale, PluralRules>();
+        ordinalRulesCache = new ConcurrentHashMap<ULocale, PluralRules>();
     }
 
     /**
@@ -96,11 +108,8 @@ public class PluralRulesLoader {
      * resource in plurals.res.
      */
     private void checkBuildRulesIdMaps() {
-        boolean haveMap;
-        synchronized (this) {
-            haveMap = localeIdToCardinalRulesId != null;
-        }
-        if (!haveMap) {
+        // Concurrent builds read the same data, so any of them can win.
+        if (localeIdToCardinalRulesId == null) {
             Map<String, String> tempLocaleIdToCardinalRulesId;
             Map<String, String> tempLocaleIdToOrdinalRulesId;
             Map<String, ULocale> tempRulesIdToEquivalentULocale;
@@ -140,14 +149,10 @@ public class PluralRulesLoader {
                 tempLocaleIdToOrdinalRulesId = Collections.emptyMap();
                 tempRulesIdToEquivalentULocale = Collections.emptyMap();
             }
-            
-            synchronized(this) {
-                if (localeIdToCardinalRulesId == null) {
-                    localeIdToCardinalRulesId = tempLocaleIdToCardinalRulesId;
-                    localeIdToOrdinalRulesId = tempLocaleIdToOrdinalRulesId;
-                    rulesIdToEquivalentULocale = tempRulesIdToEquivalentULocale;
-                }
-            }
+
+            localeIdToOrdinalRulesId = tempLocaleIdToOrdinalRulesId;
+            rulesIdToEquivalentULocale = tempRulesIdToEquivalentULocale;
+            localeIdToCardinalRulesId = tempLocaleIdToCardinalRulesId;
         }
     }
 
@@ -175,16 +180,9 @@ public class PluralRulesLoader {
      * return null.
      */
     public PluralRules getRulesForRulesId(String rulesId) {
-        // synchronize on the map.  release the lock temporarily while we build the rules.
-        PluralRules rules = null;
-        boolean hasRules;  // Separate boolean because stored rules can be null.
-        synchronized (rulesIdToRules) {
-            hasRules = rulesIdToRules.containsKey(rulesId);
-            if (hasRules) {
-                rules = rulesIdToRules.get(rulesId);  // can be null
-            }
-        }
-        if (!hasRules) {
+        // Build the rules without a lock, the first rules stored for the rulesId win.
+        PluralRules rules = rulesIdToRules.get(rulesId);
+        if (rules == null) {
             try {
                 UResourceBundle pluralb = getPluralBundle();
                 UResourceBundle rulesb = pluralb.get("rules");
@@ -204,15 +202,15 @@ public class PluralRulesLoader {
             } catch (ParseException e) {
             } catch (MissingResourceException e) {
             }
-            synchronized (rulesIdToRules) {
-                if (rulesIdToRules.containsKey(rulesId)) {
-                    rules = rulesIdToRules.get(rulesId);
-                } else {
-                    rulesIdToRules.put(rulesId, rules);  // can be null
-                }
+            if (rules == null) {
+                rules = NO_RULES;
+            }
+            PluralRules cached = rulesIdToRules.putIfAbsent(rulesId, rules);
+            if (cached != null) {
+                rules = cached;
             }
         }
-        return rules;
+        return rules == NO_RULES ? null : rules;
     }
 
     /**
@@ -230,6 +228,19 @@ public class PluralRulesLoader {
      * com.ibm.icu.text.PluralRules.DEFAULT is returned.
      */
     public PluralRules forLocale(ULocale locale, PluralRules.PluralType type) {
+        ConcurrentHashMap<ULocale, PluralRules> cache =
+                (type == PluralType.CARDINAL) ? cardinalRulesCache : ordinalRulesCache;
+        PluralRules rules = cache.get(locale);
+        if (rules == null) {
+            rules = loadForLocale(locale, type);
+            if (cache.size() < MAX_CACHED_LOCALES) {
+                cache.putIfAbsent(locale, rules);
+            }
+        }
+        return rules;
+    }
+
+    private PluralRules loadForLocale(ULocale locale, PluralRules.PluralType type) {
         String rulesId = getRulesIdForLocale(locale, type);
         if (rulesId == null || rulesId.trim().length() == 0) {
             return PluralRules.DEFAULT;
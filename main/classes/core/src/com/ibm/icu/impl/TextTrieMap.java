@@ -6,6 +6,7 @@
  */
 package com.ibm.icu.impl;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -21,6 +22,7 @@ public class TextTrieMap<V> {
 
     private Node _root = new Node();
     boolean _ignoreCase;
+    private boolean _frozen;
 
     /**
      * Constructs a TextTrieMap object.
@@ -38,6 +40,9 @@ public class TextTrieMap<V> {
      * @param val The value object associated with the text.
      */
     public TextTrieMap<V> put(CharSequence text, V val) {
+        if (_frozen) {
+            throw new UnsupportedOperationException("Attempt to modify a frozen TextTrieMap");
+        }
         CharIterator chitr = new CharIterator(text, 0, _ignoreCase);
         _root.add(chitr, val);
         return this;
@@ -86,10 +91,39 @@ public class TextTrieMap<V> {
     
     public void find(CharSequence text, int offset, ResultHandler<V> handler) {
         CharIterator chitr = new CharIterator(text, offset, _ignoreCase);
-        find(_root, chitr, handler);
+        if (_frozen) {
+            find(_root, chitr, handler);
+        } else {
+            synchronized (this) {
+                find(_root, chitr, handler);
+            }
+        }
     }
 
-    private synchronized void find(Node node, CharIterator chitr, ResultHandler<V> handler) {
+    /**
+     * Makes this object immutable. A frozen TextTrieMap can be searched by
+     * multiple threads without synchronization, once it has been safely published.
+     * 
+     * @return this object
+     */
+    public TextTrieMap<V> freeze() {
+        if (!_frozen) {
+            _root.freeze();
+            _frozen = true;
+        }
+        return this;
+    }
+
+    /**
+     * Returns true if this object is frozen.
+     * 
+     * @return true if this object is frozen
+     */
+    public boolean isFrozen() {
+        return _frozen;
+    }
+
+    private void find(Node node, CharIterator chitr, ResultHandler<V> handler) {
         Iterator<V> values = node.values();
         if (values != null) {
             if (!handler.handlePrefixMatch(chitr.processedLength(), values)) {
@@ -304,6 +338,22 @@ public class TextTrieMap<V> {
             litr.add(new Node(subArray(text, offset), addValue(null, value), null));
         }
 
+        /*
+         * Replaces the linked lists, which are only needed while nodes are added,
+         * with array lists for faster iteration.
+         */
+        private void freeze() {
+            if (_values != null) {
+                _values = new ArrayList<V>(_values);
+            }
+            if (_children != null) {
+                _children = new ArrayList<Node>(_children);
+                for (Node child : _children) {
+                    child.freeze();
+                }
+            }
+        }
+
         private boolean matchFollowing(CharIterator chitr) {
             boolean matched = true;
             int idx = 1;
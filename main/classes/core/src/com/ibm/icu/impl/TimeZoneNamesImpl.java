@@ -40,7 +40,7 @@ public class TimeZoneNamesImpl extends TimeZoneNames {
     private static final String ZONE_STRINGS_BUNDLE = "zoneStrings";
     private static final String MZ_PREFIX = "meta:";
 
-    private static Set<String> METAZONE_IDS;
+    private static volatile Set<String> METAZONE_IDS;
     private static final TZ2MZsCache TZ_TO_MZS_CACHE = new TZ2MZsCache();
     private static final MZ2TZsCache MZ_TO_TZS_CACHE = new MZ2TZsCache();
 
@@ -53,8 +53,11 @@ public class TimeZoneNamesImpl extends TimeZoneNames {
     private transient ConcurrentHashMap<String, ZNames> _mzNamesMap;
     private transient ConcurrentHashMap<String, TZNames> _tzNamesMap;
 
-    private transient TextTrieMap<NameInfo> _namesTrie;
-    private transient boolean _namesTrieFullyLoaded;
+    // Used for parsing. _defaultNamesTrie is a frozen trie with the names
+    // of the default time zone and its meta zones, and is searched until
+    // _namesIndex with all names is loaded or built on demand.
+    private transient TextTrieMap<NameInfo> _defaultNamesTrie;
+    private transient volatile TimeZoneNamesIndex _namesIndex;
 
     public TimeZoneNamesImpl(ULocale locale) {
         initialize(locale);
@@ -64,14 +67,16 @@ public class TimeZoneNamesImpl extends TimeZoneNames {
      * @see com.ibm.icu.text.TimeZoneNames#getAvailableMetaZoneIDs()
      */
     @Override
-    public synchronized Set<String> getAvailableMetaZoneIDs() {
-        if (METAZONE_IDS == null) {
+    public Set<String> getAvailableMetaZoneIDs() {
+        Set<String> mzIDs = METAZONE_IDS;
+        if (mzIDs == null) {
             UResourceBundle bundle = UResourceBundle.getBundleInstance(ICUResourceBundle.ICU_BASE_NAME, "metaZones");
             UResourceBundle mapTimezones = bundle.get("mapTimezones");
             Set<String> keys = mapTimezones.keySet();
-            METAZONE_IDS = Collections.unmodifiableSet(keys);
+            mzIDs = Collections.unmodifiableSet(keys);
+            METAZONE_IDS = mzIDs;
         }
-        return METAZONE_IDS;
+        return mzIDs;
     }
 
     /* (non-Javadoc)
@@ -175,36 +180,42 @@ public class TimeZoneNamesImpl extends TimeZoneNames {
      * @see com.ibm.icu.text.TimeZoneNames#find(java.lang.CharSequence, int, java.util.Set)
      */
     @Override
-    public synchronized Collection<MatchInfo> find(CharSequence text, int start, EnumSet<NameType> nameTypes) {
+    public Collection<MatchInfo> find(CharSequence text, int start, EnumSet<NameType> nameTypes) {
         if (text == null || text.length() == 0 || start < 0 || start >= text.length()) {
             throw new IllegalArgumentException("bad input text or range");
         }
-        NameSearchHandler handler = new NameSearchHandler(nameTypes);
-        _namesTrie.find(text, start, handler);
-        if (handler.getMaxMatchLen() == (text.length() - start) || _namesTrieFullyLoaded) {
-            // perfect match
-            return handler.getMatches();
-        }
-
-        // All names are not yet loaded into the trie
+        TimeZoneNamesIndex namesIndex = _namesIndex;
+        if (namesIndex == null) {
+            NameSearchHandler handler = new NameSearchHandler(nameTypes);
+            _defaultNamesTrie.find(text, start, handler);
+            if (handler.getMaxMatchLen() == (text.length() - start)) {
+                // perfect match
+                return handler.getMatches();
+            }
 
-        // time zone names
-        Set<String> tzIDs = TimeZone.getAvailableIDs(SystemTimeZoneType.CANONICAL, null, null);
-        for (String tzID : tzIDs) {
-            loadTimeZoneNames(tzID);
+            // All names are not yet loaded
+            namesIndex = getNamesIndex();
         }
+        return namesIndex.find(text, start, nameTypes);
+    }
 
-        // meta zone names
-        Set<String> mzIDs = getAvailableMetaZoneIDs();
-        for (String mzID : mzIDs) {
-            loadMetaZoneNames(mzID);
+    /**
+     * Returns the index of all time zone and meta zone names. On the first call,
+     * the index is loaded from the precompiled data for the locale, or built from
+     * the zone strings if there is none.
+     * @return the index of all names
+     */
+    private synchronized TimeZoneNamesIndex getNamesIndex() {
+        TimeZoneNamesIndex namesIndex = _namesIndex;
+        if (namesIndex == null) {
+            namesIndex = TimeZoneNamesIndex.load(_zoneStrings.getULocale());
+            if (namesIndex == null) {
+                Set<String> tzIDs = TimeZone.getAvailableIDs(SystemTimeZoneType.CANONICAL, null, null);
+                namesIndex = TimeZoneNamesIndex.build(this, tzIDs, getAvailableMetaZoneIDs());
+            }
+            _namesIndex = namesIndex;
         }
-        _namesTrieFullyLoaded = true;
-
-        // now, try it again
-        handler.resetResults();
-        _namesTrie.find(text, start, handler);
-        return handler.getMatches();
+        return namesIndex;
     }
 
     /**
@@ -221,15 +232,12 @@ public class TimeZoneNamesImpl extends TimeZoneNames {
         _tzNamesMap = new ConcurrentHashMap<String, TZNames>();
         _mzNamesMap = new ConcurrentHashMap<String, ZNames>();
 
-        _namesTrie = new TextTrieMap<NameInfo>(true);
-        _namesTrieFullyLoaded = false;
+        _namesIndex = null;
 
         // Preload zone strings for the default time zone
         TimeZone tz = TimeZone.getDefault();
         String tzCanonicalID = ZoneMeta.getCanonicalCLDRID(tz);
-        if (tzCanonicalID != null) {
-            loadStrings(tzCanonicalID);
-        }
+        _defaultNamesTrie = loadStrings(tzCanonicalID).freeze();
     }
 
     /**
@@ -237,17 +245,20 @@ public class TimeZoneNamesImpl extends TimeZoneNames {
      * This is called from the initializer to load default zone's
      * strings.
      * @param tzCanonicalID the canonical time zone ID
+     * @return a trie with the loaded strings
      */
-    private synchronized void loadStrings(String tzCanonicalID) {
+    private TextTrieMap<NameInfo> loadStrings(String tzCanonicalID) {
+        TextTrieMap<NameInfo> trie = new TextTrieMap<NameInfo>(true);
         if (tzCanonicalID == null || tzCanonicalID.length() == 0) {
-            return;
+            return trie;
         }
-        loadTimeZoneNames(tzCanonicalID);
+        addTimeZoneNames(trie, tzCanonicalID, loadTimeZoneNames(tzCanonicalID));
 
         Set<String> mzIDs = getAvailableMetaZoneIDs(tzCanonicalID);
         for (String mzID : mzIDs) {
-            loadMetaZoneNames(mzID);
+            addMetaZoneNames(trie, mzID, loadMetaZoneNames(mzID));
         }
+        return trie;
     }
 
     /*
@@ -270,56 +281,82 @@ public class TimeZoneNamesImpl extends TimeZoneNames {
 
     /**
      * Returns a set of names for the given meta zone ID. This method loads
-     * the set of names into the internal map and trie for future references.
+     * the set of names into the internal map for future references.
+     * The names are immutable, so concurrent callers may load them at the
+     * same time, and all of them get the instance that was stored first.
      * @param mzID the meta zone ID
      * @return An instance of ZNames that includes a set of meta zone display names.
      */
-    private synchronized ZNames loadMetaZoneNames(String mzID) {
+    private ZNames loadMetaZoneNames(String mzID) {
         ZNames znames = _mzNamesMap.get(mzID);
         if (znames == null) {
             znames = ZNames.getInstance(_zoneStrings, MZ_PREFIX + mzID);
-            // put names into the trie
-            mzID = mzID.intern();
-            for (NameType t : NameType.values()) {
-                String name = znames.getName(t);
-                if (name != null) {
-                    NameInfo info = new NameInfo();
-                    info.mzID = mzID;
-                    info.type = t;
-                    _namesTrie.put(name, info);
-                }
+            ZNames tmp = _mzNamesMap.putIfAbsent(mzID.intern(), znames);
+            if (tmp != null) {
+                znames = tmp;
             }
-            _mzNamesMap.put(mzID, znames);
         }
         return znames;
     }
 
     /**
      * Returns a set of names for the given time zone ID. This method loads
-     * the set of names into the internal map and trie for future references.
+     * the set of names into the internal map for future references.
+     * The names are immutable, so concurrent callers may load them at the
+     * same time, and all of them get the instance that was stored first.
      * @param tzID the canonical time zone ID
      * @return An instance of TZNames that includes a set of time zone display names.
      */
-    private synchronized TZNames loadTimeZoneNames(String tzID) {
+    private TZNames loadTimeZoneNames(String tzID) {
         TZNames tznames = _tzNamesMap.get(tzID);
         if (tznames == null) {
             tznames = TZNames.getInstance(_zoneStrings, tzID.replace('/', ':'));
-            // put names into the trie
-            tzID = tzID.intern();
-            for (NameType t : NameType.values()) {
-                String name = tznames.getName(t);
-                if (name != null) {
-                    NameInfo info = new NameInfo();
-                    info.tzID = tzID;
-                    info.type = t;
-                    _namesTrie.put(name, info);
-                }
+            TZNames tmp = _tzNamesMap.putIfAbsent(tzID.intern(), tznames);
+            if (tmp != null) {
+                tznames = tmp;
             }
-            _tzNamesMap.put(tzID, tznames);
         }
         return tznames;
     }
 
+    /**
+     * Puts the names of a meta zone into the trie.
+     * @param trie the trie
+     * @param mzID the meta zone ID
+     * @param znames the names of the meta zone
+     */
+    private static void addMetaZoneNames(TextTrieMap<NameInfo> trie, String mzID, ZNames znames) {
+        mzID = mzID.intern();
+        for (NameType t : NameType.values()) {
+            String name = znames.getName(t);
+            if (name != null) {
+                NameInfo info = new NameInfo();
+                info.mzID = mzID;
+                info.type = t;
+                trie.put(name, info);
+            }
+        }
+    }
+
+    /**
+     * Puts the names of a time zone into the trie.
+     * @param trie the trie
+     * @param tzID the time zone ID
+     * @param tznames the names of the time zone
+     */
+    private static void addTimeZoneNames(TextTrieMap<NameInfo> trie, String tzID, TZNames tznames) {
+        tzID = tzID.intern();
+        for (NameType t : NameType.values()) {
+            String name = tznames.getName(t);
+            if (name != null) {
+                NameInfo info = new NameInfo();
+                info.tzID = tzID;
+                info.type = t;
+                trie.put(name, info);
+            }
+        }
+    }
+
     /**
      * An instance of NameInfo is stored in the zone names trie.
      */
@@ -386,14 +423,6 @@ public class TimeZoneNamesImpl extends TimeZoneNames {
         public int getMaxMatchLen() {
             return _maxMatchLen;
         }
-
-        /**
-         * Resets the match results
-         */
-        public void resetResults() {
-            _matches = null;
-            _maxMatchLen = 0;
-        }
     }
 
     /**
@@ -0,0 +1,307 @@
+/*
+ *******************************************************************************
+ * Copyright (C) 2013, International Business Machines Corporation and         *
+ * others. All Rights Reserved.                                                *
+ *******************************************************************************
+ */
+package com.ibm.icu.impl;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.ibm.icu.lang.UCharacter;
+import com.ibm.icu.text.TimeZoneNames;
+import com.ibm.icu.text.TimeZoneNames.MatchInfo;
+import com.ibm.icu.text.TimeZoneNames.NameType;
+import com.ibm.icu.util.BytesTrie.Result;
+import com.ibm.icu.util.CharsTrie;
+import com.ibm.icu.util.CharsTrieBuilder;
+import com.ibm.icu.util.StringTrieBuilder;
+import com.ibm.icu.util.ULocale;
+import com.ibm.icu.util.VersionInfo;
+
+/**
+ * An immutable index of time zone and meta zone display names for parsing.
+ * The case-folded names are stored in a serialized <code>CharsTrie</code>, whose
+ * values point into flat tables of the time zone or meta zone ID and name type
+ * of each name, so that the index takes a few objects regardless of the number
+ * of names, and it can be shared by multiple threads.
+ * <p>
+ * An index can be built from a <code>TimeZoneNames</code>, or read from data
+ * written earlier by {@link #write(OutputStream)}. Precompiled indexes are looked
+ * up in the ICU data as <code>zone/tznames/&lt;locale&gt;.tzi</code>.
+ */
+public final class TimeZoneNamesIndex {
+
+    private static final String INDEX_DATA_PATH = ICUResourceBundle.ICU_BUNDLE + "/zone/tznames/";
+    private static final String INDEX_DATA_SUFFIX = ".tzi";
+
+    private static final int DATA_FORMAT = 0x547a4e49;    // "TzNI"
+    private static final int FORMAT_VERSION = 1;
+
+    // Flag in an entry's type byte for meta zone IDs, the other bits are the NameType ordinal
+    private static final int MZ_FLAG = 0x80;
+    // Masks the NameType ordinal out of an entry type byte, which is sign-extended when MZ_FLAG is set
+    private static final int TYPE_MASK = 0x7f;
+
+    private static final NameType[] NAME_TYPES = NameType.values();
+
+    // Serialized CharsTrie mapping case-folded names to value indexes
+    private final String _trie;
+    // Entries of value v are entries _valueStarts[v] to _valueStarts[v + 1] - 1
+    private final int[] _valueStarts;
+    // ID index and type flags of each entry
+    private final int[] _entryIDs;
+    private final byte[] _entryTypes;
+    // Time zone and meta zone IDs, interned
+    private final String[] _ids;
+
+    private TimeZoneNamesIndex(String trie, int[] valueStarts, int[] entryIDs, byte[] entryTypes, String[] ids) {
+        _trie = trie;
+        _valueStarts = valueStarts;
+        _entryIDs = entryIDs;
+        _entryTypes = entryTypes;
+        _ids = ids;
+    }
+
+    /**
+     * Builds an index of the names of the specified time zones and meta zones.
+     * @param names the time zone names
+     * @param tzIDs the canonical time zone IDs
+     * @param mzIDs the meta zone IDs
+     * @return the index
+     */
+    public static TimeZoneNamesIndex build(TimeZoneNames names, Collection<String> tzIDs, Collection<String> mzIDs) {
+        // folded name -> list of (ID index, type) pairs, encoded as (ID index << 8) | type
+        TreeMap<String, List<Integer>> nameEntries = new TreeMap<String, List<Integer>>();
+        List<String> ids = new ArrayList<String>(tzIDs.size() + mzIDs.size());
+        for (String tzID : tzIDs) {
+            int idIndex = ids.size();
+            boolean added = false;
+            for (NameType t : NAME_TYPES) {
+                String name = names.getTimeZoneDisplayName(tzID, t);
+                if (name != null && name.length() > 0) {
+                    addEntry(nameEntries, name, (idIndex << 8) | t.ordinal());
+                    added = true;
+                }
+            }
+            if (added) {
+                ids.add(tzID.intern());
+            }
+        }
+        for (String mzID : mzIDs) {
+            int idIndex = ids.size();
+            boolean added = false;
+            for (NameType t : NAME_TYPES) {
+                String name = names.getMetaZoneDisplayName(mzID, t);
+                if (name != null && name.length() > 0) {
+                    addEntry(nameEntries, name, (idIndex << 8) | MZ_FLAG | t.ordinal());
+                    added = true;
+                }
+            }
+            if (added) {
+                ids.add(mzID.intern());
+            }
+        }
+
+        CharsTrieBuilder builder = new CharsTrieBuilder();
+        int[] valueStarts = new int[nameEntries.size() + 1];
+        int entryCount = 0;
+        for (List<Integer> entries : nameEntries.values()) {
+            entryCount += entries.size();
+        }
+        int[] entryIDs = new int[entryCount];
+        byte[] entryTypes = new byte[entryCount];
+        int value = 0;
+        int entryIndex = 0;
+        for (Map.Entry<String, List<Integer>> nameEntry : nameEntries.entrySet()) {
+            builder.add(nameEntry.getKey(), value);
+            valueStarts[value++] = entryIndex;
+            for (Integer entry : nameEntry.getValue()) {
+                entryIDs[entryIndex] = entry.intValue() >>> 8;
+                entryTypes[entryIndex++] = (byte)entry.intValue();
+            }
+        }
+        valueStarts[value] = entryIndex;
+        String trie = builder.buildCharSequence(StringTrieBuilder.Option.SMALL).toString();
+        return new TimeZoneNamesIndex(trie, valueStarts, entryIDs, entryTypes, ids.toArray(new String[ids.size()]));
+    }
+
+    private static void addEntry(Map<String, List<Integer>> nameEntries, String name, int entry) {
+        String key = fold(name);
+        List<Integer> entries = nameEntries.get(key);
+        if (entries == null) {
+            entries = new ArrayList<Integer>(1);
+            nameEntries.put(key, entries);
+        }
+        entries.add(Integer.valueOf(entry));
+    }
+
+    /*
+     * Simple case folding of each code point, like TextTrieMap with ignoreCase.
+     */
+    private static String fold(String name) {
+        StringBuilder buf = new StringBuilder(name.length());
+        for (int i = 0; i < name.length();) {
+            int cp = name.codePointAt(i);
+            buf.appendCodePoint(UCharacter.foldCase(cp, true));
+            i += Character.charCount(cp);
+        }
+        return buf.toString();
+    }
+
+    /**
+     * Finds the names that match the text at the start position, case-insensitively.
+     * @param text the text
+     * @param start the start index in the text
+     * @param nameTypes the name types to match, or null for all
+     * @return the matches, with the match length in the text
+     */
+    public Collection<MatchInfo> find(CharSequence text, int start, EnumSet<NameType> nameTypes) {
+        LinkedList<MatchInfo> matches = null;
+        CharsTrie trie = new CharsTrie(_trie, 0);
+        int idx = start;
+        while (idx < text.length()) {
+            int cp = Character.codePointAt(text, idx);
+            idx += Character.charCount(cp);
+            Result result = trie.nextForCodePoint(UCharacter.foldCase(cp, true));
+            if (!result.matches()) {
+                break;
+            }
+            if (result.hasValue()) {
+                int value = trie.getValue();
+                for (int i = _valueStarts[value]; i < _valueStarts[value + 1]; i++) {
+                    NameType type = NAME_TYPES[_entryTypes[i] & TYPE_MASK];
+                    if (nameTypes != null && !nameTypes.contains(type)) {
+                        continue;
+                    }
+                    String id = _ids[_entryIDs[i]];
+                    MatchInfo minfo;
+                    if ((_entryTypes[i] & MZ_FLAG) == 0) {
+                        minfo = new MatchInfo(type, id, null, idx - start);
+                    } else {
+                        minfo = new MatchInfo(type, null, id, idx - start);
+                    }
+                    if (matches == null) {
+                        matches = new LinkedList<MatchInfo>();
+                    }
+                    matches.add(minfo);
+                }
+            }
+            if (!result.hasNext()) {
+                break;
+            }
+        }
+        if (matches == null) {
+            return Collections.emptyList();
+        }
+        return matches;
+    }
+
+    /**
+     * Writes this index, so that it can be read by {@link #read(InputStream)}.
+     * @param out the output stream
+     * @throws IOException if an I/O error occurs
+     */
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream dos = new DataOutputStream(out);
+        dos.writeInt(DATA_FORMAT);
+        dos.writeInt(FORMAT_VERSION);
+        dos.writeUTF(VersionInfo.ICU_VERSION.toString());
+        dos.writeInt(_ids.length);
+        for (String id : _ids) {
+            dos.writeUTF(id);
+        }
+        dos.writeInt(_trie.length());
+        dos.writeChars(_trie);
+        dos.writeInt(_valueStarts.length);
+        for (int start : _valueStarts) {
+            dos.writeInt(start);
+        }
+        dos.writeInt(_entryIDs.length);
+        for (int i = 0; i < _entryIDs.length; i++) {
+            dos.writeInt(_entryIDs[i]);
+            dos.writeByte(_entryTypes[i]);
+        }
+        dos.flush();
+    }
+
+    /**
+     * Reads an index written by {@link #write(OutputStream)}.
+     * @param in the input stream
+     * @return the index
+     * @throws IOException if an I/O error occurs, or if the data was written
+     * for another ICU version
+     */
+    public static TimeZoneNamesIndex read(InputStream in) throws IOException {
+        DataInputStream dis = new DataInputStream(in);
+        if (dis.readInt() != DATA_FORMAT || dis.readInt() != FORMAT_VERSION) {
+            throw new IOException("Invalid time zone names index data format");
+        }
+        if (!VersionInfo.ICU_VERSION.toString().equals(dis.readUTF())) {
+            throw new IOException("Time zone names index data is for a different ICU version");
+        }
+        String[] ids = new String[dis.readInt()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = dis.readUTF().intern();
+        }
+        char[] trie = new char[dis.readInt()];
+        for (int i = 0; i < trie.length; i++) {
+            trie[i] = dis.readChar();
+        }
+        int[] valueStarts = new int[dis.readInt()];
+        for (int i = 0; i < valueStarts.length; i++) {
+            valueStarts[i] = dis.readInt();
+        }
+        int entryCount = dis.readInt();
+        int[] entryIDs = new int[entryCount];
+        byte[] entryTypes = new byte[entryCount];
+        for (int i = 0; i < entryCount; i++) {
+            entryIDs[i] = dis.readInt();
+            entryTypes[i] = dis.readByte();
+            if (entryIDs[i] < 0 || entryIDs[i] >= ids.length || (entryTypes[i] & TYPE_MASK) >= NAME_TYPES.length) {
+                throw new IOException("Invalid time zone names index entry");
+            }
+        }
+        return new TimeZoneNamesIndex(new String(trie), valueStarts, entryIDs, entryTypes, ids);
+    }
+
+    /**
+     * Loads the precompiled index for the locale from the ICU data, if there is one.
+     * @param locale the locale of the time zone names
+     * @return the index, or null if there is no valid precompiled index for the locale
+     */
+    public static TimeZoneNamesIndex load(ULocale locale) {
+        String name = locale.getBaseName();
+        if (name.length() == 0) {
+            name = "root";
+        }
+        InputStream is = ICUData.getStream(INDEX_DATA_PATH + name + INDEX_DATA_SUFFIX);
+        if (is == null) {
+            return null;
+        }
+        try {
+            return read(new BufferedInputStream(is));
+        } catch (IOException e) {
+            return null;
+        } finally {
+            try {
+                is.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+}
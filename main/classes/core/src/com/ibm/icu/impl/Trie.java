@@ -1,6 +1,6 @@
 /*
 ******************************************************************************
-* Copyright (C) 1996-2011, International Business Machines Corporation and   *
+* Copyright (C) 1996-2013, International Business Machines Corporation and   *
 * others. All Rights Reserved.                                               *
 ******************************************************************************
 */
@@ -8,8 +8,10 @@
 package com.ibm.icu.impl;
 
 import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 import com.ibm.icu.lang.UCharacter;
@@ -169,6 +171,39 @@ public abstract class Trie
         m_dataLength_     = input.readInt();
         unserialize(inputStream);
     }
+
+    /**
+    * Trie constructor for IntTrie use, reading from a big-endian buffer
+    * in bulk. The position of the buffer is advanced past the trie.
+    * @param bytes buffer positioned at the start of the trie
+    * @param dataManipulate object containing the information to parse the 
+    *                       trie data
+    * @throws IOException thrown when the buffer is too short.
+    */
+    protected Trie(ByteBuffer bytes, DataManipulate dataManipulate)
+                                                        throws IOException
+    {
+        if (bytes.remaining() < 16) {
+            throw new IOException("ICU data file error: Trie header is truncated");
+        }
+        int signature = bytes.getInt();
+        m_options_    = bytes.getInt();
+
+        if (!checkHeader(signature)) {
+            throw new IllegalArgumentException("ICU data file error: Trie header authentication failed, please check if you have the most updated ICU data file");
+        }
+
+        if(dataManipulate != null) {
+            m_dataManipulate_ = dataManipulate;
+        } else {
+            m_dataManipulate_ = new DefaultGetFoldingOffset();
+        }
+        m_isLatin1Linear_ = (m_options_ &
+                             HEADER_OPTIONS_LATIN1_IS_LINEAR_MASK_) != 0;
+        m_dataOffset_     = bytes.getInt();
+        m_dataLength_     = bytes.getInt();
+        unserialize(bytes);
+    }
     
     /**
     * Trie constructor
@@ -376,6 +411,41 @@ public abstract class Trie
         }
     }
 
+    /**
+    * <p>Reads the trie index from the buffer in bulk.</p>
+    * <p>This is overwritten by the child classes.
+    * @param bytes buffer containing the trie information
+    * @exception IOException thrown when the buffer is too short.
+    */
+    protected void unserialize(ByteBuffer bytes) throws IOException
+    {
+        if (m_dataOffset_ < 0 || m_dataOffset_ > bytes.remaining() / 2) {
+            throw new IOException("ICU data file error: Trie index is truncated");
+        }
+        m_index_ = new char[m_dataOffset_];
+        bytes.asCharBuffer().get(m_index_);
+        bytes.position(bytes.position() + (m_dataOffset_ << 1));
+    }
+
+    /**
+    * <p>Writes the trie header and the index, in the format that is read by
+    * the constructor that takes an input stream.</p>
+    * <p>The child classes write the data after it.</p>
+    * @param output output stream for the trie
+    * @exception IOException thrown when data writing fails.
+    */
+    protected final void serializeHeaderAndIndex(DataOutputStream output)
+                                                        throws IOException
+    {
+        output.writeInt(HEADER_SIGNATURE_);
+        output.writeInt(m_options_);
+        output.writeInt(m_dataOffset_);
+        output.writeInt(m_dataLength_);
+        for (int i = 0; i < m_dataOffset_; i ++) {
+            output.writeChar(m_index_[i]);
+        }
+    }
+
     /**
     * Determines if this is a 32 bit trie
     * @return true if options specifies this is a 32 bit trie
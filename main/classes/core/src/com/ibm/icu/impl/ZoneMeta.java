@@ -12,11 +12,16 @@ package com.ibm.icu.impl;
 
 import java.lang.ref.SoftReference;
 import java.text.ParsePosition;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.Locale;
+import java.util.Map;
 import java.util.MissingResourceException;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import com.ibm.icu.text.NumberFormat;
 import com.ibm.icu.util.Output;
@@ -52,19 +57,33 @@ public final class ZoneMeta {
 
     private static final String kWorld = "001";
 
-    private static SoftReference<Set<String>> REF_SYSTEM_ZONES;
-    private static SoftReference<Set<String>> REF_CANONICAL_SYSTEM_ZONES;
-    private static SoftReference<Set<String>> REF_CANONICAL_SYSTEM_LOCATION_ZONES;
+    private static volatile SoftReference<Set<String>> REF_SYSTEM_ZONES;
+    private static volatile SoftReference<Set<String>> REF_CANONICAL_SYSTEM_ZONES;
+    private static volatile SoftReference<Set<String>> REF_CANONICAL_SYSTEM_LOCATION_ZONES;
+
+    /*
+     * Per-region subsets of the system zone ID sets, by SystemTimeZoneType.
+     * Only regions having at least one zone are cached, so the maps cannot
+     * grow beyond the set of known region codes.
+     */
+    private static final Map<SystemTimeZoneType, ConcurrentHashMap<String, Set<String>>> REGION_ZONES_CACHE;
+    static {
+        REGION_ZONES_CACHE = new EnumMap<SystemTimeZoneType, ConcurrentHashMap<String, Set<String>>>(SystemTimeZoneType.class);
+        for (SystemTimeZoneType type : SystemTimeZoneType.values()) {
+            REGION_ZONES_CACHE.put(type, new ConcurrentHashMap<String, Set<String>>());
+        }
+    }
 
     /**
      * Returns an immutable set of system time zone IDs.
      * Etc/Unknown is excluded.
      * @return An immutable set of system time zone IDs.
      */
-    private static synchronized Set<String> getSystemZIDs() {
+    private static Set<String> getSystemZIDs() {
         Set<String> systemZones = null;
-        if (REF_SYSTEM_ZONES != null) {
-            systemZones = REF_SYSTEM_ZONES.get();
+        SoftReference<Set<String>> ref = REF_SYSTEM_ZONES;
+        if (ref != null) {
+            systemZones = ref.get();
         }
         if (systemZones == null) {
             Set<String> systemIDs = new TreeSet<String>();
@@ -88,10 +107,11 @@ public final class ZoneMeta {
      * including aliases, such as "US/Eastern".
      * @return An immutable set of canonical system time zone IDs.
      */
-    private static synchronized Set<String> getCanonicalSystemZIDs() {
+    private static Set<String> getCanonicalSystemZIDs() {
         Set<String> canonicalSystemZones = null;
-        if (REF_CANONICAL_SYSTEM_ZONES != null) {
-            canonicalSystemZones = REF_CANONICAL_SYSTEM_ZONES.get();
+        SoftReference<Set<String>> ref = REF_CANONICAL_SYSTEM_ZONES;
+        if (ref != null) {
+            canonicalSystemZones = ref.get();
         }
         if (canonicalSystemZones == null) {
             Set<String> canonicalSystemIDs = new TreeSet<String>();
@@ -120,10 +140,11 @@ public final class ZoneMeta {
      * @return An immutable set of canonical system time zone IDs that
      * are associated with actual locations.
      */
-    private static synchronized Set<String> getCanonicalSystemLocationZIDs() {
+    private static Set<String> getCanonicalSystemLocationZIDs() {
         Set<String> canonicalSystemLocationZones = null;
-        if (REF_CANONICAL_SYSTEM_LOCATION_ZONES != null) {
-            canonicalSystemLocationZones = REF_CANONICAL_SYSTEM_LOCATION_ZONES.get();
+        SoftReference<Set<String>> ref = REF_CANONICAL_SYSTEM_LOCATION_ZONES;
+        if (ref != null) {
+            canonicalSystemLocationZones = ref.get();
         }
         if (canonicalSystemLocationZones == null) {
             Set<String> canonicalSystemLocationIDs = new TreeSet<String>();
@@ -177,8 +198,30 @@ public final class ZoneMeta {
 
         if (region != null) {
             region = region.toUpperCase(Locale.ENGLISH);
+            if (rawOffset == null) {
+                // Region subsets are small and requested repeatedly, e.g. by
+                // getCanonicalCountry, so they are cached.
+                ConcurrentHashMap<String, Set<String>> regionZones = REGION_ZONES_CACHE.get(type);
+                Set<String> result = regionZones.get(region);
+                if (result == null) {
+                    result = filterIDs(baseSet, region, null);
+                    if (result.isEmpty()) {
+                        // unknown region, do not cache
+                        return result;
+                    }
+                    Set<String> tmp = regionZones.putIfAbsent(region, result);
+                    if (tmp != null) {
+                        result = tmp;
+                    }
+                }
+                return result;
+            }
         }
 
+        return filterIDs(baseSet, region, rawOffset);
+    }
+
+    private static Set<String> filterIDs(Set<String> baseSet, String region, Integer rawOffset) {
         // Filter by region/rawOffset
         Set<String> result = new TreeSet<String>();
         for (String id : baseSet) {
@@ -217,19 +260,9 @@ public final class ZoneMeta {
      * 'id', or zero if there are no equivalent zones.
      * @see #getEquivalentID
      */
-    public static synchronized int countEquivalentIDs(String id) {
-        int count = 0;
-        UResourceBundle res = openOlsonResource(null, id);
-        if (res != null) {
-            try {
-                UResourceBundle links = res.get("links");
-                int[] v = links.getIntVector();
-                count = v.length;
-            } catch (MissingResourceException ex) {
-                // throw away
-            }
-        }
-        return count;
+    public static int countEquivalentIDs(String id) {
+        int[] links = getLinks(id);
+        return links == null ? 0 : links.length;
     }
 
     /**
@@ -250,52 +283,86 @@ public final class ZoneMeta {
      * system ID or 'index' is out of range
      * @see #countEquivalentIDs
      */
-    public static synchronized String getEquivalentID(String id, int index) {
+    public static String getEquivalentID(String id, int index) {
         String result = "";
-        if (index >= 0) {
+        int[] links = getLinks(id);
+        if (links != null && index >= 0 && index < links.length) {
+            String tmp = getZoneID(links[index]);
+            if (tmp != null) {
+                result = tmp;
+            }
+        }
+        return result;
+    }
+
+    /*
+     * Returns the zone indexes of the equivalency group of the given zone,
+     * or null if the zone is unknown.
+     */
+    private static int[] getLinks(String id) {
+        int zoneIdx = getZoneIndex(id);
+        if (zoneIdx < 0) {
+            return null;
+        }
+        AtomicReferenceArray<int[]> linksArray = ZoneIndex.LINKS;
+        int[] links = linksArray.get(zoneIdx);
+        if (links == null) {
+            links = EMPTY_LINKS;
             UResourceBundle res = openOlsonResource(null, id);
             if (res != null) {
-                int zoneIdx = -1;
                 try {
-                    UResourceBundle links = res.get("links");
-                    int[] zones = links.getIntVector();
-                    if (index < zones.length) {
-                        zoneIdx = zones[index];
-                    }
+                    links = res.get("links").getIntVector();
                 } catch (MissingResourceException ex) {
                     // throw away
                 }
-                if (zoneIdx >= 0) {
-                    String tmp = getZoneID(zoneIdx);
-                    if (tmp != null) {
-                        result = tmp;
-                    }
-                }
             }
+            // Racing threads store equal data
+            linksArray.set(zoneIdx, links);
         }
-        return result;
+        return links;
     }
 
-    private static String[] ZONEIDS = null;
+    private static final int[] EMPTY_LINKS = new int[0];
 
     /*
-     * ICU frequently refers the zone ID array in zoneinfo resource
+     * Immutable index of the zone IDs in the zoneinfo resource, which ICU
+     * frequently refers to. The per-zone canonical IDs, regions and equivalency
+     * groups are looked up once on demand and published through atomic arrays,
+     * so that none of the lookups below take a lock or allocate once warmed up.
+     * The holder class is initialized on first use.
      */
-    private static synchronized String[] getZoneIDs() {
-        if (ZONEIDS == null) {
+    private static final class ZoneIndex {
+        static final String[] IDS;
+        static final String[] REGIONS;
+        static final AtomicReferenceArray<String> CANONICAL_IDS;
+        static final AtomicReferenceArray<int[]> LINKS;
+
+        static {
+            String[] ids = null;
+            String[] regions = null;
             try {
                 UResourceBundle top = UResourceBundle.getBundleInstance(
                         ICUResourceBundle.ICU_BASE_NAME, ZONEINFORESNAME, ICUResourceBundle.ICU_DATA_CLASS_LOADER);
-                UResourceBundle names = top.get(kNAMES);
-                ZONEIDS = names.getStringArray();
+                ids = top.get(kNAMES).getStringArray();
+                regions = top.get(kREGIONS).getStringArray();
             } catch (MissingResourceException ex) {
                 // throw away..
             }
+            if (ids == null) {
+                ids = new String[0];
+            }
+            if (regions == null) {
+                regions = new String[0];
+            }
+            IDS = ids;
+            REGIONS = regions;
+            CANONICAL_IDS = new AtomicReferenceArray<String>(ids.length);
+            LINKS = new AtomicReferenceArray<int[]>(ids.length);
         }
-        if (ZONEIDS == null) {
-            ZONEIDS = new String[0];
-        }
-        return ZONEIDS;
+    }
+
+    private static String[] getZoneIDs() {
+        return ZoneIndex.IDS;
     }
 
     private static String getZoneID(int idx) {
@@ -309,38 +376,12 @@ public final class ZoneMeta {
     }
 
     private static int getZoneIndex(String zid) {
-        int zoneIdx = -1;
-
-        String[] all = getZoneIDs();
-        if (all.length > 0) {
-            int start = 0;
-            int limit = all.length;
-
-            int lastMid = Integer.MAX_VALUE;
-            for (;;) {
-                int mid = (start + limit) / 2;
-                if (lastMid == mid) {   /* Have we moved? */
-                    break;  /* We haven't moved, and it wasn't found. */
-                }
-                lastMid = mid;
-                int r = zid.compareTo(all[mid]);
-                if (r == 0) {
-                    zoneIdx = mid;
-                    break;
-                } else if(r < 0) {
-                    limit = mid;
-                } else {
-                    start = mid;
-                }
-            }
-        }
-
-        return zoneIdx;
+        // The zone IDs in the zoneinfo resource are sorted
+        int zoneIdx = Arrays.binarySearch(getZoneIDs(), zid);
+        return zoneIdx >= 0 ? zoneIdx : -1;
     }
 
     private static ICUCache<String, String> CANONICAL_ID_CACHE = new SimpleCache<String, String>();
-    private static ICUCache<String, String> REGION_CACHE = new SimpleCache<String, String>();
-    private static ICUCache<String, Boolean> SINGLE_COUNTRY_CACHE = new SimpleCache<String, Boolean>();
 
     public static String getCanonicalCLDRID(TimeZone tz) {
         if (tz instanceof OlsonTimeZone) {
@@ -357,31 +398,29 @@ public final class ZoneMeta {
      * NOT a system ID).
      */
     public static String getCanonicalCLDRID(String tzid) {
-        String canonical = CANONICAL_ID_CACHE.get(tzid);
-        if (canonical == null) {
-            canonical = findCLDRCanonicalID(tzid);
+        int zoneIdx = getZoneIndex(tzid);
+        if (zoneIdx >= 0) {
+            AtomicReferenceArray<String> canonicalIDs = ZoneIndex.CANONICAL_IDS;
+            String canonical = canonicalIDs.get(zoneIdx);
             if (canonical == null) {
-                // Resolve Olson link and try it again if necessary
-                try {
-                    int zoneIdx = getZoneIndex(tzid);
-                    if (zoneIdx >= 0) {
-                        UResourceBundle top = UResourceBundle.getBundleInstance(ICUResourceBundle.ICU_BASE_NAME,
-                                ZONEINFORESNAME, ICUResourceBundle.ICU_DATA_CLASS_LOADER);
-                        UResourceBundle zones = top.get(kZONES);
-                        UResourceBundle zone = zones.get(zoneIdx);
-                        if (zone.getType() == UResourceBundle.INT) {
-                            // It's a link - resolve link and lookup
-                            tzid = getZoneID(zone.getInt());
-                            canonical = findCLDRCanonicalID(tzid);
-                        }
-                        if (canonical == null) {
-                            canonical = tzid;
-                        }
-                    }
-                } catch (MissingResourceException e) {
-                    // fall through
+                canonical = findCLDRCanonicalID(tzid);
+                if (canonical == null) {
+                    canonical = findLinkCanonicalID(tzid, zoneIdx);
                 }
+                if (canonical == null) {
+                    // Resource data is missing; don't remember this
+                    return null;
+                }
+                // Racing threads store equal IDs
+                canonicalIDs.set(zoneIdx, canonical);
             }
+            return canonical;
+        }
+
+        // Not in the zoneinfo resource, e.g. "Etc/Unknown"
+        String canonical = CANONICAL_ID_CACHE.get(tzid);
+        if (canonical == null) {
+            canonical = findCLDRCanonicalID(tzid);
             if (canonical != null) {
                 CANONICAL_ID_CACHE.put(tzid, canonical);
             }
@@ -389,6 +428,31 @@ public final class ZoneMeta {
         return canonical;
     }
 
+    /*
+     * Resolves an Olson link and looks up the canonical ID of the link target.
+     * Returns null if the zoneinfo resource is missing.
+     */
+    private static String findLinkCanonicalID(String tzid, int zoneIdx) {
+        String canonical = null;
+        try {
+            UResourceBundle top = UResourceBundle.getBundleInstance(ICUResourceBundle.ICU_BASE_NAME,
+                    ZONEINFORESNAME, ICUResourceBundle.ICU_DATA_CLASS_LOADER);
+            UResourceBundle zones = top.get(kZONES);
+            UResourceBundle zone = zones.get(zoneIdx);
+            if (zone.getType() == UResourceBundle.INT) {
+                // It's a link - resolve link and lookup
+                tzid = getZoneID(zone.getInt());
+                canonical = findCLDRCanonicalID(tzid);
+            }
+            if (canonical == null) {
+                canonical = tzid;
+            }
+        } catch (MissingResourceException e) {
+            // fall through
+        }
+        return canonical;
+    }
+
     private static String findCLDRCanonicalID(String tzid) {
         String canonical = null;
         String tzidKey = tzid.replace('/', ':');
@@ -423,26 +487,14 @@ public final class ZoneMeta {
      * If tzid is not a system zone ID, this method returns null.
      */
     public static String getRegion(String tzid) {
-        String region = REGION_CACHE.get(tzid);
-        if (region == null) {
-            int zoneIdx = getZoneIndex(tzid);
-            if (zoneIdx >= 0) {
-                try {
-                    UResourceBundle top = UResourceBundle.getBundleInstance(
-                            ICUResourceBundle.ICU_BASE_NAME, ZONEINFORESNAME, ICUResourceBundle.ICU_DATA_CLASS_LOADER);
-                    UResourceBundle regions = top.get(kREGIONS);
-                    if (zoneIdx < regions.getSize()) {
-                        region = regions.getString(zoneIdx);
-                    }
-                } catch (MissingResourceException e) {
-                    // throw away
-                }
-                if (region != null) {
-                    REGION_CACHE.put(tzid, region);
-                }
+        int zoneIdx = getZoneIndex(tzid);
+        if (zoneIdx >= 0) {
+            String[] regions = ZoneIndex.REGIONS;
+            if (zoneIdx < regions.length) {
+                return regions[zoneIdx];
             }
         }
-        return region;
+        return null;
     }
 
     /**
@@ -470,16 +522,11 @@ public final class ZoneMeta {
             return null;
         }
 
-        // Check the cache
-        Boolean singleZone = SINGLE_COUNTRY_CACHE.get(tzid);
-        if (singleZone == null) {
-            Set<String> ids = TimeZone.getAvailableIDs(SystemTimeZoneType.CANONICAL_LOCATION, country, null);
-            assert(ids.size() >= 1);
-            singleZone = Boolean.valueOf(ids.size() <= 1);
-            SINGLE_COUNTRY_CACHE.put(tzid, singleZone);
-        }
+        // The region subsets are cached by getAvailableIDs
+        Set<String> ids = getAvailableIDs(SystemTimeZoneType.CANONICAL_LOCATION, country, null);
+        assert(ids.size() >= 1);
 
-        if (singleZone) {
+        if (ids.size() <= 1) {
             isPrimary.value = Boolean.TRUE;
         } else {
             // Note: We may cache the primary zone map in future.
@@ -12,6 +12,11 @@ import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 
 /**
@@ -32,6 +37,13 @@ import java.util.Collections;
  * in the language are needed.  The detection process will attempt to
  * ignore html or xml style markup that could otherwise obscure the content.
  * <p/>
+ * The charset recognizers and their tables are created once and shared by all
+ * <code>CharsetDetector</code> instances.  A <code>CharsetDetector</code> itself
+ * only holds the state of one detect operation, is inexpensive to reuse with
+ * repeated calls to <code>setText()</code>, and must not be used by more than one
+ * thread at a time.  To detect many inputs at once, see
+ * {@link #detectEach(byte[][], ExecutorService)}.
+ * <p/>
  * @stable ICU 3.4
  */
 public class CharsetDetector {
@@ -87,6 +99,7 @@ public class CharsetDetector {
     public CharsetDetector setText(byte [] in) {
         fRawInput  = in;
         fRawLength = in.length;
+        fInputStream = null;    // A stream from a previous setText() call no longer applies.
         
         return this;
     }
@@ -200,6 +213,93 @@ public class CharsetDetector {
         return resultArray;
     }
 
+
+    /**
+     * Return the best matching charset for each of the supplied byte arrays.
+     * The declared encoding and the input filter setting of this detector
+     * are applied to every input; the state of this detector is not changed.
+     * <p/>
+     * The inputs are divided into chunks which are run as tasks on the supplied
+     * executor.  Each task uses its own detector, reused for all inputs of its
+     * chunk, so no detection state is shared between threads.  If
+     * <code>executor</code> is null, all inputs are detected in the calling thread.
+     *
+     * @param inputs the input texts of unknown encoding.
+     * @param executor the executor used for running the detection tasks, or null.
+     * @return an array with the same length as <code>inputs</code>, with the best
+     *         matching charset for each input, or <code>null</code> where no charset
+     *         matches the input.
+     * @throws IllegalStateException if a detection task was interrupted or failed.
+     *
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public CharsetMatch[] detectEach(byte[][] inputs, ExecutorService executor) {
+        CharsetMatch[] results = new CharsetMatch[inputs.length];
+        if (executor == null || inputs.length <= kMinBatchChunkSize) {
+            new BatchTask(this, inputs, 0, inputs.length, results).call();
+            return results;
+        }
+
+        int chunkCount = Math.min(Runtime.getRuntime().availableProcessors() * 4,
+                                  (inputs.length + kMinBatchChunkSize - 1) / kMinBatchChunkSize);
+        int chunkSize = (inputs.length + chunkCount - 1) / chunkCount;
+        List<Future<Void>> futures = new ArrayList<Future<Void>>(chunkCount);
+        for (int start = 0; start < inputs.length; start += chunkSize) {
+            int limit = Math.min(start + chunkSize, inputs.length);
+            futures.add(executor.submit(new BatchTask(this, inputs, start, limit, results)));
+        }
+        try {
+            for (Future<Void> f : futures) {
+                f.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Charset detection was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Charset detection failed", e.getCause());
+        } finally {
+            for (Future<Void> f : futures) {
+                f.cancel(true);
+            }
+        }
+        return results;
+    }
+
+    // Inputs per batch task, below which splitting the work is not worth the overhead.
+    private static final int kMinBatchChunkSize = 16;
+
+    /*
+     * Detects the charsets of a range of batch inputs with a private detector
+     * configured like the detector the batch was started from.
+     */
+    private static final class BatchTask implements Callable<Void> {
+        private final byte[][] inputs;
+        private final int start;
+        private final int limit;
+        private final CharsetMatch[] results;
+        private final String declaredEncoding;
+        private final boolean stripTags;
+
+        BatchTask(CharsetDetector config, byte[][] inputs, int start, int limit, CharsetMatch[] results) {
+            this.inputs = inputs;
+            this.start = start;
+            this.limit = limit;
+            this.results = results;
+            declaredEncoding = config.fDeclaredEncoding;
+            stripTags = config.fStripTags;
+        }
+
+        public Void call() {
+            CharsetDetector det = new CharsetDetector();
+            det.setDeclaredEncoding(declaredEncoding);
+            det.enableInputFilter(stripTags);
+            for (int i = start; i < limit; i++) {
+                results[i] = det.setText(inputs[i]).detect();
+            }
+            return null;
+        }
+    }
     
     /**
      * Autodetect the charset of an inputStream, and return a Java Reader
@@ -421,6 +521,9 @@ public class CharsetDetector {
     
     String      fDeclaredEncoding;
     
+    CharsetRecog_sbcs.NGramParser fNGramParser;  // Reused by the single byte recognizers,
+                                                 //   created on first use.
+    
     
 
     //
@@ -26,7 +26,6 @@ abstract class CharsetRecog_sbcs extends CharsetRecognizer {
 //        private static final int N_GRAM_SIZE = 3;
         private static final int N_GRAM_MASK = 0xFFFFFF;
 
-        private int byteIndex = 0;
         private int ngram = 0;
         
         private int[] ngramList;
@@ -38,6 +37,16 @@ abstract class CharsetRecog_sbcs extends CharsetRecognizer {
         private byte spaceChar;
         
         public NGramParser(int[] theNgramList, byte[] theByteMap)
+        {
+            reset(theNgramList, theByteMap);
+        }
+        
+        /*
+         * Reset this parser so that it can be reused for another n-gram table.
+         * A CharsetDetector keeps one parser and resets it for every single byte
+         * recognizer instead of allocating a new parser per recognizer and language.
+         */
+        void reset(int[] theNgramList, byte[] theByteMap)
         {
             ngramList = theNgramList;
             byteMap   = theByteMap;
@@ -105,27 +114,27 @@ abstract class CharsetRecog_sbcs extends CharsetRecognizer {
             lookup(ngram);
         }
         
-        private int nextByte(CharsetDetector det)
-        {
-            if (byteIndex >= det.fInputLen) {
-                return -1;
-            }
-            
-            return det.fInputBytes[byteIndex++] & 0xFF;
-        }
-        
         public int parse(CharsetDetector det)
         {
             return parse (det, (byte)0x20);
         }
         public int parse(CharsetDetector det, byte spaceCh)
         {
-            int b;
+            return parse(det.fInputBytes, det.fInputLen, spaceCh);
+        }
+        
+        /*
+         * Parse the given input bytes. The input is passed in explicitly rather than
+         * being taken from the detector, so that recognizers which preprocess the
+         * input (IBM420) do not need to modify the shared detector state.
+         */
+        int parse(byte[] input, int inputLen, byte spaceCh)
+        {
             boolean ignoreSpace = false;
             this.spaceChar = spaceCh;
             
-            while ((b = nextByte(det)) >= 0) {
-                byte mb = byteMap[b];
+            for (int byteIndex = 0; byteIndex < inputLen; byteIndex++) {
+                byte mb = byteMap[input[byteIndex] & 0xFF];
                 
                 // TODO: 0x20 might not be a space in all character sets...
                 if (mb != 0) {
@@ -163,8 +172,23 @@ abstract class CharsetRecog_sbcs extends CharsetRecognizer {
     
     int match(CharsetDetector det, int[] ngrams,  byte[] byteMap, byte spaceChar)
     {
-        NGramParser parser = new NGramParser(ngrams, byteMap);
-        return parser.parse(det, spaceChar);
+        return match(det, det.fInputBytes, det.fInputLen, ngrams, byteMap, spaceChar);
+    }
+    
+    /*
+     * Run the n-gram parser over the given input. The parser is owned by the
+     * detector (recognizers are shared between threads and must stay stateless),
+     * and is reused for every n-gram table checked during one detect operation.
+     */
+    int match(CharsetDetector det, byte[] input, int inputLen, int[] ngrams, byte[] byteMap, byte spaceChar)
+    {
+        NGramParser parser = det.fNGramParser;
+        if (parser == null) {
+            parser = det.fNGramParser = new NGramParser(ngrams, byteMap);
+        } else {
+            parser.reset(ngrams, byteMap);
+        }
+        return parser.parse(input, inputLen, spaceChar);
     }
     
     static class NGramsPlusLang {
@@ -1033,8 +1057,6 @@ abstract class CharsetRecog_sbcs extends CharsetRecognizer {
     {
         //arabic shaping class, method shape/unshape
         protected static ArabicShaping as = new ArabicShaping(ArabicShaping.LETTERS_UNSHAPE);
-        protected byte[] prev_fInputBytes = null;
-        protected int prev_fInputLen = 0;
 
         protected static byte[] byteMap = {
 /*                 -0           -1           -2           -3           -4           -5           -6           -7           -8           -9           -A           -B           -C           -D           -E           -F   */
@@ -1080,13 +1102,15 @@ abstract class CharsetRecog_sbcs extends CharsetRecognizer {
         {
             return "ar";
         }
-        protected void matchInit(CharsetDetector det) 
+        /*
+         * Match against the unshaped input. The unshaped bytes are kept local to
+         * this call; recognizers are shared by all detectors and must not hold
+         * per-match state.
+         */
+        protected int matchUnshaped(CharsetDetector det, int[] ngrams)
         {
-            assert prev_fInputBytes == null;
-            prev_fInputBytes = det.fInputBytes;
-            prev_fInputLen = det.fInputLen;
-            det.fInputBytes = unshape(prev_fInputBytes, prev_fInputLen);
-            det.fInputLen = det.fInputBytes.length;
+            byte[] unshaped = unshape(det.fInputBytes, det.fInputLen);
+            return match(det, unshaped, unshaped.length, ngrams, byteMap, (byte)0x40);
         }
         
         /*
@@ -1129,14 +1153,6 @@ abstract class CharsetRecog_sbcs extends CharsetRecognizer {
             return false;
         }
         
-        protected void matchFinish(CharsetDetector det) {
-            if (prev_fInputBytes != null) {
-                det.fInputBytes = prev_fInputBytes;
-                det.fInputLen = prev_fInputLen;
-                prev_fInputBytes = null;
-            }
-        }
-        
     }
     static class CharsetRecog_IBM420_ar_rtl extends CharsetRecog_IBM420_ar 
     {
@@ -1153,9 +1169,7 @@ abstract class CharsetRecog_sbcs extends CharsetRecognizer {
         }
         public CharsetMatch match(CharsetDetector det)
         {
-            matchInit(det);
-            int confidence =  match(det, ngrams, byteMap, (byte)0x40);
-            matchFinish(det);
+            int confidence = matchUnshaped(det, ngrams);
             return confidence == 0 ? null : new CharsetMatch(det, this, confidence);
         }
         
@@ -1175,9 +1189,7 @@ abstract class CharsetRecog_sbcs extends CharsetRecognizer {
         }
         public CharsetMatch match(CharsetDetector det)
         {
-            matchInit(det);
-            int confidence = match(det, ngrams, byteMap, (byte)0x40);
-            matchFinish(det);
+            int confidence = matchUnshaped(det, ngrams);
             return confidence == 0 ? null : new CharsetMatch(det, this, confidence);
         }
         
@@ -0,0 +1,693 @@
+/*
+ *******************************************************************************
+ * Copyright (C) 2013, International Business Machines Corporation and         *
+ * others. All Rights Reserved.                                                *
+ *******************************************************************************
+ */
+package com.ibm.icu.text;
+
+import java.io.IOException;
+import java.text.ChoiceFormat;
+import java.text.Format;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.ibm.icu.text.MessagePattern.ArgType;
+import com.ibm.icu.text.MessagePattern.Part;
+import com.ibm.icu.text.PluralRules.PluralType;
+import com.ibm.icu.util.ULocale;
+
+/**
+ * An immutable, compiled form of a {@link MessageFormat} for formatting only,
+ * created by {@link MessageFormat#compile()}.
+ * <p>
+ * The message pattern is resolved once into a tree of literal text segments,
+ * arguments with their resolved indexes or names and sub-formats, and the
+ * sub-messages of choice, plural and select arguments with their selectors.
+ * Formatting walks this tree and appends directly to any <code>Appendable</code>,
+ * without parsing the pattern again and without creating sub-formats.
+ * <p>
+ * A <code>CompiledMessageFormat</code> can be shared by multiple threads.
+ * It formats exactly like the <code>MessageFormat</code> it was compiled from,
+ * at the time of compilation. Literal text, argument lookup and sub-message
+ * selection do not lock; the sub-formats of the arguments are not thread-safe,
+ * so each of them is locked while it formats an argument.
+ * <p>
+ * Unlike <code>MessageFormat</code>, this class does not support field positions
+ * and parsing.
+ *
+ * @see MessageFormat#compile()
+ * @draft ICU 51
+ * @provisional This API might change or be removed in a future release.
+ */
+public final class CompiledMessageFormat {
+    private final ULocale ulocale;
+    private final boolean hasNamedArguments;
+    private final boolean jdkAposMode;
+    private final Segment[] message;
+
+    // Stock formats, created when they are first needed.
+    // Concurrent initializations create equivalent formats.
+    private volatile NumberFormat stockNumberFormat;
+    private volatile DateFormat stockDateFormat;
+
+    /**
+     * Compiles the message pattern.
+     * @param pattern the parsed pattern
+     * @param formats the formats of the ARG_START part indexes, see MessageFormat.cachedFormatters.
+     *                The formats must not be used elsewhere.
+     * @param locale the locale of the stock formats and plural rules
+     */
+    CompiledMessageFormat(MessagePattern pattern, Map<Integer, Format> formats, ULocale locale) {
+        ulocale = locale;
+        hasNamedArguments = pattern.hasNamedArguments();
+        jdkAposMode = pattern.jdkAposMode();
+        if (formats == null) {
+            formats = new HashMap<Integer, Format>();
+        }
+        message = compileMessage(pattern, 0, formats);
+    }
+
+    /**
+     * Returns the locale of this format.
+     * @return the locale
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public ULocale getULocale() {
+        return ulocale;
+    }
+
+    /**
+     * Returns true if this format uses named arguments, see
+     * {@link MessageFormat#usesNamedArguments()}.
+     * @return true if named arguments are used
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public boolean usesNamedArguments() {
+        return hasNamedArguments;
+    }
+
+    /**
+     * Formats an array of arguments like
+     * {@link MessageFormat#format(Object[], StringBuffer, java.text.FieldPosition)}.
+     * @param arguments the arguments, indexed by argument number
+     * @return the formatted message
+     * @throws IllegalArgumentException if an argument is not of the type expected
+     *         by its argument type or format, or if this format uses named arguments
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public String format(Object[] arguments) {
+        return format(arguments, new StringBuilder()).toString();
+    }
+
+    /**
+     * Formats a map of arguments like
+     * {@link MessageFormat#format(Map, StringBuffer, java.text.FieldPosition)}.
+     * @param arguments the arguments, keyed by argument name or number
+     * @return the formatted message
+     * @throws IllegalArgumentException if an argument is not of the type expected
+     *         by its argument type or format
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public String format(Map<String, Object> arguments) {
+        return format(arguments, new StringBuilder()).toString();
+    }
+
+    /**
+     * Formats an array of arguments and appends the result.
+     * @param arguments the arguments, indexed by argument number
+     * @param dest the destination for the formatted message
+     * @return dest
+     * @throws IllegalArgumentException if an argument is not of the type expected
+     *         by its argument type or format, or if this format uses named arguments
+     * @throws RuntimeException wrapping an IOException thrown by dest
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public <T extends Appendable> T format(Object[] arguments, T dest) {
+        if (arguments != null && hasNamedArguments) {
+            throw new IllegalArgumentException(
+                "This method is not available in MessageFormat objects " +
+                "that use alphanumeric argument names.");
+        }
+        format(arguments, null, dest);
+        return dest;
+    }
+
+    /**
+     * Formats a map of arguments and appends the result.
+     * @param arguments the arguments, keyed by argument name or number
+     * @param dest the destination for the formatted message
+     * @return dest
+     * @throws IllegalArgumentException if an argument is not of the type expected
+     *         by its argument type or format
+     * @throws RuntimeException wrapping an IOException thrown by dest
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public <T extends Appendable> T format(Map<String, Object> arguments, T dest) {
+        format(null, arguments, dest);
+        return dest;
+    }
+
+    /*
+     * Exactly one of args and argsMap should be non-null, like in MessageFormat.
+     * If both are null, all arguments are unavailable.
+     */
+    private void format(Object[] args, Map<String, Object> argsMap, Appendable dest) {
+        try {
+            formatMessage(message, 0, args, argsMap, dest);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void formatMessage(Segment[] msg, double pluralNumber,
+            Object[] args, Map<String, Object> argsMap, Appendable dest) throws IOException {
+        for (Segment segment : msg) {
+            segment.format(pluralNumber, args, argsMap, dest);
+        }
+    }
+
+    private NumberFormat getStockNumberFormat() {
+        NumberFormat nf = stockNumberFormat;
+        if (nf == null) {
+            stockNumberFormat = nf = NumberFormat.getInstance(ulocale);
+        }
+        return nf;
+    }
+
+    private DateFormat getStockDateFormat() {
+        DateFormat df = stockDateFormat;
+        if (df == null) {
+            stockDateFormat = df = DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT, ulocale);
+        }
+        return df;
+    }
+
+    private static String format(Format format, Object arg) {
+        synchronized (format) {
+            return format.format(arg);
+        }
+    }
+
+    private String formatNumber(double number) {
+        NumberFormat nf = getStockNumberFormat();
+        synchronized (nf) {
+            return nf.format(number);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Compilation, following MessageFormat.format() and formatComplexSubMessage()
+    // ------------------------------------------------------------------------
+
+    /*
+     * Compiles the message that starts at the MSG_START part msgStart.
+     */
+    private Segment[] compileMessage(MessagePattern pattern, int msgStart, Map<Integer, Format> formats) {
+        String msgString = pattern.getPatternString();
+        List<Segment> segments = new ArrayList<Segment>();
+        StringBuilder text = new StringBuilder();
+        int prevIndex = pattern.getPart(msgStart).getLimit();
+        for (int i = msgStart + 1;; ++i) {
+            Part part = pattern.getPart(i);
+            Part.Type type = part.getType();
+            text.append(msgString, prevIndex, part.getIndex());
+            if (type == Part.Type.MSG_LIMIT) {
+                break;
+            }
+            prevIndex = part.getLimit();
+            if (type == Part.Type.REPLACE_NUMBER) {
+                addText(segments, text);
+                segments.add(new ReplaceNumber());
+            } else if (type == Part.Type.ARG_START) {
+                addText(segments, text);
+                segments.add(compileArgument(pattern, i, formats));
+                i = pattern.getLimitPartIndex(i);
+                prevIndex = pattern.getPart(i).getLimit();
+            }
+        }
+        addText(segments, text);
+        return segments.toArray(new Segment[segments.size()]);
+    }
+
+    private static void addText(List<Segment> segments, StringBuilder text) {
+        if (text.length() > 0) {
+            segments.add(new Text(text.toString()));
+            text.setLength(0);
+        }
+    }
+
+    private Segment compileArgument(MessagePattern pattern, int argStart, Map<Integer, Format> formats) {
+        ArgType argType = pattern.getPart(argStart).getArgType();
+        Part idPart = pattern.getPart(argStart + 1);
+        int argNumber = idPart.getValue();
+        String argName;
+        if (idPart.getType() == Part.Type.ARG_NAME) {
+            argName = pattern.getSubstring(idPart);
+        } else /* ARG_NUMBER */ {
+            argName = Integer.toString(argNumber);
+        }
+        int i = argStart + 2;
+        Format formatter = formats.get(argStart);
+        if (formatter != null) {
+            // Handles all ArgType.SIMPLE, and formatters from setFormat() and its siblings.
+            if (    formatter instanceof ChoiceFormat ||
+                    formatter instanceof PluralFormat ||
+                    formatter instanceof SelectFormat) {
+                return new CustomComplexArgument(argNumber, argName, formatter);
+            }
+            return new FormatArgument(argNumber, argName, formatter);
+        } else if (argType == ArgType.NONE || formats.containsKey(argStart)) {
+            return new NoneArgument(argNumber, argName);
+        } else if (argType == ArgType.CHOICE) {
+            return compileChoice(argNumber, argName, pattern, i, formats);
+        } else if (argType.hasPluralStyle()) {
+            return compilePlural(argNumber, argName, argType, pattern, i, formats);
+        } else if (argType == ArgType.SELECT) {
+            return compileSelect(argNumber, argName, pattern, i, formats);
+        }
+        // This should never happen.
+        throw new IllegalStateException("unexpected argType " + argType);
+    }
+
+    /*
+     * See MessageFormat.findChoiceSubMessage().
+     */
+    private Segment compileChoice(int argNumber, String argName,
+            MessagePattern pattern, int partIndex, Map<Integer, Format> formats) {
+        int count = pattern.countParts();
+        List<Segment> messages = new ArrayList<Segment>();
+        List<Double> boundaries = new ArrayList<Double>();
+        List<Boolean> lessThan = new ArrayList<Boolean>();
+        // Ignore the first number and selector and start the loop on the first message.
+        partIndex += 2;
+        for (;;) {
+            messages.add(compileSubMessage(pattern, partIndex, formats));
+            partIndex = pattern.getLimitPartIndex(partIndex);
+            if (++partIndex >= count) {
+                break;
+            }
+            Part part = pattern.getPart(partIndex++);
+            if (part.getType() == Part.Type.ARG_LIMIT) {
+                break;
+            }
+            boundaries.add(pattern.getNumericValue(part));
+            int selectorIndex = pattern.getPatternIndex(partIndex++);
+            lessThan.add(pattern.getPatternString().charAt(selectorIndex) == '<');
+        }
+        double[] bounds = new double[boundaries.size()];
+        boolean[] lt = new boolean[bounds.length];
+        for (int j = 0; j < bounds.length; ++j) {
+            bounds[j] = boundaries.get(j);
+            lt[j] = lessThan.get(j);
+        }
+        return new ChoiceArgument(argNumber, argName,
+                messages.toArray(new Segment[messages.size()]), bounds, lt);
+    }
+
+    /*
+     * See PluralFormat.findSubMessage().
+     */
+    private Segment compilePlural(int argNumber, String argName, ArgType argType,
+            MessagePattern pattern, int partIndex, Map<Integer, Format> formats) {
+        int count = pattern.countParts();
+        double offset = pattern.getPluralOffset(partIndex);
+        if (pattern.getPartType(partIndex).hasNumericValue()) {
+            ++partIndex;
+        }
+        List<Double> explicitValues = new ArrayList<Double>();
+        List<Segment> explicitMessages = new ArrayList<Segment>();
+        Map<String, Segment> keywordMessages = new HashMap<String, Segment>();
+        do {
+            Part part = pattern.getPart(partIndex++);
+            if (part.getType() == Part.Type.ARG_LIMIT) {
+                break;
+            }
+            // part is an ARG_SELECTOR followed by an optional explicit value, and then a message
+            if (pattern.getPartType(partIndex).hasNumericValue()) {
+                explicitValues.add(pattern.getNumericValue(pattern.getPart(partIndex++)));
+                explicitMessages.add(compileSubMessage(pattern, partIndex, formats));
+            } else {
+                // The first sub-message of a keyword wins.
+                String keyword = pattern.getSubstring(part);
+                if (!keywordMessages.containsKey(keyword)) {
+                    keywordMessages.put(keyword, compileSubMessage(pattern, partIndex, formats));
+                }
+            }
+            partIndex = pattern.getLimitPartIndex(partIndex);
+        } while (++partIndex < count);
+        double[] values = new double[explicitValues.size()];
+        for (int j = 0; j < values.length; ++j) {
+            values[j] = explicitValues.get(j);
+        }
+        return new PluralArgument(argNumber, argName,
+                argType == ArgType.PLURAL ? PluralType.CARDINAL : PluralType.ORDINAL, offset,
+                values, explicitMessages.toArray(new Segment[values.length]), keywordMessages);
+    }
+
+    /*
+     * See SelectFormat.findSubMessage().
+     */
+    private Segment compileSelect(int argNumber, String argName,
+            MessagePattern pattern, int partIndex, Map<Integer, Format> formats) {
+        int count = pattern.countParts();
+        Map<String, Segment> keywordMessages = new HashMap<String, Segment>();
+        do {
+            Part part = pattern.getPart(partIndex++);
+            if (part.getType() == Part.Type.ARG_LIMIT) {
+                break;
+            }
+            String keyword = pattern.getSubstring(part);
+            if (!keywordMessages.containsKey(keyword)) {
+                keywordMessages.put(keyword, compileSubMessage(pattern, partIndex, formats));
+            }
+            partIndex = pattern.getLimitPartIndex(partIndex);
+        } while (++partIndex < count);
+        return new SelectArgument(argNumber, argName, keywordMessages);
+    }
+
+    /*
+     * Compiles the sub-message of a complex argument,
+     * see MessageFormat.formatComplexSubMessage().
+     */
+    private Segment compileSubMessage(MessagePattern pattern, int msgStart, Map<Integer, Format> formats) {
+        if (!pattern.jdkAposMode()) {
+            return new Message(compileMessage(pattern, msgStart, formats));
+        }
+        // JDK compatibility mode: remove SKIP_SYNTAX, and replace '#' with the number.
+        // If the result contains an open curly brace then it is formatted as a message again.
+        String msgString = pattern.getPatternString();
+        List<String> pieces = new ArrayList<String>();
+        StringBuilder sb = new StringBuilder();
+        int prevIndex = pattern.getPart(msgStart).getLimit();
+        for (int i = msgStart;;) {
+            Part part = pattern.getPart(++i);
+            Part.Type type = part.getType();
+            int index = part.getIndex();
+            sb.append(msgString, prevIndex, index);
+            if (type == Part.Type.MSG_LIMIT) {
+                break;
+            } else if (type == Part.Type.REPLACE_NUMBER || type == Part.Type.SKIP_SYNTAX) {
+                if (type == Part.Type.REPLACE_NUMBER) {
+                    pieces.add(sb.toString());
+                    sb.setLength(0);
+                }
+                prevIndex = part.getLimit();
+            } else if (type == Part.Type.ARG_START) {
+                prevIndex = index;
+                i = pattern.getLimitPartIndex(i);
+                index = pattern.getPart(i).getLimit();
+                MessagePattern.appendReducedApostrophes(msgString, prevIndex, index, sb);
+                prevIndex = index;
+            } else {
+                prevIndex = index;
+            }
+        }
+        pieces.add(sb.toString());
+        if (pieces.size() > 1) {
+            return new JdkNumberSubMessage(pieces.toArray(new String[pieces.size()]));
+        }
+        String subMsgString = pieces.get(0);
+        if (subMsgString.indexOf('{') >= 0) {
+            return new Message(compileDoubleRequired(subMsgString).message);
+        }
+        return new Text(subMsgString);
+    }
+
+    private CompiledMessageFormat compileDoubleRequired(String subMsgString) {
+        MessageFormat subMsgFormat = new MessageFormat("", ulocale);
+        subMsgFormat.applyPattern(subMsgString, MessagePattern.ApostropheMode.DOUBLE_REQUIRED);
+        return subMsgFormat.compile();
+    }
+
+    // ------------------------------------------------------------------------
+    // Compiled segments
+    // ------------------------------------------------------------------------
+
+    private static abstract class Segment {
+        /*
+         * Appends the formatted segment.
+         * @param pluralNumber the number for '#', see MessageFormat.format(int, double, ...)
+         */
+        abstract void format(double pluralNumber, Object[] args, Map<String, Object> argsMap,
+                Appendable dest) throws IOException;
+    }
+
+    private static final class Text extends Segment {
+        private final String text;
+
+        Text(String text) {
+            this.text = text;
+        }
+
+        void format(double pluralNumber, Object[] args, Map<String, Object> argsMap,
+                Appendable dest) throws IOException {
+            dest.append(text);
+        }
+    }
+
+    /* A sub-message of a complex argument. */
+    private static final class Message extends Segment {
+        private final Segment[] segments;
+
+        Message(Segment[] segments) {
+            this.segments = segments;
+        }
+
+        void format(double pluralNumber, Object[] args, Map<String, Object> argsMap,
+                Appendable dest) throws IOException {
+            formatMessage(segments, pluralNumber, args, argsMap, dest);
+        }
+    }
+
+    private final class ReplaceNumber extends Segment {
+        void format(double pluralNumber, Object[] args, Map<String, Object> argsMap,
+                Appendable dest) throws IOException {
+            dest.append(formatNumber(pluralNumber));
+        }
+    }
+
+    /* A JDK-mode sub-message with '#', which is formatted again if it contains a '{'. */
+    private final class JdkNumberSubMessage extends Segment {
+        // The text before, between and after the '#' replacements.
+        private final String[] pieces;
+
+        JdkNumberSubMessage(String[] pieces) {
+            this.pieces = pieces;
+        }
+
+        void format(double pluralNumber, Object[] args, Map<String, Object> argsMap,
+                Appendable dest) throws IOException {
+            String number = formatNumber(pluralNumber);
+            StringBuilder sb = new StringBuilder(pieces[0]);
+            for (int i = 1; i < pieces.length; ++i) {
+                sb.append(number).append(pieces[i]);
+            }
+            if (sb.indexOf("{") >= 0) {
+                formatMessage(compileDoubleRequired(sb.toString()).message, 0, args, argsMap, dest);
+            } else {
+                dest.append(sb);
+            }
+        }
+    }
+
+    /* An argument, resolved to its index in the arguments array, or to its map key. */
+    private static abstract class Argument extends Segment {
+        private final int argNumber;  // only used for numbered arguments
+        private final String argName;
+
+        Argument(int argNumber, String argName) {
+            this.argNumber = argNumber;
+            this.argName = argName;
+        }
+
+        void format(double pluralNumber, Object[] args, Map<String, Object> argsMap,
+                Appendable dest) throws IOException {
+            Object arg;
+            if (args != null) {
+                if (0 <= argNumber && argNumber < args.length) {
+                    arg = args[argNumber];
+                } else {
+                    dest.append('{').append(Integer.toString(argNumber)).append('}');
+                    return;
+                }
+            } else if (argsMap != null && argsMap.containsKey(argName)) {
+                arg = argsMap.get(argName);
+            } else {
+                dest.append('{').append(argName).append('}');
+                return;
+            }
+            if (arg == null) {
+                dest.append("null");
+            } else {
+                formatArgument(arg, args, argsMap, dest);
+            }
+        }
+
+        abstract void formatArgument(Object arg, Object[] args, Map<String, Object> argsMap,
+                Appendable dest) throws IOException;
+    }
+
+    /* An argument without a format, or whose format was set to null. */
+    private final class NoneArgument extends Argument {
+        NoneArgument(int argNumber, String argName) {
+            super(argNumber, argName);
+        }
+
+        void formatArgument(Object arg, Object[] args, Map<String, Object> argsMap,
+                Appendable dest) throws IOException {
+            if (arg instanceof Number) {
+                dest.append(CompiledMessageFormat.format(getStockNumberFormat(), arg));
+            } else if (arg instanceof Date) {
+                dest.append(CompiledMessageFormat.format(getStockDateFormat(), arg));
+            } else {
+                dest.append(arg.toString());
+            }
+        }
+    }
+
+    /* A simple argument, or an argument with a custom format. */
+    private static final class FormatArgument extends Argument {
+        private final Format formatter;
+
+        FormatArgument(int argNumber, String argName, Format formatter) {
+            super(argNumber, argName);
+            this.formatter = formatter;
+        }
+
+        void formatArgument(Object arg, Object[] args, Map<String, Object> argsMap,
+                Appendable dest) throws IOException {
+            dest.append(CompiledMessageFormat.format(formatter, arg));
+        }
+    }
+
+    /* An argument with a custom ChoiceFormat, PluralFormat or SelectFormat. */
+    private final class CustomComplexArgument extends Argument {
+        private final Format formatter;
+
+        CustomComplexArgument(int argNumber, String argName, Format formatter) {
+            super(argNumber, argName);
+            this.formatter = formatter;
+        }
+
+        void formatArgument(Object arg, Object[] args, Map<String, Object> argsMap,
+                Appendable dest) throws IOException {
+            String subMsgString = CompiledMessageFormat.format(formatter, arg);
+            if (subMsgString.indexOf('{') >= 0 ||
+                    (subMsgString.indexOf('\'') >= 0 && !jdkAposMode)) {
+                MessageFormat subMsgFormat = new MessageFormat(subMsgString, ulocale);
+                formatMessage(subMsgFormat.compile().message, 0, args, argsMap, dest);
+            } else {
+                dest.append(subMsgString);
+            }
+        }
+    }
+
+    private static final class ChoiceArgument extends Argument {
+        // messages[j + 1] follows boundaries[j]
+        private final Segment[] messages;
+        private final double[] boundaries;
+        private final boolean[] lessThan;
+
+        ChoiceArgument(int argNumber, String argName,
+                Segment[] messages, double[] boundaries, boolean[] lessThan) {
+            super(argNumber, argName);
+            this.messages = messages;
+            this.boundaries = boundaries;
+            this.lessThan = lessThan;
+        }
+
+        void formatArgument(Object arg, Object[] args, Map<String, Object> argsMap,
+                Appendable dest) throws IOException {
+            if (!(arg instanceof Number)) {
+                throw new IllegalArgumentException("'" + arg + "' is not a Number");
+            }
+            double number = ((Number)arg).doubleValue();
+            int j = 0;
+            // The !(a>b) and !(a>=b) comparisons are equivalent to
+            // (a<=b) and (a<b) except they "catch" NaN.
+            while (j < boundaries.length &&
+                    !(lessThan[j] ? !(number > boundaries[j]) : !(number >= boundaries[j]))) {
+                ++j;
+            }
+            messages[j].format(0, args, argsMap, dest);
+        }
+    }
+
+    private final class PluralArgument extends Argument {
+        private final PluralType type;
+        private final double offset;
+        private final double[] explicitValues;
+        private final Segment[] explicitMessages;
+        private final Map<String, Segment> keywordMessages;
+        private final Segment otherMessage;
+        // Loaded when the first keyword needs to be selected.
+        private volatile PluralRules rules;
+
+        PluralArgument(int argNumber, String argName, PluralType type, double offset,
+                double[] explicitValues, Segment[] explicitMessages, Map<String, Segment> keywordMessages) {
+            super(argNumber, argName);
+            this.type = type;
+            this.offset = offset;
+            this.explicitValues = explicitValues;
+            this.explicitMessages = explicitMessages;
+            this.keywordMessages = keywordMessages;
+            otherMessage = keywordMessages.get(PluralRules.KEYWORD_OTHER);
+        }
+
+        void formatArgument(Object arg, Object[] args, Map<String, Object> argsMap,
+                Appendable dest) throws IOException {
+            if (!(arg instanceof Number)) {
+                throw new IllegalArgumentException("'" + arg + "' is not a Number");
+            }
+            double number = ((Number)arg).doubleValue();
+            Segment msg = null;
+            for (int j = 0; j < explicitValues.length; ++j) {
+                if (number == explicitValues[j]) {
+                    msg = explicitMessages[j];
+                    break;
+                }
+            }
+            if (msg == null && keywordMessages.size() > 1) {
+                PluralRules pr = rules;
+                if (pr == null) {
+                    rules = pr = PluralRules.forLocale(ulocale, type);
+                }
+                msg = keywordMessages.get(pr.select(number - offset));
+            }
+            if (msg == null) {
+                msg = otherMessage;
+            }
+            msg.format(number - offset, args, argsMap, dest);
+        }
+    }
+
+    private static final class SelectArgument extends Argument {
+        private final Map<String, Segment> keywordMessages;
+        private final Segment otherMessage;
+
+        SelectArgument(int argNumber, String argName, Map<String, Segment> keywordMessages) {
+            super(argNumber, argName);
+            this.keywordMessages = keywordMessages;
+            otherMessage = keywordMessages.get("other");
+        }
+
+        void formatArgument(Object arg, Object[] args, Map<String, Object> argsMap,
+                Appendable dest) throws IOException {
+            Segment msg = keywordMessages.get(arg.toString());
+            if (msg == null) {
+                msg = otherMessage;
+            }
+            msg.format(0, args, argsMap, dest);
+        }
+    }
+}
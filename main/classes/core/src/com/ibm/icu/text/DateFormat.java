@@ -1723,7 +1723,7 @@ public abstract class DateFormat extends UFormat {
      * @stable ICU 4.0
      */
     public final static DateFormat getPatternInstance(String skeleton, ULocale locale) {
-        DateTimePatternGenerator generator = DateTimePatternGenerator.getInstance(locale);
+        DateTimePatternGenerator generator = DateTimePatternGenerator.getCachedInstance(locale);
         final String bestPattern = generator.getBestPattern(skeleton);
         return new SimpleDateFormat(bestPattern, locale);
     }
@@ -1753,7 +1753,7 @@ public abstract class DateFormat extends UFormat {
      */
     public final static DateFormat getPatternInstance(
         Calendar cal, String skeleton, ULocale locale) {
-        DateTimePatternGenerator generator = DateTimePatternGenerator.getInstance(locale);
+        DateTimePatternGenerator generator = DateTimePatternGenerator.getCachedInstance(locale);
         final String bestPattern = generator.getBestPattern(skeleton);
         SimpleDateFormat format = new SimpleDateFormat(bestPattern, locale);
         format.setCalendar(cal);
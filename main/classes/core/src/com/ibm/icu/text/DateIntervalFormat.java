@@ -425,7 +425,7 @@ public class DateIntervalFormat extends UFormat {
         getInstance(String skeleton, ULocale locale)  
     {
         DateIntervalInfo dtitvinf = new DateIntervalInfo(locale);
-        DateTimePatternGenerator generator = DateTimePatternGenerator.getInstance(locale);
+        DateTimePatternGenerator generator = DateTimePatternGenerator.getCachedInstance(locale);
         return new DateIntervalFormat(skeleton, dtitvinf, generator, new SimpleDateFormat(generator.getBestPattern(skeleton), locale));
     }
 
@@ -519,7 +519,7 @@ public class DateIntervalFormat extends UFormat {
         // clone. If it is frozen, clone returns itself, otherwise, clone
         // returns a copy.
         dtitvinf = (DateIntervalInfo)dtitvinf.clone(); 
-        DateTimePatternGenerator generator = DateTimePatternGenerator.getInstance(locale);
+        DateTimePatternGenerator generator = DateTimePatternGenerator.getCachedInstance(locale);
         return new DateIntervalFormat(skeleton, dtitvinf, generator, new SimpleDateFormat(generator.getBestPattern(skeleton), locale));
     }
 
@@ -893,7 +893,7 @@ public class DateIntervalFormat extends UFormat {
      * @return             interval patterns' hash map
      */
     private Map<String, PatternInfo> initializeIntervalPattern(String fullPattern, ULocale locale) {
-        DateTimePatternGenerator dtpng = DateTimePatternGenerator.getInstance(locale);
+        DateTimePatternGenerator dtpng = DateTimePatternGenerator.getCachedInstance(locale);
         if ( fSkeleton == null ) {
             // fSkeleton is already set by getDateIntervalInstance()
             // or by getInstance(String skeleton, .... )
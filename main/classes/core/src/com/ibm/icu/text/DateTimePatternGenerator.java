@@ -20,6 +20,7 @@ import java.util.MissingResourceException;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.ibm.icu.impl.ICUCache;
 import com.ibm.icu.impl.ICUResourceBundle;
@@ -123,26 +124,41 @@ public class DateTimePatternGenerator implements Freezable<DateTimePatternGenera
      * @stable ICU 3.6
      */
     public static DateTimePatternGenerator getInstance(ULocale uLocale) {
-        return getFrozenInstance(uLocale).cloneAsThawed();
+        return getCachedInstance(uLocale).cloneAsThawed();
     }
 
     /**
      * Construct a frozen instance of DateTimePatternGenerator for a
      * given locale.  This method returns a cached frozen instance of
      * DateTimePatternGenerator, so less expensive than the regular
-     * factory method.
+     * factory method.  The instance is shared by all callers, and it
+     * caches the results of getBestPattern.
      * @param uLocale The locale to pass.
      * @return A frozen DateTimePatternGenerator.
      * @internal
      * @deprecated This API is ICU internal only.
      */
     public static DateTimePatternGenerator getFrozenInstance(ULocale uLocale) {
+        return getCachedInstance(uLocale);
+    }
+
+    /*
+     * Returns the cached frozen instance for the locale, creating it if necessary.
+     * Used by the date formats, which only read from their generator.
+     */
+    static DateTimePatternGenerator getCachedInstance(ULocale uLocale) {
         String localeKey = uLocale.toString();
         DateTimePatternGenerator result = DTPNG_CACHE.get(localeKey);
-        if (result != null) {
-            return result;
+        if (result == null) {
+            result = createFrozenInstance(uLocale);
+            DTPNG_CACHE.put(localeKey, result);
         }
-        result = new DateTimePatternGenerator();
+        return result;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static DateTimePatternGenerator createFrozenInstance(ULocale uLocale) {
+        DateTimePatternGenerator result = new DateTimePatternGenerator();
         PatternInfo returnInfo = new PatternInfo();
         String shortTimePattern = null;
         // first load with the ICU patterns
@@ -263,9 +279,7 @@ public class DateTimePatternGenerator implements Freezable<DateTimePatternGenera
         DecimalFormatSymbols dfs = new DecimalFormatSymbols(uLocale);
         result.setDecimal(String.valueOf(dfs.getDecimalSeparator()));
 
-        // freeze and cache
         result.freeze();
-        DTPNG_CACHE.put(localeKey, result);
         return result;
     }
 
@@ -413,6 +427,29 @@ public class DateTimePatternGenerator implements Freezable<DateTimePatternGenera
      * getBestPattern which takes optional skip matcher
      */
     private String getBestPattern(String skeleton, DateTimeMatcher skipMatcher, int options) {
+        ConcurrentHashMap<String, String> cache = null;
+        String cacheKey = null;
+        if (skipMatcher == null) {
+            // The results of a frozen instance never change
+            cache = bestPatternCache;
+            if (cache != null) {
+                cacheKey = (options == MATCH_NO_OPTIONS) ? skeleton : skeleton + '\uFFFF' + options;
+                String pattern = cache.get(cacheKey);
+                if (pattern != null) {
+                    return pattern;
+                }
+            }
+        }
+        // A frozen instance is shared, so use a working copy instead of locking it
+        DateTimePatternGenerator generator = frozen ? workingCopy() : this;
+        String pattern = generator.getBestPatternImpl(skeleton, skipMatcher, options);
+        if (cache != null && cache.size() < MAX_CACHED_BEST_PATTERNS) {
+            cache.putIfAbsent(cacheKey, pattern);
+        }
+        return pattern;
+    }
+
+    private String getBestPatternImpl(String skeleton, DateTimeMatcher skipMatcher, int options) {
         //if (!isComplete) complete();
         // if skeleton contains meta hour field 'j', then
         // replace it with the default hour format char
@@ -1047,7 +1084,10 @@ public class DateTimePatternGenerator implements Freezable<DateTimePatternGenera
      * @stable ICU 4.4
      */
     public DateTimePatternGenerator freeze() {
-        frozen = true;
+        if (!frozen) {
+            bestPatternCache = new ConcurrentHashMap<String, String>();
+            frozen = true;
+        }
         return this;
     }
 
@@ -1056,9 +1096,7 @@ public class DateTimePatternGenerator implements Freezable<DateTimePatternGenera
      * @stable ICU 4.4
      */
     public DateTimePatternGenerator cloneAsThawed() {
-        DateTimePatternGenerator result = (DateTimePatternGenerator) (this.clone());
-        frozen = false;
-        return result;
+        return (DateTimePatternGenerator) (this.clone());
     }
 
     /**
@@ -1078,6 +1116,25 @@ public class DateTimePatternGenerator implements Freezable<DateTimePatternGenera
             result._distanceInfo = new DistanceInfo();
 
             result.frozen = false;
+            result.bestPatternCache = null;
+            return result;
+        } catch (CloneNotSupportedException e) {
+            ///CLOVER:OFF
+            throw new IllegalArgumentException("Internal Error");
+            ///CLOVER:ON
+        }
+    }
+
+    /*
+     * Returns a shallow copy of this frozen generator with its own working objects.
+     * The pattern maps are shared, since they are not modified while frozen.
+     */
+    private DateTimePatternGenerator workingCopy() {
+        try {
+            DateTimePatternGenerator result = (DateTimePatternGenerator) (super.clone());
+            result.current = new DateTimeMatcher();
+            result.fp = new FormatParser();
+            result._distanceInfo = new DistanceInfo();
             return result;
         } catch (CloneNotSupportedException e) {
             ///CLOVER:OFF
@@ -1576,6 +1633,11 @@ public class DateTimePatternGenerator implements Freezable<DateTimePatternGenera
     private static final int FRACTIONAL_MASK = 1<<FRACTIONAL_SECOND;
     private static final int SECOND_AND_FRACTIONAL_MASK = (1<<SECOND) | (1<<FRACTIONAL_SECOND);
 
+    // Results of getBestPattern by skeleton and options, only while frozen
+    private transient volatile ConcurrentHashMap<String, String> bestPatternCache;
+    // Bound on the number of cached results, in case of many distinct skeletons
+    private static final int MAX_CACHED_BEST_PATTERNS = 1000;
+
     // Cache for DateTimePatternGenerator
     private static ICUCache<String, DateTimePatternGenerator> DTPNG_CACHE = new SimpleCache<String, DateTimePatternGenerator>();
 
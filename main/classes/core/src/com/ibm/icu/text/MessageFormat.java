@@ -1,6 +1,6 @@
 /*
 **********************************************************************
-* Copyright (c) 2004-2012, International Business Machines
+* Copyright (c) 2004-2013, International Business Machines
 * Corporation and others.  All Rights Reserved.
 **********************************************************************
 * Author: Alan Liu
@@ -32,6 +32,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
+import com.ibm.icu.impl.MessagePatternCache;
 import com.ibm.icu.impl.PatternProps;
 import com.ibm.icu.impl.Utility;
 import com.ibm.icu.text.MessagePattern.ArgType;
@@ -447,9 +448,14 @@ public class MessageFormat extends UFormat {
      */
     public void applyPattern(String pttrn) {
         try {
-            if (msgPattern == null) {
-                msgPattern = new MessagePattern(pttrn);
+            MessagePattern.ApostropheMode aposMode = getApostropheMode();
+            MessagePattern cached = MessagePatternCache.getMessage(pttrn, aposMode);
+            if (cached != null) {
+                msgPattern = cached;
             } else {
+                if (msgPattern.isFrozen()) {
+                    msgPattern = new MessagePattern(aposMode);
+                }
                 msgPattern.parse(pttrn);
             }
             // Cache the formats that are explicitly mentioned in the message pattern.
@@ -479,7 +485,11 @@ public class MessageFormat extends UFormat {
         if (msgPattern == null) {
             msgPattern = new MessagePattern(aposMode);
         } else if (aposMode != msgPattern.getApostropheMode()) {
-            msgPattern.clearPatternAndSetApostropheMode(aposMode);
+            if (msgPattern.isFrozen()) {
+                msgPattern = new MessagePattern(aposMode);
+            } else {
+                msgPattern.clearPatternAndSetApostropheMode(aposMode);
+            }
         }
         applyPattern(pattern);
     }
@@ -1025,6 +1035,28 @@ public class MessageFormat extends UFormat {
         return msgPattern.hasNamedArguments();
     }
 
+    /**
+     * {@icu} Returns an immutable, compiled form of this MessageFormat for formatting.
+     * The pattern and the current formats are resolved once, and the result can be
+     * shared by multiple threads instead of cloning this MessageFormat.
+     * Later changes to this MessageFormat do not affect the compiled form.
+     *
+     * @return the compiled form of this MessageFormat
+     * @see CompiledMessageFormat
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public CompiledMessageFormat compile() {
+        Map<Integer, Format> formats = new HashMap<Integer, Format>();
+        if (cachedFormatters != null) {
+            for (Map.Entry<Integer, Format> entry : cachedFormatters.entrySet()) {
+                Format format = entry.getValue();
+                formats.put(entry.getKey(), format == null ? null : (Format) format.clone());
+            }
+        }
+        return new CompiledMessageFormat(msgPattern, formats, ulocale);
+    }
+
     // Overrides
     /**
      * Formats a map or array of objects and appends the <code>MessageFormat</code>'s
@@ -1996,7 +2028,12 @@ public class MessageFormat extends UFormat {
 
     private void resetPattern() {
         if (msgPattern != null) {
-            msgPattern.clear();
+            if (msgPattern.isFrozen()) {
+                // shared with MessagePatternCache
+                msgPattern = new MessagePattern(msgPattern.getApostropheMode());
+            } else {
+                msgPattern.clear();
+            }
         }
         if (cachedFormatters != null) {
             cachedFormatters.clear();
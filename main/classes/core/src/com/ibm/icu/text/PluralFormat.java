@@ -1,6 +1,6 @@
 /*
  *******************************************************************************
- * Copyright (C) 2007-2012, International Business Machines Corporation and
+ * Copyright (C) 2007-2013, International Business Machines Corporation and
  * others. All Rights Reserved.
  *******************************************************************************
  */
@@ -13,6 +13,7 @@ import java.text.FieldPosition;
 import java.text.ParsePosition;
 import java.util.Map;
 
+import com.ibm.icu.impl.MessagePatternCache;
 import com.ibm.icu.impl.Utility;
 import com.ibm.icu.text.PluralRules.PluralType;
 import com.ibm.icu.util.ULocale;
@@ -341,7 +342,12 @@ public class PluralFormat extends UFormat {
     private void resetPattern() {
         pattern = null;
         if(msgPattern != null) {
-            msgPattern.clear();
+            if (msgPattern.isFrozen()) {
+                // shared with MessagePatternCache
+                msgPattern = new MessagePattern();
+            } else {
+                msgPattern.clear();
+            }
         }
         offset = 0;
     }
@@ -358,11 +364,16 @@ public class PluralFormat extends UFormat {
      */
     public void applyPattern(String pattern) {
         this.pattern = pattern;
-        if (msgPattern == null) {
-            msgPattern = new MessagePattern();
-        }
         try {
-            msgPattern.parsePluralStyle(pattern);
+            MessagePattern cached = MessagePatternCache.getPluralStyle(pattern);
+            if (cached != null) {
+                msgPattern = cached;
+            } else {
+                if (msgPattern == null || msgPattern.isFrozen()) {
+                    msgPattern = new MessagePattern();
+                }
+                msgPattern.parsePluralStyle(pattern);
+            }
             offset = msgPattern.getPluralOffset(0);
         } catch(RuntimeException e) {
             resetPattern();
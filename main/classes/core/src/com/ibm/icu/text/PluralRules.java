@@ -37,8 +37,9 @@ import com.ibm.icu.util.ULocale;
  * first condition that matches the number.  If none match,
  * {@link #KEYWORD_OTHER} is returned.</p>
  *
- * <p>A PluralRules object is immutable.
- * It contains caches for sample values, but those are synchronized.
+ * <p>A PluralRules object is immutable and can be shared by multiple threads.
+ * It contains lazily computed caches for sample values and for the keywords of
+ * small integers, but those are safe to use concurrently.
  *
  * <p>PluralRules is Serializable so that it can be used in formatters, which are
  * serializable.
@@ -106,8 +107,9 @@ public class PluralRules implements Serializable {
     private final Set<String> keywords;
     private int repeatLimit; // for equality test
     private transient int hashCode;
-    private transient Map<String, List<Double>> _keySamplesMap;
-    private transient Map<String, Boolean> _keyLimitedMap;
+    private transient volatile Map<String, List<Double>> _keySamplesMap;
+    private transient volatile Map<String, Boolean> _keyLimitedMap;
+    private transient volatile IntegerSelector _integerSelector;
 
     // Standard keywords.
 
@@ -197,6 +199,10 @@ public class PluralRules implements Serializable {
         public int updateRepeatLimit(int limit) {
             return limit;
         }
+
+        public long updatePeriod(long period) {
+            return period;
+        }
     };
 
     /*
@@ -224,6 +230,10 @@ public class PluralRules implements Serializable {
         public int updateRepeatLimit(int limit) {
             return limit;
         }
+
+        public long updatePeriod(long period) {
+            return period;
+        }
     };
 
     /**
@@ -292,6 +302,16 @@ public class PluralRules implements Serializable {
          * @return the new limit
          */
         int updateRepeatLimit(int limit);
+
+        /*
+         * Returns the least common multiple of period and the moduli used by
+         * this constraint. For integers beyond the repeat limit, the result of
+         * the constraint repeats with this period.
+         *
+         * @param period the target period, > 0
+         * @return the new period, or -1 if it overflows
+         */
+        long updatePeriod(long period);
     }
 
     /*
@@ -309,6 +329,9 @@ public class PluralRules implements Serializable {
 
         /* Returns the larger of limit and this rule's limit. */
         int updateRepeatLimit(int limit);
+
+        /* Returns the least common multiple of period and this rule's period. */
+        long updatePeriod(long period);
     }
 
     /*
@@ -324,6 +347,9 @@ public class PluralRules implements Serializable {
         /* Return the value at which this rulelist starts repeating. */
         int getRepeatLimit();
 
+        /* Return the period with which integers beyond the repeat limit repeat, or -1. */
+        long getPeriod();
+
         /* Return true if the values for this keyword are limited. */
         boolean isLimited(String keyword);
 
@@ -583,6 +609,21 @@ public class PluralRules implements Serializable {
             return Math.max(mylimit, limit);
         }
 
+        public long updatePeriod(long period) {
+            if (mod <= 1 || period < 0) {
+                return period;
+            }
+            long a = period;
+            long b = mod;
+            while (b != 0) {
+                long t = a % b;
+                a = b;
+                b = t;
+            }
+            long lcm = (period / a) * mod;
+            return lcm > Integer.MAX_VALUE ? -1 : lcm;
+        }
+
         public String toString() {
             class ListBuilder {
                 StringBuilder sb = new StringBuilder("[");
@@ -647,6 +688,10 @@ public class PluralRules implements Serializable {
             return a.updateRepeatLimit(b.updateRepeatLimit(limit));
         }
 
+        public long updatePeriod(long period) {
+            return a.updatePeriod(b.updatePeriod(period));
+        }
+
         public String toString() {
             return a.toString() + conjunction + b.toString();
         }
@@ -724,6 +769,10 @@ public class PluralRules implements Serializable {
             return constraint.updateRepeatLimit(limit);
         }
 
+        public long updatePeriod(long period) {
+            return constraint.updatePeriod(period);
+        }
+
         public boolean isLimited() {
             return constraint.isLimited();
         }
@@ -813,6 +862,16 @@ public class PluralRules implements Serializable {
             return result;
         }
 
+        public long getPeriod() {
+            long result = 1;
+            RuleChain rc = this;
+            while (rc != null) {
+                result = rc.rule.updatePeriod(result);
+                rc = rc.next;
+            }
+            return result;
+        }
+
         public String toString() {
             String s = rule.toString();
             if (next != null) {
@@ -898,9 +957,80 @@ public class PluralRules implements Serializable {
      * @stable ICU 4.0
      */
     public String select(double number) {
+        if (number >= 0 && number <= MAX_EXACT_INTEGER && number == (long)number) {
+            return select((long)number);
+        }
         return rules.select(number);
     }
 
+    /**
+     * Given an integer, returns the keyword of the first rule that applies to
+     * the integer. This is equivalent to <code>select((double)number)</code>,
+     * but it does not evaluate the rules for each call: the keywords of small
+     * integers are looked up in a precomputed table, and larger integers are
+     * mapped onto that table using the moduli in the rules.
+     *
+     * @param number The integer for which the rule has to be determined.
+     * @return The keyword of the selected rule.
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public String select(long number) {
+        if (number < 0) {
+            return rules.select(number);
+        }
+        IntegerSelector selector = _integerSelector;
+        if (selector == null) {
+            selector = _integerSelector = new IntegerSelector(rules, getRepeatLimit());
+        }
+        return selector.select(number, rules);
+    }
+
+    // The largest integer up to which all integers are exact doubles, 2^53.
+    private static final double MAX_EXACT_INTEGER = 9007199254740992.0;
+
+    /*
+     * Precomputed keywords of the non-negative integers.
+     *
+     * All rules compare either n or n modulo some values with integer ranges.
+     * Beyond the largest range bound that is not used with a modulus, the
+     * result of the rules for an integer n only depends on n modulo the least
+     * common multiple of all moduli, the period. Therefore the keywords of the
+     * integers from 0 to the repeat limit plus one period are enough to look up
+     * the keyword of any integer. Immutable.
+     */
+    private static final class IntegerSelector {
+        // Don't precompute keywords for rules with unusually large bounds or moduli.
+        private static final int MAX_TABLE_SIZE = 1000;
+
+        private final long threshold;
+        private final long period;
+        private final String[] keywords;
+
+        IntegerSelector(RuleList rules, int repeatLimit) {
+            threshold = repeatLimit;
+            period = rules.getPeriod();
+            if (period > 0 && threshold + period <= MAX_TABLE_SIZE) {
+                keywords = new String[(int)(threshold + period)];
+                for (int i = 0; i < keywords.length; ++i) {
+                    keywords[i] = rules.select(i);
+                }
+            } else {
+                keywords = null;
+            }
+        }
+
+        String select(long n, RuleList rules) {
+            if (n >= threshold && period > 0) {
+                n = threshold + (n - threshold) % period;
+            }
+            if (keywords != null && n < keywords.length) {
+                return keywords[(int)n];
+            }
+            return rules.select(n);
+        }
+    }
+
     /**
      * Returns a set of all rule keywords used in this <code>PluralRules</code>
      * object.  The rule "other" is always present by default.
@@ -984,8 +1114,10 @@ public class PluralRules implements Serializable {
         return _keySamplesMap;
     }
 
-    private synchronized void initKeyMaps() {
+    private void initKeyMaps() {
         // ensure both _keySamplesMap and _keyLimitedMap are initialized.
+        // Concurrent initializations compute the same maps, _keySamplesMap is
+        // published last, so that _keyLimitedMap is visible once it is set.
         if (_keySamplesMap == null) {
             // If this were allowed to vary on a per-call basis, we'd have to recheck and
             // possibly rebuild the samples cache.  Doesn't seem worth it.
@@ -1006,7 +1138,7 @@ public class PluralRules implements Serializable {
             for (int i = 0; keywordsRemaining > 0 && i < limit; ++i) {
                 double val = i / 2.0;
                 String keyword = select(val);
-                boolean keyIsLimited = _keyLimitedMap.get(keyword);
+                boolean keyIsLimited = temp.get(keyword);
 
                 List<Double> list = sampleMap.get(keyword);
                 if (list == null) {
@@ -1,6 +1,6 @@
 /*
  *******************************************************************************
- * Copyright (C) 2004-2011, International Business Machines Corporation and    *
+ * Copyright (C) 2004-2013, International Business Machines Corporation and    *
  * others. All Rights Reserved.                                                *
  * Copyright (C) 2009 , Yahoo! Inc.                                            *
  *******************************************************************************
@@ -13,6 +13,7 @@ import java.text.FieldPosition;
 import java.text.Format;
 import java.text.ParsePosition;
 
+import com.ibm.icu.impl.MessagePatternCache;
 import com.ibm.icu.impl.PatternProps;
 
 /**
@@ -177,7 +178,12 @@ public class SelectFormat extends Format{
     private void reset() {
         pattern = null;
         if(msgPattern != null) {
-            msgPattern.clear();
+            if (msgPattern.isFrozen()) {
+                // shared with MessagePatternCache
+                msgPattern = new MessagePattern();
+            } else {
+                msgPattern.clear();
+            }
         }
     }
 
@@ -191,11 +197,16 @@ public class SelectFormat extends Format{
      */
     public void applyPattern(String pattern) {
         this.pattern = pattern;
-        if (msgPattern == null) {
-            msgPattern = new MessagePattern();
-        }
         try {
-            msgPattern.parseSelectStyle(pattern);
+            MessagePattern cached = MessagePatternCache.getSelectStyle(pattern);
+            if (cached != null) {
+                msgPattern = cached;
+            } else {
+                if (msgPattern == null || msgPattern.isFrozen()) {
+                    msgPattern = new MessagePattern();
+                }
+                msgPattern.parseSelectStyle(pattern);
+            }
         } catch(RuntimeException e) {
             reset();
             throw e;
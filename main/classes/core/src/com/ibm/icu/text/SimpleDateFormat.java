@@ -24,6 +24,7 @@ import java.util.MissingResourceException;
 
 import com.ibm.icu.impl.CalendarData;
 import com.ibm.icu.impl.DateNumberFormat;
+import com.ibm.icu.impl.Grego;
 import com.ibm.icu.impl.ICUCache;
 import com.ibm.icu.impl.PatternProps;
 import com.ibm.icu.impl.SimpleCache;
@@ -793,6 +794,189 @@ public class SimpleDateFormat extends DateFormat {
 
     }
 
+    // Kinds of pattern items for formatting a sequence of times
+    private static final int ITEM_TEXT = 0;     // literal text
+    private static final int ITEM_TIME = 1;     // depends only on the time of day
+    private static final int ITEM_DAY = 2;      // depends only on the date and the zone offsets
+    private static final int ITEM_OTHER = 3;    // formatted with the calendar for each time
+
+    /**
+     * Formats a sequence of times with this format, appending the formatted
+     * times one after another to a single buffer, and recording where each of
+     * them starts. This produces the same text as formatting each time with
+     * {@link DateFormat#format(Date)}, but it is much faster for large numbers
+     * of times, because no intermediate strings are created, and because the
+     * date and time zone offset fields are computed only once for consecutive
+     * times on the same day with the same zone offsets. Time fields such as
+     * hours and minutes are computed directly from the time of day.
+     * Time zone names ('z', 'v' and 'V') are formatted for each time.
+     * <p>
+     * The text of <code>times[start + i]</code> is in <code>toAppendTo</code>
+     * from <code>offsets[i]</code> to <code>offsets[i + 1]</code>.
+     *
+     * @param times the times in milliseconds since 1970-01-01T00:00:00Z, in any order
+     * @param start the index of the first time to format
+     * @param count the number of times to format
+     * @param toAppendTo the buffer that the formatted times are appended to
+     * @param offsets the array for the indexes in <code>toAppendTo</code> where
+     * each formatted time starts, followed by the end of the last one, or null.
+     * A new array is allocated if this is null or shorter than <code>count + 1</code>.
+     * @return the offsets array
+     * @throws IndexOutOfBoundsException if <code>start</code> or <code>count</code>
+     * is negative, or <code>start + count</code> is greater than the length of
+     * <code>times</code>
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    @SuppressWarnings("fallthrough")
+    public int[] format(long[] times, int start, int count, StringBuffer toAppendTo, int[] offsets) {
+        if (start < 0 || count < 0 || start > times.length - count) {
+            throw new IndexOutOfBoundsException("start=" + start + ", count=" + count
+                    + ", length=" + times.length);
+        }
+        if (offsets == null || offsets.length < count + 1) {
+            offsets = new int[count + 1];
+        }
+
+        Object[] items = getPatternItems();
+        // Subclasses may override subFormat, so they get a subFormat call for each field
+        boolean optimize = getClass() == SimpleDateFormat.class;
+        int[] kinds = new int[items.length];
+        for (int i = 0; i < items.length; i++) {
+            if (items[i] instanceof String) {
+                kinds[i] = ITEM_TEXT;
+            } else if (optimize) {
+                PatternItem item = (PatternItem)items[i];
+                switch (item.type) {
+                case 'H': case 'k': case 'h': case 'K': case 'm': case 's': case 'S': case 'A':
+                    kinds[i] = ITEM_TIME;
+                    break;
+                case 'a':
+                    // The first field may be capitalized by subFormat
+                    kinds[i] = (i == 0 && capitalizationSetting != DisplayContext.CAPITALIZATION_NONE) ?
+                            ITEM_OTHER : ITEM_TIME;
+                    break;
+                case 'z': case 'v': case 'V':
+                    kinds[i] = ITEM_OTHER;
+                    break;
+                default:
+                    kinds[i] = ITEM_DAY;
+                    break;
+                }
+            } else {
+                kinds[i] = ITEM_OTHER;
+            }
+        }
+
+        TimeZone tz = calendar.getTimeZone();
+        FieldPosition pos = new FieldPosition(-1);
+        int[] zoneOffsets = new int[2];
+        String[] dayTexts = new String[items.length];
+        long prevDay = 0;
+        int prevRawOffset = 0;
+        int prevDstOffset = 0;
+        boolean havePrev = false;
+
+        for (int n = 0; n < count; n++) {
+            long time = times[start + n];
+            offsets[n] = toAppendTo.length();
+
+            tz.getOffset(time, false, zoneOffsets);
+            long local = time + zoneOffsets[0] + zoneOffsets[1];
+            long day = Grego.floorDivide(local, Grego.MILLIS_PER_DAY);
+            int millisInDay = (int)(local - day * Grego.MILLIS_PER_DAY);
+            boolean sameDay = havePrev && day == prevDay
+                    && zoneOffsets[0] == prevRawOffset && zoneOffsets[1] == prevDstOffset;
+            boolean calendarSet = false;
+
+            for (int i = 0; i < items.length; i++) {
+                switch (kinds[i]) {
+                case ITEM_TEXT:
+                    toAppendTo.append((String)items[i]);
+                    break;
+                case ITEM_TIME:
+                    formatTimeField(toAppendTo, (PatternItem)items[i], millisInDay);
+                    break;
+                case ITEM_DAY:
+                    if (sameDay) {
+                        toAppendTo.append(dayTexts[i]);
+                        break;
+                    }
+                    // fall through
+                default:
+                    if (!calendarSet) {
+                        calendar.setTimeInMillis(time);
+                        calendarSet = true;
+                    }
+                    int itemStart = toAppendTo.length();
+                    PatternItem item = (PatternItem)items[i];
+                    if (useFastFormat) {
+                        subFormat(toAppendTo, item.type, item.length, itemStart,
+                                  i, capitalizationSetting, pos, calendar);
+                    } else {
+                        toAppendTo.append(subFormat(item.type, item.length, itemStart,
+                                                    i, capitalizationSetting, pos, calendar));
+                    }
+                    if (kinds[i] == ITEM_DAY) {
+                        dayTexts[i] = toAppendTo.substring(itemStart);
+                    }
+                    break;
+                }
+            }
+
+            havePrev = true;
+            prevDay = day;
+            prevRawOffset = zoneOffsets[0];
+            prevDstOffset = zoneOffsets[1];
+        }
+        offsets[count] = toAppendTo.length();
+        return offsets;
+    }
+
+    /*
+     * Formats a time of day field like subFormat, from the milliseconds in the day.
+     */
+    private void formatTimeField(StringBuffer buf, PatternItem item, int millisInDay) {
+        int hourOfDay = millisInDay / Grego.MILLIS_PER_HOUR;
+        int value;
+        switch (item.type) {
+        case 'H':
+            value = hourOfDay;
+            break;
+        case 'k':
+            value = (hourOfDay == 0) ? calendar.getMaximum(Calendar.HOUR_OF_DAY) + 1 : hourOfDay;
+            break;
+        case 'h':
+            value = hourOfDay % 12;
+            if (value == 0) {
+                value = calendar.getLeastMaximum(Calendar.HOUR) + 1;
+            }
+            break;
+        case 'K':
+            value = hourOfDay % 12;
+            break;
+        case 'm':
+            value = (millisInDay / Grego.MILLIS_PER_MINUTE) % 60;
+            break;
+        case 's':
+            value = (millisInDay / Grego.MILLIS_PER_SECOND) % 60;
+            break;
+        case 'S':
+            formatFractionalSecond(buf, millisInDay % Grego.MILLIS_PER_SECOND, item.length);
+            return;
+        case 'A':
+            value = millisInDay;
+            break;
+        case 'a':
+            safeAppend(formatData.ampms, hourOfDay / 12, buf);
+            return;
+        default:
+            // never occur
+            throw new IllegalArgumentException("Not a time field: " + item.type);
+        }
+        zeroPaddingNumber(getNumberFormat(item.type), buf, value, item.length, Integer.MAX_VALUE);
+    }
+
     // Map pattern character to index
     private static final int PATTERN_CHAR_BASE = 0x40;
     private static final int[] PATTERN_CHAR_TO_INDEX =
@@ -1064,22 +1248,7 @@ public class SimpleDateFormat extends DateFormat {
             }
             break;
         case 8: // 'S' - FRACTIONAL_SECOND
-            // Fractional seconds left-justify
-            {
-                numberFormat.setMinimumIntegerDigits(Math.min(3, count));
-                numberFormat.setMaximumIntegerDigits(maxIntCount);
-                if (count == 1) {
-                    value /= 100;
-                } else if (count == 2) {
-                    value /= 10;
-                }
-                FieldPosition p = new FieldPosition(-1);
-                numberFormat.format((long) value, buf, p);
-                if (count > 3) {
-                    numberFormat.setMinimumIntegerDigits(count - 3);
-                    numberFormat.format(0L, buf, p);
-                }
-            }
+            formatFractionalSecond(buf, value, count);
             break;
         case 19: // 'e' - DOW_LOCAL (use DOW_LOCAL for numeric, DAY_OF_WEEK for format names)
             if (count < 3) {
@@ -1260,6 +1429,23 @@ public class SimpleDateFormat extends DateFormat {
         }
     }
 
+    private void formatFractionalSecond(StringBuffer buf, int value, int count) {
+        // Fractional seconds left-justify
+        numberFormat.setMinimumIntegerDigits(Math.min(3, count));
+        numberFormat.setMaximumIntegerDigits(Integer.MAX_VALUE);
+        if (count == 1) {
+            value /= 100;
+        } else if (count == 2) {
+            value /= 10;
+        }
+        FieldPosition p = new FieldPosition(-1);
+        numberFormat.format((long) value, buf, p);
+        if (count > 3) {
+            numberFormat.setMinimumIntegerDigits(count - 3);
+            numberFormat.format(0L, buf, p);
+        }
+    }
+
     private static void safeAppend(String[] array, int value, StringBuffer appendTo) {
         if (array != null && value >= 0 && value < array.length) {
             appendTo.append(array[value]);
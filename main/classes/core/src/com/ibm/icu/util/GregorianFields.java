@@ -0,0 +1,240 @@
+/*
+ *******************************************************************************
+ * Copyright (C) 2013, International Business Machines Corporation and         *
+ * others. All Rights Reserved.                                                *
+ *******************************************************************************
+ */
+package com.ibm.icu.util;
+
+import com.ibm.icu.impl.Grego;
+
+/**
+ * Converts between epoch milliseconds and the proleptic Gregorian date and time
+ * fields in a time zone, without a <code>Calendar</code>.
+ * <p>
+ * The fields are stored in a caller-supplied <code>int</code> array, indexed by
+ * the constants of this class, so that converting a time allocates no objects.
+ * The values of the fields are the same as the values of the corresponding
+ * <code>Calendar</code> fields, except that <code>YEAR</code> is the extended
+ * year (0 for 1 BC, -1 for 2 BC and so on), and that all dates are in the
+ * proleptic Gregorian calendar, without the Julian calendar before the
+ * Gregorian cutover used by <code>GregorianCalendar</code>.
+ * <p>
+ * Instances are immutable and can be shared by multiple threads. For example:
+ * <pre>
+ * GregorianFields gf = new GregorianFields(TimeZone.getTimeZone("America/New_York"));
+ * int[] fields = new int[GregorianFields.FIELD_COUNT];
+ * for (long t : timestamps) {
+ *     gf.toFields(t, fields);
+ *     hourlyCounts[fields[GregorianFields.HOUR_OF_DAY]]++;
+ * }
+ * </pre>
+ *
+ * @draft ICU 51
+ * @provisional This API might change or be removed in a future release.
+ */
+public final class GregorianFields {
+
+    /**
+     * Field index of the extended year.
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static final int YEAR = 0;
+
+    /**
+     * Field index of the month, 0-based like {@link Calendar#MONTH}.
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static final int MONTH = 1;
+
+    /**
+     * Field index of the day of the month, starting with 1.
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static final int DAY_OF_MONTH = 2;
+
+    /**
+     * Field index of the day of the week, from {@link Calendar#SUNDAY} to
+     * {@link Calendar#SATURDAY}.
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static final int DAY_OF_WEEK = 3;
+
+    /**
+     * Field index of the day of the year, starting with 1.
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static final int DAY_OF_YEAR = 4;
+
+    /**
+     * Field index of the milliseconds in the day.
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static final int MILLISECONDS_IN_DAY = 5;
+
+    /**
+     * Field index of the hour of the day, from 0 to 23.
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static final int HOUR_OF_DAY = 6;
+
+    /**
+     * Field index of the minute.
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static final int MINUTE = 7;
+
+    /**
+     * Field index of the second.
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static final int SECOND = 8;
+
+    /**
+     * Field index of the millisecond.
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static final int MILLISECOND = 9;
+
+    /**
+     * Field index of the raw offset of the time zone in milliseconds.
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static final int ZONE_OFFSET = 10;
+
+    /**
+     * Field index of the daylight saving offset in milliseconds.
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static final int DST_OFFSET = 11;
+
+    /**
+     * The number of fields, the minimum length of a fields array.
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public static final int FIELD_COUNT = 12;
+
+    private final TimeZone zone;
+
+    /**
+     * Constructs an instance for the time zone. A frozen time zone is used as is,
+     * otherwise a frozen copy of the time zone is used.
+     * @param zone the time zone
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public GregorianFields(TimeZone zone) {
+        if (zone == null) {
+            throw new NullPointerException("zone is null");
+        }
+        this.zone = zone.isFrozen() ? zone : zone.cloneAsThawed().freeze();
+    }
+
+    /**
+     * Returns the time zone of this instance.
+     * @return the frozen time zone
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public TimeZone getTimeZone() {
+        return zone;
+    }
+
+    /**
+     * Computes the fields of a time in this time zone.
+     * @param millis the time in milliseconds since 1970-01-01T00:00:00Z
+     * @param fields the array for the fields, or null. A new array is allocated
+     * if this is null or shorter than {@link #FIELD_COUNT}.
+     * @return the fields array
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public int[] toFields(long millis, int[] fields) {
+        if (fields == null || fields.length < FIELD_COUNT) {
+            fields = new int[FIELD_COUNT];
+        }
+        // The first two fields are overwritten below, use them for the offsets
+        zone.getOffset(millis, false, fields);
+        int rawOffset = fields[0];
+        int dstOffset = fields[1];
+
+        Grego.timeToFields(millis + rawOffset + dstOffset, fields);
+        int millisInDay = fields[MILLISECONDS_IN_DAY];
+        fields[HOUR_OF_DAY] = millisInDay / Grego.MILLIS_PER_HOUR;
+        fields[MINUTE] = (millisInDay / Grego.MILLIS_PER_MINUTE) % 60;
+        fields[SECOND] = (millisInDay / Grego.MILLIS_PER_SECOND) % 60;
+        fields[MILLISECOND] = millisInDay % Grego.MILLIS_PER_SECOND;
+        fields[ZONE_OFFSET] = rawOffset;
+        fields[DST_OFFSET] = dstOffset;
+        return fields;
+    }
+
+    /**
+     * Computes the time of the local date and time given by the <code>YEAR</code>,
+     * <code>MONTH</code>, <code>DAY_OF_MONTH</code>, <code>HOUR_OF_DAY</code>,
+     * <code>MINUTE</code>, <code>SECOND</code> and <code>MILLISECOND</code> fields.
+     * The other fields are ignored. The day, hour, minute, second and millisecond
+     * are lenient, for example hour 24 is the start of the next day.
+     * <p>
+     * Local times that are skipped or repeated at a time zone transition are resolved
+     * like a lenient <code>Calendar</code> with the default
+     * {@link Calendar#getSkippedWallTimeOption() skipped} and
+     * {@link Calendar#getRepeatedWallTimeOption() repeated} wall time options.
+     * The <code>ZONE_OFFSET</code> and <code>DST_OFFSET</code> fields are set to
+     * the offsets that were used.
+     *
+     * @param fields the fields
+     * @return the time in milliseconds since 1970-01-01T00:00:00Z
+     * @throws IllegalArgumentException if the array is shorter than {@link #FIELD_COUNT},
+     * or the month is out of range
+     * @draft ICU 51
+     * @provisional This API might change or be removed in a future release.
+     */
+    public long toMillis(int[] fields) {
+        if (fields.length < FIELD_COUNT) {
+            throw new IllegalArgumentException("fields array is too short: " + fields.length);
+        }
+        int year = fields[YEAR];
+        int month = fields[MONTH];
+        if (month < Calendar.JANUARY || month > Calendar.DECEMBER) {
+            throw new IllegalArgumentException("Invalid month: " + month);
+        }
+        long wall = Grego.fieldsToDay(year, month, fields[DAY_OF_MONTH]) * Grego.MILLIS_PER_DAY
+                + fields[HOUR_OF_DAY] * (long)Grego.MILLIS_PER_HOUR
+                + fields[MINUTE] * (long)Grego.MILLIS_PER_MINUTE
+                + fields[SECOND] * (long)Grego.MILLIS_PER_SECOND
+                + fields[MILLISECOND];
+
+        // Use the first two fields for the offsets, and restore them afterwards.
+        // Repeated local times resolve to the later (standard) offsets.
+        zone.getOffset(wall, true, fields);
+        int rawOffset = fields[0];
+        int dstOffset = fields[1];
+        // A skipped local time must use the offsets before the transition, the
+        // smaller ones. Not every zone resolves local times that way, so check
+        // the offsets at the resulting time.
+        zone.getOffset(wall - rawOffset - dstOffset, false, fields);
+        if (fields[0] + fields[1] < rawOffset + dstOffset) {
+            rawOffset = fields[0];
+            dstOffset = fields[1];
+        }
+        fields[YEAR] = year;
+        fields[MONTH] = month;
+        fields[ZONE_OFFSET] = rawOffset;
+        fields[DST_OFFSET] = dstOffset;
+        return wall - rawOffset - dstOffset;
+    }
+}
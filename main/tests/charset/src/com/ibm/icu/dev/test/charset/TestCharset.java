@@ -1,6 +1,6 @@
 /**
 *******************************************************************************
-* Copyright (C) 2006-2012, International Business Machines Corporation and    *
+* Copyright (C) 2006-2013, International Business Machines Corporation and    *
 * others. All Rights Reserved.                                                *
 *******************************************************************************
 *
@@ -9,6 +9,11 @@
 
 package com.ibm.icu.dev.test.charset;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
@@ -21,6 +26,7 @@ import java.nio.charset.CodingErrorAction;
 import java.nio.charset.UnsupportedCharsetException;
 import java.nio.charset.spi.CharsetProvider;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.MissingResourceException;
 import java.util.Set;
@@ -31,7 +37,9 @@ import com.ibm.icu.charset.CharsetDecoderICU;
 import com.ibm.icu.charset.CharsetEncoderICU;
 import com.ibm.icu.charset.CharsetICU;
 import com.ibm.icu.charset.CharsetProviderICU;
+import com.ibm.icu.charset.CharsetTranscoder;
 import com.ibm.icu.dev.test.TestFmwk;
+import com.ibm.icu.impl.ICUResourceBundle;
 import com.ibm.icu.text.UTF16;
 
 public class TestCharset extends TestFmwk {
@@ -5735,4 +5743,270 @@ public class TestCharset extends TestFmwk {
         }
         
     }
+    
+    /*
+     * Converting directly between two charsets must give the same bytes as
+     * decoding and encoding through a full intermediate CharBuffer, also when
+     * the input and output are passed in small pieces.
+     */
+    public void TestCharsetTranscoder() {
+        String text = "Mail subject: \u65e5\u672c\u8a9e\u306e\u30c6\u30ad\u30b9\u30c8 " +
+            "with some ASCII text, \u00e9\u00e8 accents, and more \u6f22\u5b57.\r\n";
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            sb.append(text);
+        }
+        String s = sb.toString();
+        String[][] pairs = {
+                { "ISO-2022-JP", "UTF-8" },
+                { "UTF-8", "ISO-2022-JP" },
+                { "UTF-8", "UTF-8" },
+                { "UTF-8", "Shift_JIS" },
+                { "Shift_JIS", "UTF-8" },
+                { "EUC-JP", "UTF-8" },
+                { "UTF-8", "UTF-16LE" },
+        };
+        for (int i = 0; i < pairs.length; i++) {
+            CharsetICU from = (CharsetICU)CharsetICU.forNameICU(pairs[i][0]);
+            CharsetICU to = (CharsetICU)CharsetICU.forNameICU(pairs[i][1]);
+            byte[] source;
+            byte[] expected;
+            try {
+                source = toBytes(from.newEncoder().encode(CharBuffer.wrap(s)));
+                expected = toBytes(to.newEncoder().encode(CharBuffer.wrap(s)));
+            } catch (CharacterCodingException ex) {
+                errln("Unable to encode the test text in " + pairs[i][0] + " or " + pairs[i][1] + ": " + ex);
+                continue;
+            }
+
+            // one-shot conversion
+            ByteBuffer out = ByteBuffer.allocate(expected.length);
+            CoderResult cr = CharsetICU.convert(from, to, ByteBuffer.wrap(source), out);
+            out.flip();
+            if (!cr.isUnderflow() || !equals(out, ByteBuffer.wrap(expected))) {
+                errln("CharsetICU.convert(" + pairs[i][0] + ", " + pairs[i][1] + ") failed: " + cr);
+            }
+
+            // piecewise conversion with a small pivot and small buffers
+            CharsetTranscoder transcoder = new CharsetTranscoder(from, to, 7);
+            byte[] result = new byte[expected.length + 16];
+            int resultLength = 0;
+            int sourceIndex = 0;
+            for (;;) {
+                int sourceLimit = Math.min(source.length, sourceIndex + 13);
+                boolean flush = sourceLimit == source.length;
+                ByteBuffer in = ByteBuffer.wrap(source, sourceIndex, sourceLimit - sourceIndex);
+                ByteBuffer piece = ByteBuffer.wrap(result, resultLength, Math.min(5, result.length - resultLength));
+                cr = transcoder.transcode(in, piece, flush);
+                if (cr.isError()) {
+                    errln("CharsetTranscoder(" + pairs[i][0] + ", " + pairs[i][1] + ") failed: " + cr);
+                    break;
+                }
+                sourceIndex = in.position();
+                resultLength = piece.position();
+                if (flush && cr.isUnderflow()) {
+                    break;
+                }
+                if (resultLength == result.length) {
+                    errln("CharsetTranscoder(" + pairs[i][0] + ", " + pairs[i][1] + ") produced too many bytes");
+                    break;
+                }
+            }
+            if (!equals(ByteBuffer.wrap(result, 0, resultLength), ByteBuffer.wrap(expected))) {
+                errln("CharsetTranscoder(" + pairs[i][0] + ", " + pairs[i][1] + ") produced the wrong bytes");
+            }
+        }
+    }
+
+    /*
+     * Long runs are converted in bulk by the UTF-16 and UTF-32 converters;
+     * check them with heap and direct buffers and surrogate pairs inside the runs.
+     */
+    public void TestUTF16UTF32Runs() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            sb.append("abc \u00e9\u4e00\ud800\udc00\uffef");
+        }
+        String s = sb.toString();
+        String[] names = { "UTF-16BE", "UTF-16LE", "UTF-32BE", "UTF-32LE" };
+        CharsetProvider provider = new CharsetProviderICU();
+        for (int i = 0; i < names.length; i++) {
+            Charset cs = provider.charsetForName(names[i]);
+            byte[] expected = s.getBytes(Charset.forName(names[i]));
+            for (int direct = 0; direct < 2; direct++) {
+                try {
+                    CharBuffer chars = direct == 0 ? CharBuffer.wrap(s) :
+                        (CharBuffer)ByteBuffer.allocateDirect(s.length() * 2).asCharBuffer().put(s).flip();
+                    ByteBuffer bytes = cs.newEncoder().encode(chars);
+                    if (!equals(bytes, ByteBuffer.wrap(expected))) {
+                        errln(names[i] + " encoding of long runs failed, direct=" + direct);
+                    }
+                    ByteBuffer in = direct == 0 ? ByteBuffer.wrap(expected) :
+                        (ByteBuffer)ByteBuffer.allocateDirect(expected.length).put(expected).flip();
+                    if (!cs.newDecoder().decode(in).toString().equals(s)) {
+                        errln(names[i] + " decoding of long runs failed, direct=" + direct);
+                    }
+                } catch (CharacterCodingException ex) {
+                    errln(names[i] + " conversion of long runs failed: " + ex);
+                }
+            }
+        }
+    }
+
+    /*
+     * The swaplfnl option of one lookup must not leak into another lookup,
+     * and aliases of the same charset share one Charset object.
+     */
+    public void TestCharsetForNameConcurrent() throws InterruptedException {
+        final CharsetProviderICU provider = new CharsetProviderICU();
+        final String[] names = { "ibm-1047_P100-1995,swaplfnl", "ibm-1047_P100-1995", "ibm-1047", "cp1047" };
+        final byte[] expectedLF = { 0x15, 0x25, 0x25, 0x25 };
+        final String[] errors = new String[1];
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int start = t;
+            threads[t] = new Thread() {
+                public void run() {
+                    for (int i = 0; i < 200; i++) {
+                        int n = (start + i) % names.length;
+                        byte lf;
+                        try {
+                            lf = provider.charsetForName(names[n]).newEncoder().encode(CharBuffer.wrap("\n")).get(0);
+                        } catch (CharacterCodingException ex) {
+                            lf = 0;
+                        }
+                        if (lf != expectedLF[n]) {
+                            synchronized (errors) {
+                                errors[0] = names[n] + " encoded LF as " + hex(lf & 0xff);
+                            }
+                            return;
+                        }
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (int t = 0; t < threads.length; t++) {
+            threads[t].join();
+        }
+        if (errors[0] != null) {
+            errln("Concurrent charsetForName() failed: " + errors[0]);
+        }
+        if (provider.charsetForName("ibm-1047") != provider.charsetForName("cp1047")) {
+            errln("Aliases of the same charset should share one Charset object");
+        }
+        if (provider.charsetForName("no-such-charset") != null) {
+            errln("charsetForName() should return null for an unsupported charset");
+        }
+    }
+
+    /*
+     * A converter memory-mapped from the configured data directory must convert
+     * exactly like the same converter read from the class path.
+     */
+    public void TestMappedConverterData() throws IOException {
+        String[] charsetNames = { "test1", "test3", "test4", "test5" };
+        String property = "com.ibm.icu.charset.CharsetMBCS.dataDirectory";
+        CharsetProviderICU provider = new CharsetProviderICU();
+
+        // Decode all byte pairs, and encode all BMP code points and some supplementary ones.
+        byte[] bytes = new byte[0x20000];
+        for (int i = 0; i < bytes.length; ++i) {
+            bytes[i] = (byte) (i >> ((i & 1) == 0 ? 9 : 1));
+        }
+        StringBuilder text = new StringBuilder();
+        for (int c = 0; c < 0x10000; ++c) {
+            if (!UTF16.isSurrogate((char) c)) {
+                text.append((char) c);
+            }
+        }
+        for (int c = 0x10000; c < 0x110000; c += 0x1001) {
+            text.append(UTF16.valueOf(c));
+        }
+
+        File dir = File.createTempFile("icucnv", "");
+        if (!dir.delete() || !dir.mkdir()) {
+            errln("Unable to create a temporary directory");
+            return;
+        }
+        String oldDir = System.getProperty(property);
+        try {
+            for (String charsetName : charsetNames) {
+                Charset streamed = provider.charsetForName(charsetName, "com/ibm/icu/dev/data/testdata",
+                        this.getClass().getClassLoader());
+                InputStream in = this.getClass().getClassLoader().getResourceAsStream(
+                        "com/ibm/icu/dev/data/testdata/" + charsetName + ".cnv");
+                if (streamed == null || in == null) {
+                    errln("Unable to load " + charsetName + " from the test data");
+                    continue;
+                }
+
+                // Copy the .cnv file into the directory from which it is mapped.
+                File file = new File(dir, charsetName + ".cnv");
+                OutputStream out = new FileOutputStream(file);
+                try {
+                    byte[] buffer = new byte[4096];
+                    int length;
+                    while ((length = in.read(buffer)) > 0) {
+                        out.write(buffer, 0, length);
+                    }
+                } finally {
+                    in.close();
+                    out.close();
+                }
+                System.setProperty(property, dir.getPath());
+                Charset mapped = provider.charsetForName(charsetName, ICUResourceBundle.ICU_BUNDLE);
+                if (mapped == null) {
+                    errln("Unable to load " + charsetName + " from " + dir);
+                    continue;
+                }
+
+                try {
+                    if (!decodeWithReplacement(streamed, bytes).equals(decodeWithReplacement(mapped, bytes))) {
+                        errln("Mapped " + charsetName + " decodes differently from the class path version");
+                    }
+                    if (!Arrays.equals(encodeWithReplacement(streamed, text), encodeWithReplacement(mapped, text))) {
+                        errln("Mapped " + charsetName + " encodes differently from the class path version");
+                    }
+                } catch (CharacterCodingException e) {
+                    errln("Conversion with " + charsetName + " failed: " + e);
+                }
+            }
+        } finally {
+            if (oldDir == null) {
+                System.clearProperty(property);
+            } else {
+                System.setProperty(property, oldDir);
+            }
+            for (String charsetName : charsetNames) {
+                File file = new File(dir, charsetName + ".cnv");
+                if (file.exists() && !file.delete()) {
+                    file.deleteOnExit(); // the file may still be mapped
+                }
+            }
+            if (!dir.delete()) {
+                dir.deleteOnExit();
+            }
+        }
+    }
+
+    private static String decodeWithReplacement(Charset charset, byte[] bytes) throws CharacterCodingException {
+        CharsetDecoder decoder = charset.newDecoder();
+        decoder.onMalformedInput(CodingErrorAction.REPLACE);
+        decoder.onUnmappableCharacter(CodingErrorAction.REPLACE);
+        return decoder.decode(ByteBuffer.wrap(bytes)).toString();
+    }
+
+    private static byte[] encodeWithReplacement(Charset charset, CharSequence text) throws CharacterCodingException {
+        CharsetEncoder encoder = charset.newEncoder();
+        encoder.onMalformedInput(CodingErrorAction.REPLACE);
+        encoder.onUnmappableCharacter(CodingErrorAction.REPLACE);
+        return toBytes(encoder.encode(CharBuffer.wrap(text)));
+    }
+
+    private static byte[] toBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
 }
@@ -1,6 +1,6 @@
 /*
  *******************************************************************************
- * Copyright (C) 2008-2012, International Business Machines Corporation and    *
+ * Copyright (C) 2008-2013, International Business Machines Corporation and    *
  * others. All Rights Reserved.                                                *
  *******************************************************************************
  */
@@ -20,6 +20,7 @@ import java.util.TreeSet;
 import com.ibm.icu.dev.test.TestFmwk;
 import com.ibm.icu.dev.util.CollectionUtilities;
 import com.ibm.icu.impl.ICUDebug;
+import com.ibm.icu.impl.Utility;
 import com.ibm.icu.impl.Row;
 import com.ibm.icu.impl.Row.R4;
 import com.ibm.icu.lang.UCharacter;
@@ -287,6 +288,54 @@ public class AlphabeticIndexTest extends TestFmwk {
         }
     }
 
+    public void TestImmutableIndex() {
+        String[] locales = { "en", "de", "sv", "ja", "ko", "ru", "zh", "zh_Hant" };
+        for (String localeID : locales) {
+            ULocale locale = new ULocale(localeID);
+            AlphabeticIndex<String> index = new AlphabeticIndex<String>(locale).addLabels(ULocale.ENGLISH);
+            AlphabeticIndex.ImmutableIndex<String> immutable = index.buildImmutableIndex();
+            List<String> labels = index.getBucketLabels();
+            if (immutable.getBucketCount() != labels.size()) {
+                errln(localeID + ": ImmutableIndex has " + immutable.getBucketCount() + " buckets, expected "
+                        + labels.size());
+                continue;
+            }
+            int b = 0;
+            for (Bucket<String> bucket : immutable) {
+                if (!bucket.getLabel().equals(labels.get(b++)) || bucket.size() != 0) {
+                    errln(localeID + ": ImmutableIndex bucket " + (b - 1) + " differs from " + labels.get(b - 1));
+                }
+            }
+            List<String> names = new ArrayList<String>();
+            names.addAll(Arrays.asList(SimpleTests));
+            names.addAll(labels);
+            names.addAll(Arrays.asList("", " ", "1", "a", "\u00e4pfel", "\u00dfen", "\u0416", "\u3042", "\u30ab",
+                    "\uac00\uac01", "\u4e00", "\u5b57", "\u03b1", "\u03c9", "\u05d0", "\u0915", "\u0e01", "\uffff"));
+            CharSequence[] nameArray = new CharSequence[names.size()];
+            for (int i = 0; i < nameArray.length; ++i) {
+                nameArray[i] = Utility.unescape(names.get(i));
+            }
+            int[] bucketIndexes = immutable.getBucketIndexes(nameArray, null);
+            for (int i = 0; i < nameArray.length; ++i) {
+                int expected = index.getBucketIndex(nameArray[i]);
+                int actual = immutable.getBucketIndex(nameArray[i]);
+                if (actual < 0 || actual >= immutable.getBucketCount()) {
+                    errln(localeID + ": ImmutableIndex bucket index " + actual + " out of range for " + nameArray[i]);
+                } else if (expected < labels.size() && actual != expected) {
+                    errln(localeID + ": ImmutableIndex bucket index " + actual + " for " + nameArray[i]
+                            + ", expected " + expected);
+                }
+                if (bucketIndexes[i] != actual) {
+                    errln(localeID + ": ImmutableIndex.getBucketIndexes() differs for " + nameArray[i]);
+                }
+            }
+        }
+        AlphabeticIndex.ImmutableIndex<String> shared = AlphabeticIndex.getImmutableIndex(ULocale.GERMAN);
+        if (AlphabeticIndex.<Integer>getImmutableIndex(ULocale.GERMAN) != (Object) shared) {
+            errln("getImmutableIndex() should return the shared index for the same locale");
+        }
+    }
+
     public void TestEmpty() {
         // just verify that it doesn't blow up.
         Set<ULocale> locales = new LinkedHashSet<ULocale>();
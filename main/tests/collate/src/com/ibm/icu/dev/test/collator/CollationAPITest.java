@@ -1,6 +1,6 @@
 /*
  *******************************************************************************
- * Copyright (C) 2002-2012, International Business Machines Corporation and
+ * Copyright (C) 2002-2013, International Business Machines Corporation and
  * others. All Rights Reserved.
  *******************************************************************************
  */
@@ -12,6 +12,7 @@
  
 package com.ibm.icu.dev.test.collator;
 
+import java.io.IOException;
 import java.text.CharacterIterator;
 import java.text.StringCharacterIterator;
 import java.util.Arrays;
@@ -1275,4 +1276,204 @@ public class CollationAPITest extends TestFmwk {
             } catch(Exception e){}
         }
     }
+
+    /*
+     * Tests RuleBasedCollator.getSortKeyPart(): the parts, in chunks of any size, add up to the sort key.
+     */
+    public void TestSortKeyPart() {
+        StringBuilder longText = new StringBuilder();
+        for (int i = 0; i < 500; ++i) {
+            longText.append("Collation \u00e9l\u00e9ments ");
+        }
+        String[] texts = {
+            "", "a", "abc", "ABC", "\u00e9t\u00e9", "co-op", "\u4e00\u4e8c", "\u0e40\u0e01", longText.toString()
+        };
+        int[] strengths = { Collator.PRIMARY, Collator.TERTIARY, Collator.IDENTICAL };
+        int[] chunkSizes = { 1, 3, 32, 1000 };
+        RuleBasedCollator coll = (RuleBasedCollator) Collator.getInstance(ULocale.FRENCH);
+        for (int s = 0; s < strengths.length; ++s) {
+            coll.setStrength(strengths[s]);
+            coll.setAlternateHandlingShifted(s == 1);
+            for (int t = 0; t < texts.length; ++t) {
+                RawCollationKey key = coll.getRawCollationKey(texts[t], null);
+                for (int c = 0; c < chunkSizes.length; ++c) {
+                    byte[] parts = new byte[key.size + chunkSizes[c]];
+                    int offset = 0;
+                    int length;
+                    // Each call with an offset starts from the beginning of the text,
+                    // so tiny chunks of the long text would take quadratic time
+                    if (texts[t].length() < 100 || chunkSizes[c] >= 32) {
+                        do {
+                            length = coll.getSortKeyPart(texts[t], offset, parts, offset, chunkSizes[c]);
+                            offset += length;
+                        } while (length == chunkSizes[c]);
+                        checkSortKeyParts(key, parts, offset, "getSortKeyPart(offset)", chunkSizes[c], t);
+                    }
+
+                    parts = new byte[key.size + chunkSizes[c]];
+                    RuleBasedCollator.SortKeyPartState state = new RuleBasedCollator.SortKeyPartState();
+                    offset = 0;
+                    do {
+                        length = coll.getSortKeyPart(texts[t], state, parts, offset, chunkSizes[c]);
+                        offset += length;
+                    } while (length == chunkSizes[c]);
+                    if (state.getOffset() != offset) {
+                        errln("SortKeyPartState.getOffset() is " + state.getOffset() + " instead of " + offset);
+                    }
+                    checkSortKeyParts(key, parts, offset, "getSortKeyPart(state)", chunkSizes[c], t);
+                }
+            }
+        }
+
+        try {
+            coll.getSortKeyPart("abc", 0, new byte[4], 2, 3);
+            errln("getSortKeyPart() into a too short array should throw an exception");
+        } catch (IllegalArgumentException e) {
+            logln("PASS: getSortKeyPart() into a too short array failed as expected");
+        }
+        RuleBasedCollator.SortKeyPartState state = new RuleBasedCollator.SortKeyPartState();
+        coll.getSortKeyPart("abc", state, new byte[2], 0, 2);
+        try {
+            coll.getSortKeyPart("abd", state, new byte[2], 0, 2);
+            errln("getSortKeyPart() with the state of another string should throw an exception");
+        } catch (IllegalArgumentException e) {
+            logln("PASS: getSortKeyPart() with the state of another string failed as expected");
+        }
+    }
+
+    private void checkSortKeyParts(RawCollationKey key, byte[] parts, int length, String method, int chunkSize,
+            int textIndex) {
+        if (length != key.size) {
+            errln(method + " in chunks of " + chunkSize + " returned " + length + " bytes, the sort key of text "
+                    + textIndex + " has " + key.size);
+            return;
+        }
+        for (int i = 0; i < length; ++i) {
+            if (parts[i] != key.bytes[i]) {
+                errln(method + " in chunks of " + chunkSize + " for text " + textIndex
+                        + " differs from the sort key at byte " + i);
+                return;
+            }
+        }
+    }
+
+    /*
+     * Tests RuleBasedCollator.cloneBinary() and openBinary(), and collators created again from the same rules.
+     */
+    public void TestTailoringBinary() {
+        String[] rules = {
+            "&a < \u00e4 <<< \u00c4 & ch < c\u030c",
+            "[strength 1][alternate shifted]",
+            "&z < ae < \u00e6 [caseFirst upper]",
+        };
+        String[] texts = {
+            "a", "A", "\u00e4", "\u00c4", "ae", "\u00e6", "b", "ch", "c\u030c", "cz", "z", "Z", "a b", "ab", "a-b"
+        };
+        for (int i = 0; i < texts.length; ++i) {
+            texts[i] = Utility.unescape(texts[i]);
+        }
+        RuleBasedCollator[] colls = new RuleBasedCollator[rules.length + 1];
+        try {
+            for (int r = 0; r < rules.length; ++r) {
+                colls[r] = new RuleBasedCollator(rules[r]);
+            }
+        } catch (Exception e) {
+            errln("Error creating RuleBasedCollator: " + e);
+            return;
+        }
+        colls[rules.length] = (RuleBasedCollator) Collator.getInstance(new ULocale("de__PHONEBOOK"));
+
+        for (int c = 0; c < colls.length; ++c) {
+            RuleBasedCollator coll = colls[c];
+            RuleBasedCollator fromBinary;
+            RuleBasedCollator fromRules;
+            try {
+                fromBinary = RuleBasedCollator.openBinary(coll.cloneBinary());
+                fromRules = new RuleBasedCollator(coll.getRules());
+            } catch (Exception e) {
+                errln("Error recreating collator " + c + ": " + e);
+                continue;
+            }
+            if (!coll.getRules().equals(fromBinary.getRules())) {
+                errln("openBinary(cloneBinary()) of collator " + c + " has different rules");
+            }
+            if (c < rules.length && !coll.equals(fromRules)) {
+                errln("new RuleBasedCollator(rules) for collator " + c + " is not equal to the first one");
+            }
+            for (int i = 0; i < texts.length; ++i) {
+                if (!coll.getCollationKey(texts[i]).equals(fromBinary.getCollationKey(texts[i]))) {
+                    errln("openBinary(cloneBinary()) of collator " + c + " has a different sort key for text " + i);
+                }
+                for (int j = 0; j < texts.length; ++j) {
+                    int expected = coll.compare(texts[i], texts[j]);
+                    if (fromBinary.compare(texts[i], texts[j]) != expected
+                            || fromRules.compare(texts[i], texts[j]) != expected) {
+                        errln("Recreated collator " + c + " compares texts " + i + " and " + j + " differently");
+                    }
+                }
+            }
+        }
+
+        byte[] bin = colls[0].cloneBinary();
+        bin[0] ^= 0x55;
+        try {
+            RuleBasedCollator.openBinary(bin);
+            errln("openBinary() of invalid data should throw an exception");
+        } catch (IOException e) {
+            logln("PASS: openBinary() of invalid data failed as expected");
+        }
+        try {
+            RuleBasedCollator.openBinary(new byte[] { 0x55, 0x63 });
+            errln("openBinary() of truncated data should throw an exception");
+        } catch (IOException e) {
+            logln("PASS: openBinary() of truncated data failed as expected");
+        }
+        bin = colls[0].cloneBinary();
+        // The length of the rules follows the format ID, the format version and two version numbers
+        bin[16] = 0x7f;
+        try {
+            RuleBasedCollator.openBinary(bin);
+            errln("openBinary() of data with an invalid array length should throw an exception");
+        } catch (IOException e) {
+            logln("PASS: openBinary() of data with an invalid array length failed as expected");
+        }
+    }
+
+    public void TestHashCodeAndEquals() {
+        String[] texts = {
+            "a", "A", "\u00e4", "\u00c4", "a\u0308", "ae", "\u00e6", "b", "a b", "ab", "a-b", "a\u00adb",
+            "ch", "c\u030c", "\u010d", "1", "01", "x\u20ac", "\u4e00", "\ud800\udc00", ""
+        };
+        for (int i = 0; i < texts.length; ++i) {
+            texts[i] = Utility.unescape(texts[i]);
+        }
+        RuleBasedCollator coll = (RuleBasedCollator) Collator.getInstance(ULocale.FRENCH);
+        int[] strengths = { Collator.PRIMARY, Collator.SECONDARY, Collator.TERTIARY, Collator.IDENTICAL };
+        for (int s = 0; s < strengths.length; ++s) {
+            for (int a = 0; a < 8; ++a) {
+                coll.setStrength(strengths[s]);
+                coll.setAlternateHandlingShifted((a & 1) != 0);
+                coll.setCaseLevel((a & 2) != 0);
+                coll.setUpperCaseFirst((a & 4) != 0);
+                coll.setFrenchCollation(a < 4);
+                for (int i = 0; i < texts.length; ++i) {
+                    for (int j = 0; j < texts.length; ++j) {
+                        boolean equal = coll.compare(texts[i], texts[j]) == 0;
+                        if (coll.equals(new StringBuilder(texts[i]), texts[j]) != equal) {
+                            errln("equals(CharSequence, CharSequence) differs from compare() for texts " + i
+                                    + " and " + j + ", strength " + strengths[s] + ", attributes " + a);
+                        }
+                        if (equal && coll.hashCode(texts[i]) != coll.hashCode(new StringBuilder(texts[j]))) {
+                            errln("Equal texts " + i + " and " + j + " have different hash codes, strength "
+                                    + strengths[s] + ", attributes " + a);
+                        }
+                    }
+                }
+            }
+        }
+        coll.setStrength(Collator.TERTIARY);
+        if (coll.hashCode("a") == coll.hashCode("b")) {
+            errln("hashCode(\"a\") should not be the same as hashCode(\"b\")");
+        }
+    }
 }
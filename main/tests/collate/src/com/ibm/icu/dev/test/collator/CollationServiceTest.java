@@ -1,6 +1,6 @@
 /*
  *******************************************************************************
- * Copyright (C) 2003-2012, International Business Machines Corporation and    *
+ * Copyright (C) 2003-2013, International Business Machines Corporation and    *
  * others. All Rights Reserved.                                                *
  *******************************************************************************
  */
@@ -119,6 +119,48 @@ public class CollationServiceTest extends TestFmwk {
         }
     }
 
+    public void TestGetFrozenInstance() {
+        Collator frozen = Collator.getFrozenInstance(ULocale.GERMANY);
+        if (!frozen.isFrozen()) {
+            errln("getFrozenInstance() returned a collator that is not frozen");
+        }
+        if (Collator.getFrozenInstance(ULocale.GERMANY) != frozen) {
+            errln("getFrozenInstance() did not return the shared collator for the same locale");
+        }
+        Collator col = Collator.getInstance(ULocale.GERMANY);
+        if (col.isFrozen() || !col.equals(frozen)) {
+            errln("getInstance() does not match getFrozenInstance()");
+        }
+        if (!frozen.getLocale(ULocale.VALID_LOCALE).equals(ULocale.GERMANY)) {
+            errln("Frozen collation from Germany is really " + frozen.getLocale(ULocale.VALID_LOCALE));
+        }
+        try {
+            frozen.setStrength(Collator.PRIMARY);
+            errln("setStrength() on a frozen collator should throw an exception");
+        } catch (UnsupportedOperationException e) {
+            logln("PASS: setStrength() on a frozen collator failed as expected");
+        }
+        col.setStrength(Collator.PRIMARY);
+        if (Collator.getFrozenInstance(ULocale.GERMANY).getStrength() == Collator.PRIMARY) {
+            errln("modifying the result of getInstance() modified the shared collator");
+        }
+
+        // registration replaces the shared collator until it is unregistered
+        Collator frcol = Collator.getInstance(ULocale.FRANCE);
+        Object key = Collator.registerInstance(frcol, ULocale.GERMANY);
+        Collator ncol = Collator.getFrozenInstance(ULocale.GERMANY);
+        if (!frcol.equals(ncol)) {
+            errln("getFrozenInstance() after register of french collator for de_DE does not match");
+        }
+        if (!Collator.unregister(key)) {
+            errln("failed to unregister french collator");
+        }
+        ncol = Collator.getFrozenInstance(ULocale.GERMANY);
+        if (!frozen.equals(ncol)) {
+            errln("getFrozenInstance() after unregister does not match original");
+        }
+    }
+
     public void TestRegisterFactory() {
 
         class CollatorInfo {
@@ -1,6 +1,6 @@
 /*
  *******************************************************************************
- * Copyright (C) 2007-2011, International Business Machines Corporation and    *
+ * Copyright (C) 2007-2013, International Business Machines Corporation and    *
  * others. All Rights Reserved.                                                *
  *******************************************************************************
  */
@@ -12,7 +12,10 @@ import java.util.Locale;
 import java.util.Random;
 
 import com.ibm.icu.dev.test.TestFmwk;
+import com.ibm.icu.text.CollationKey;
+import com.ibm.icu.text.CollationSorter;
 import com.ibm.icu.text.Collator;
+import com.ibm.icu.text.RuleBasedCollator;
 
 public class CollationThreadTest extends TestFmwk {
     public static void main(String[] args) throws Exception {
@@ -306,4 +309,103 @@ public class CollationThreadTest extends TestFmwk {
             threads[i].join(500);
         }
     }
+
+    /*
+     * Frozen collators compare Latin-1 text without locking. Compare random Latin-1 strings,
+     * including contractions, French secondaries and non-Latin-1 characters that make the
+     * comparison bail out of the Latin-1 fast path, from several threads at once,
+     * and check the results against the collation keys.
+     */
+    public void testFrozenLatinOneThreads() throws Exception {
+        final Collator[] collators = {
+            Collator.getInstance(new Locale("en", "", "")),
+            Collator.getInstance(new Locale("fr", "CA", "")),
+            new RuleBasedCollator("&c < ch <<< cH <<< Ch <<< CH & l < ll"),
+        };
+        collators[0].setStrength(Collator.SECONDARY);
+        final String chars = "abcCdehHlLoz \u00e0\u00c0\u00e9\u00df\u00ff\u00ad-\u0301\u0100";
+        final Random r = new Random(20130118);
+        final String[] data = new String[200];
+        for (int i = 0; i < data.length; ++i) {
+            StringBuilder sb = new StringBuilder();
+            int length = r.nextInt(8);
+            for (int j = 0; j < length; ++j) {
+                sb.append(chars.charAt(r.nextInt(chars.length())));
+            }
+            data[i] = sb.toString();
+        }
+
+        for (int c = 0; c < collators.length; ++c) {
+            final Collator collator = collators[c].freeze();
+            final CollationKey[] keys = new CollationKey[data.length];
+            for (int i = 0; i < data.length; ++i) {
+                keys[i] = collator.getCollationKey(data[i]);
+            }
+            final String[] failure = new String[1];
+            Thread[] threads = new Thread[4];
+            for (int t = 0; t < threads.length; ++t) {
+                final int offset = t;
+                threads[t] = new Thread() {
+                    public void run() {
+                        for (int i = 0; i < data.length; ++i) {
+                            for (int j = offset; j < data.length; j += 2) {
+                                int expected = Integer.signum(keys[i].compareTo(keys[j]));
+                                int actual = Integer.signum(collator.compare(data[i], data[j]));
+                                if (expected != actual) {
+                                    synchronized (failure) {
+                                        failure[0] = "compare(\"" + data[i] + "\", \"" + data[j] + "\") = " + actual
+                                                + ", collation keys compare " + expected;
+                                    }
+                                    return;
+                                }
+                            }
+                        }
+                    }
+                };
+            }
+            for (int t = 0; t < threads.length; ++t) {
+                threads[t].start();
+            }
+            for (int t = 0; t < threads.length; ++t) {
+                threads[t].join();
+            }
+            if (failure[0] != null) {
+                errln("collator " + c + ": " + failure[0]);
+            }
+        }
+    }
+
+    public void testCollationSorter() {
+        RuleBasedCollator collator = (RuleBasedCollator) Collator.getInstance(new Locale("pl", "", ""));
+        collator.freeze();
+        Random r = new Random(20130125);
+        String[] data = new String[5000];
+        for (int i = 0; i < data.length; ++i) {
+            // Many duplicates and strings that differ only in case, to check that the sort is stable
+            String s = threadTestData[r.nextInt(threadTestData.length)];
+            data[i] = r.nextBoolean() ? s : s.toUpperCase(Locale.ENGLISH);
+        }
+        String[] expected = data.clone();
+        sort(expected, collator);
+
+        int[] threadCounts = { 1, 2, 3, 8 };
+        for (int t = 0; t < threadCounts.length; ++t) {
+            String[] sorted = data.clone();
+            CollationSorter.sort(collator, sorted, threadCounts[t]);
+            if (!Arrays.equals(expected, sorted)) {
+                errln("CollationSorter.sort() with " + threadCounts[t] + " threads differs from Arrays.sort()");
+            }
+            int[] order = CollationSorter.sortedIndexes(collator, data, threadCounts[t]);
+            for (int i = 0; i < order.length; ++i) {
+                if (!data[order[i]].equals(expected[i])) {
+                    errln("CollationSorter.sortedIndexes() with " + threadCounts[t] + " threads: wrong index at " + i);
+                    break;
+                }
+            }
+        }
+
+        String[] small = { "b", "A", "a" };
+        CollationSorter.sort(collator, small);
+        assertEquals("small array", "[a, A, b]", Arrays.asList(small).toString());
+    }
 }
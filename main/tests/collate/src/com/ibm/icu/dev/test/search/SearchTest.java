@@ -1,6 +1,6 @@
 /*
  *******************************************************************************
- * Copyright (C) 2000-2012, International Business Machines Corporation and    *
+ * Copyright (C) 2000-2013, International Business Machines Corporation and    *
  * others. All Rights Reserved.                                                *
  *******************************************************************************
  */
@@ -13,11 +13,16 @@
 package com.ibm.icu.dev.test.search;
 
 import java.text.StringCharacterIterator;
+import java.util.Arrays;
 import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
 
 import com.ibm.icu.dev.test.TestFmwk;
+import com.ibm.icu.impl.Utility;
 import com.ibm.icu.text.BreakIterator;
 import com.ibm.icu.text.Collator;
+import com.ibm.icu.text.MultiStringSearch;
 import com.ibm.icu.text.RuleBasedCollator;
 import com.ibm.icu.text.SearchIterator;
 import com.ibm.icu.text.StringSearch;
@@ -2022,6 +2027,131 @@ public class SearchTest extends TestFmwk {
         }
     }
 
+    public void TestCompiledPattern() {
+        RuleBasedCollator collator = (RuleBasedCollator)Collator.getInstance(ULocale.FRENCH);
+        collator.setStrength(Collator.PRIMARY);
+        String[] texts = {
+            "Cote d'Ivoire, c\u00f4t\u00e9 COTE",
+            "c\u00f4te",
+            "no match here",
+            "xcotexCOTEcote",
+            "C\u00f4te c\u00f4te c\u00f4te c\u00f4te",
+        };
+        StringSearch.CompiledPattern compiled = new StringSearch.CompiledPattern("cote", collator);
+        if (!compiled.getCollator().isFrozen() || collator.isFrozen()) {
+            errln("CompiledPattern should use a frozen copy of a thawed collator");
+        }
+        StringSearch matcher = new StringSearch(compiled, new StringCharacterIterator(" "));
+        int[] starts = new int[10];
+        int[] lengths = new int[10];
+        for (int t = 0; t < texts.length; ++t) {
+            String text = Utility.unescape(texts[t]);
+            StringSearch strsrch = new StringSearch("cote", new StringCharacterIterator(text), collator);
+            int count = matcher.findAll(text, starts, lengths);
+            int expected = 0;
+            for (int start = strsrch.first(); start != SearchIterator.DONE; start = strsrch.next()) {
+                if (expected >= count || starts[expected] != start
+                        || lengths[expected] != strsrch.getMatchLength()) {
+                    errln("findAll() in text " + t + " differs at match " + expected);
+                    break;
+                }
+                ++expected;
+            }
+            if (count != expected) {
+                errln("findAll() in text " + t + " found " + count + " matches, expected " + expected);
+            }
+        }
+
+        // the search stops when the arrays are full
+        if (matcher.findAll(Utility.unescape(texts[4]), new int[2], new int[3]) != 2) {
+            errln("findAll() should stop when the arrays are full");
+        }
+        if (matcher.findAll("", starts, lengths) != 0) {
+            errln("findAll() in empty text should find no matches");
+        }
+
+        // changing the pattern of one matcher does not affect the compiled pattern
+        StringSearch other = new StringSearch(compiled, new StringCharacterIterator("abc cote"));
+        matcher.setPattern("abc");
+        if (other.first() != 4 || !compiled.getPattern().equals("cote")) {
+            errln("setPattern() on a StringSearch modified the shared compiled pattern");
+        }
+        if (matcher.findAll("abc cote", starts, lengths) != 1 || starts[0] != 0) {
+            errln("findAll() after setPattern() did not find the new pattern");
+        }
+
+        try {
+            new StringSearch.CompiledPattern("", collator);
+            errln("CompiledPattern with an empty pattern should throw an exception");
+        } catch (IllegalArgumentException e) {
+            logln("PASS: CompiledPattern with an empty pattern failed as expected");
+        }
+    }
+
+    public void TestMultiStringSearch() {
+        RuleBasedCollator collator = (RuleBasedCollator)Collator.getInstance(ULocale.FRENCH);
+        collator.setStrength(Collator.PRIMARY);
+        String text = Utility.unescape("Cote d'Ivoire, c\\u00f4t\\u00e9 COTE \\u0153uvre");
+        String[] patterns = { "cote", "ote", "ivoire", "o", "oe" };
+        // pattern index:start:length, the "o" of the ligature is not a match by itself
+        String[] expected = {
+            "0:0:4", "0:15:4", "0:20:4",
+            "1:1:3", "1:16:3", "1:21:3",
+            "2:7:6",
+            "3:1:1", "3:9:1", "3:16:1", "3:21:1",
+            "4:25:1",
+        };
+        MultiStringSearch search = new MultiStringSearch(patterns, collator);
+        if (search.getPatternCount() != patterns.length || !search.getCollator().isFrozen()) {
+            errln("MultiStringSearch has the wrong pattern count or a thawed collator");
+        }
+        int[] patternIndexes = new int[20];
+        int[] starts = new int[20];
+        int[] lengths = new int[20];
+        int count = search.findAll(text, patternIndexes, starts, lengths);
+        Set<String> matches = new TreeSet<String>();
+        for (int i = 0; i < count; ++i) {
+            matches.add(patternIndexes[i] + ":" + starts[i] + ":" + lengths[i]);
+            String matched = text.substring(starts[i], starts[i] + lengths[i]);
+            if (collator.compare(matched, patterns[patternIndexes[i]]) != 0) {
+                errln("MultiStringSearch matched \"" + matched + "\" for pattern " + patternIndexes[i]);
+            }
+        }
+        Set<String> expectedMatches = new TreeSet<String>(Arrays.asList(expected));
+        if (!matches.equals(expectedMatches)) {
+            errln("MultiStringSearch found " + matches + ", expected " + expectedMatches);
+        }
+
+        // patterns that do not match parts of expansions find the same matches
+        // as StringSearch with overlapping matches
+        for (int p = 0; p < 3; ++p) {
+            MultiStringSearch single = new MultiStringSearch(new String[] { patterns[p] }, collator);
+            count = single.findAll(text, patternIndexes, starts, lengths);
+            StringSearch strsrch = new StringSearch(patterns[p], new StringCharacterIterator(text), collator);
+            strsrch.setOverlapping(true);
+            int i = 0;
+            for (int start = strsrch.first(); start != SearchIterator.DONE; start = strsrch.next(), ++i) {
+                if (i >= count || starts[i] != start || lengths[i] != strsrch.getMatchLength()) {
+                    errln("MultiStringSearch for pattern " + p + " differs from StringSearch at match " + i);
+                    break;
+                }
+            }
+        }
+
+        if (search.findAll(text, new int[3], starts, lengths) != 3) {
+            errln("MultiStringSearch.findAll() should stop when the arrays are full");
+        }
+        if (search.findAll("", patternIndexes, starts, lengths) != 0) {
+            errln("MultiStringSearch.findAll() in empty text should find no matches");
+        }
+        try {
+            new MultiStringSearch(new String[] { "cote", Utility.unescape("\\u0301") }, collator);
+            errln("MultiStringSearch with an ignorable pattern should throw an exception");
+        } catch (IllegalArgumentException e) {
+            logln("PASS: MultiStringSearch with an ignorable pattern failed as expected");
+        }
+    }
+
     public void TestUsingSearchCollator() {
         String scKoText =
             " " +
@@ -9,6 +9,7 @@ package com.ibm.icu.dev.test.calendar;
 import java.text.ParseException;
 import java.util.Date;
 import java.util.Locale;
+import java.util.Random;
 import java.util.Set;
 
 import com.ibm.icu.impl.CalendarAstronomer;
@@ -20,6 +21,7 @@ import com.ibm.icu.util.BuddhistCalendar;
 import com.ibm.icu.util.Calendar;
 import com.ibm.icu.util.ChineseCalendar;
 import com.ibm.icu.util.GregorianCalendar;
+import com.ibm.icu.util.GregorianFields;
 import com.ibm.icu.util.JapaneseCalendar;
 import com.ibm.icu.util.TaiwanCalendar;
 import com.ibm.icu.util.TimeZone;
@@ -1636,4 +1638,53 @@ public class IBMCalendarTest extends CalendarTest {
         }
     }
 
+    public void TestGregorianFields() {
+        final String[] ZONES = {"UTC", "America/New_York", "Australia/Lord_Howe", "Asia/Kolkata", "Pacific/Apia"};
+        final int[][] CAL_FIELDS = {
+            {GregorianFields.YEAR, Calendar.EXTENDED_YEAR},
+            {GregorianFields.MONTH, Calendar.MONTH},
+            {GregorianFields.DAY_OF_MONTH, Calendar.DAY_OF_MONTH},
+            {GregorianFields.DAY_OF_WEEK, Calendar.DAY_OF_WEEK},
+            {GregorianFields.DAY_OF_YEAR, Calendar.DAY_OF_YEAR},
+            {GregorianFields.MILLISECONDS_IN_DAY, Calendar.MILLISECONDS_IN_DAY},
+            {GregorianFields.HOUR_OF_DAY, Calendar.HOUR_OF_DAY},
+            {GregorianFields.MINUTE, Calendar.MINUTE},
+            {GregorianFields.SECOND, Calendar.SECOND},
+            {GregorianFields.MILLISECOND, Calendar.MILLISECOND},
+            {GregorianFields.ZONE_OFFSET, Calendar.ZONE_OFFSET},
+            {GregorianFields.DST_OFFSET, Calendar.DST_OFFSET},
+        };
+        Random rnd = new Random(2013);
+        int[] fields = new int[GregorianFields.FIELD_COUNT];
+
+        for (String zid : ZONES) {
+            TimeZone tz = TimeZone.getTimeZone(zid);
+            GregorianFields gf = new GregorianFields(tz);
+            GregorianCalendar cal = new GregorianCalendar(tz);
+            // Proleptic Gregorian calendar
+            cal.setGregorianChange(new Date(Long.MIN_VALUE));
+
+            for (int i = 0; i < 10000; i++) {
+                // 1900 to 2100
+                long t = -2208988800000L + (long)(rnd.nextDouble() * 6311433600000L);
+                cal.setTimeInMillis(t);
+                gf.toFields(t, fields);
+                for (int[] f : CAL_FIELDS) {
+                    if (fields[f[0]] != cal.get(f[1])) {
+                        errln("FAIL: Field " + f[0] + " of " + t + " in " + zid + " is " + fields[f[0]]
+                                + ", expected " + cal.get(f[1]));
+                    }
+                }
+                long t1 = gf.toMillis(fields);
+                cal.clear();
+                cal.set(fields[GregorianFields.YEAR], fields[GregorianFields.MONTH], fields[GregorianFields.DAY_OF_MONTH],
+                        fields[GregorianFields.HOUR_OF_DAY], fields[GregorianFields.MINUTE], fields[GregorianFields.SECOND]);
+                cal.set(Calendar.MILLISECOND, fields[GregorianFields.MILLISECOND]);
+                if (t1 != cal.getTimeInMillis()) {
+                    errln("FAIL: toMillis of the fields of " + t + " in " + zid + " returned " + t1
+                            + ", expected " + cal.getTimeInMillis());
+                }
+            }
+        }
+    }
 }
@@ -11,7 +11,10 @@ import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.Reader;
 import java.io.UnsupportedEncodingException;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -1127,5 +1130,61 @@ public class TestCharsetDetector extends TestFmwk
         }   
     }
 
+
+    public void TestDetectEach() throws Exception {
+        // The batch API must give the same results as detecting each input
+        // with a single detector, whether or not an executor is used.
+        String[] texts = {
+            "This is a small sample of some English text. Just enough to be sure that it detects correctly.",
+            "Un tr\u00E8s petit peu de Fran\u00E7ais, juste assez pour que la d\u00E9tection soit correcte.",
+            "It also includes some \u201CC1\u201D bytes, which makes this windows-1252 text.",
+        };
+        String[] encodings = { "ISO-8859-1", "ISO-8859-1", "windows-1252" };
+
+        byte[][] inputs = new byte[texts.length * 20 + 2][];
+        for (int i = 0; i < inputs.length - 2; i++) {
+            inputs[i] = texts[i % texts.length].getBytes(encodings[i % texts.length]);
+        }
+        inputs[inputs.length - 2] = createData1();
+        byte[] lamAlef = new byte[1000];
+        Arrays.fill(lamAlef, (byte)0xb2);
+        inputs[inputs.length - 1] = lamAlef;
+
+        CharsetDetector det = new CharsetDetector();
+        String[] expected = new String[inputs.length];
+        for (int i = 0; i < inputs.length; i++) {
+            CharsetMatch m = det.setText(inputs[i]).detect();
+            expected[i] = m == null ? null : m.getName();
+        }
+
+        CharsetMatch[] serial = det.detectEach(inputs, null);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CharsetMatch[] parallel;
+        try {
+            parallel = det.detectEach(inputs, executor);
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals("serial result count", inputs.length, serial.length);
+        assertEquals("parallel result count", inputs.length, parallel.length);
+        for (int i = 0; i < inputs.length; i++) {
+            assertEquals("serial detectEach[" + i + "]", expected[i],
+                    serial[i] == null ? null : serial[i].getName());
+            assertEquals("parallel detectEach[" + i + "]", expected[i],
+                    parallel[i] == null ? null : parallel[i].getName());
+        }
+    }
+
+    public void TestReuseAfterStream() throws Exception {
+        // A detector given a stream and then a byte array must not
+        // read the match data back from the old stream.
+        byte[] streamBytes = "Some English text read from a stream, long enough to detect.".getBytes("ISO-8859-1");
+        byte[] arrayBytes = "\u201CQuoted\u201D English text given as a byte array.".getBytes("windows-1252");
+        CharsetDetector det = new CharsetDetector();
+        det.setText(new ByteArrayInputStream(streamBytes));
+        det.detect();
+        CharsetMatch m = det.setText(arrayBytes).detect();
+        assertEquals("string after reuse", "\u201CQuoted\u201D English text given as a byte array.", m.getString());
+    }
       
 }
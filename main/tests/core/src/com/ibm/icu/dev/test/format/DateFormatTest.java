@@ -25,6 +25,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Random;
 import java.util.ResourceBundle;
 import java.util.Set;
 
@@ -4232,6 +4233,59 @@ public class DateFormatTest extends com.ibm.icu.dev.test.TestFmwk {
 
     }
     
+    public void TestFormatTimes() {
+        final String[][] TESTS = {
+            // pattern, locale, time zone
+            {"yyyy-MM-dd HH:mm:ss.SSS", "en", "UTC"},
+            {"EEEE, MMMM d, y h:mm:ss a zzzz", "en_US", "America/Los_Angeles"},
+            {"d MMM y, k:mm:ss.S Z", "de", "Europe/Berlin"},
+            {"G y MMM d EEE K:mm a A", "ja@calendar=japanese", "Asia/Tokyo"},
+            {"a h:mm VVVV", "ar", "Africa/Cairo"},
+            {"QQQ w 'week' D'th day' HH:mm:ss.SSSS vvvv", "fr", "Australia/Lord_Howe"},
+        };
+        // Around a DST transition in the US and Europe, in order, and then shuffled
+        long base = 1351382400000L;  // 2012-10-28T00:00:00Z
+        long[] times = new long[500];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = base + i * 599999L;
+        }
+        long[] shuffled = new long[times.length];
+        Random rnd = new Random(2013);
+        for (int i = 0; i < times.length; i++) {
+            shuffled[i] = times[rnd.nextInt(times.length)] + (i % 7 == 0 ? -base - 100000000000L : 0);
+        }
+
+        for (String[] test : TESTS) {
+            ULocale loc = new ULocale(test[1]);
+            SimpleDateFormat fmt = new SimpleDateFormat(test[0], loc);
+            fmt.setTimeZone(TimeZone.getTimeZone(test[2]));
+            SimpleDateFormat ref = (SimpleDateFormat)fmt.clone();
+            for (long[] t : new long[][] {times, shuffled}) {
+                StringBuffer buf = new StringBuffer("prefix");
+                int[] offsets = fmt.format(t, 1, t.length - 1, buf, null);
+                if (offsets.length != t.length || offsets[0] != 6 || offsets[t.length - 1] != buf.length()) {
+                    errln("FAIL: Bad offsets for " + test[0]);
+                    continue;
+                }
+                for (int i = 1; i < t.length; i++) {
+                    String expected = ref.format(new Date(t[i]));
+                    String actual = buf.substring(offsets[i - 1], offsets[i]);
+                    if (!expected.equals(actual)) {
+                        errln("FAIL: " + test[0] + " " + test[1] + " " + test[2] + " at " + t[i]
+                                + ": " + actual + ", expected " + expected);
+                    }
+                }
+            }
+        }
+
+        try {
+            new SimpleDateFormat("HH:mm").format(times, 10, times.length, new StringBuffer(), null);
+            errln("FAIL: No IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException e) {
+            logln("OK: " + e.getMessage());
+        }
+    }
+
     private boolean showParse(DateFormat format, String formattedString) {
         ParsePosition parsePosition = new ParsePosition(0);
         parsePosition.setIndex(0);
@@ -934,8 +934,8 @@ public class DateTimeGeneratorTest extends TestFmwk {
           }
           
           DateTimePatternGenerator dtpg2 = (DateTimePatternGenerator) dtpg.cloneAsThawed();
-          if(dtpg.isFrozen() != false){
-              errln("DateTimePatternGenerator.isFrozen() is suppose to return false " +
+          if(dtpg.isFrozen() != true){
+              errln("DateTimePatternGenerator.isFrozen() is suppose to return true " +
                       "for a DateTimePatternGenerator object that was just " +
                       "clone as thawed.");
           }
@@ -1180,4 +1180,68 @@ public class DateTimeGeneratorTest extends TestFmwk {
               }
           }
       }
+
+      /*
+       * Tests the shared frozen instances and their cached getBestPattern results
+       */
+      @SuppressWarnings("deprecation")
+      public void TestFrozenBestPatternCache() {
+          final String[] SKELETONS = {
+              "yMMMd", "yMMMMEEEEd", "Hms", "hms", "jm", "MMMEd", "yQQQ", "hhmm", "EEEEMMMMdHHmmss", "zzzzj",
+          };
+          final int[] OPTIONS = {
+              DateTimePatternGenerator.MATCH_NO_OPTIONS,
+              DateTimePatternGenerator.MATCH_HOUR_FIELD_LENGTH,
+          };
+          final ULocale[] LOCALES = {ULocale.ENGLISH, new ULocale("de"), new ULocale("ja"), new ULocale("be")};
+
+          for (ULocale loc : LOCALES) {
+              final DateTimePatternGenerator frozen = DateTimePatternGenerator.getFrozenInstance(loc);
+              if (!frozen.isFrozen() || frozen != DateTimePatternGenerator.getFrozenInstance(loc)) {
+                  errln("FAIL: getFrozenInstance(" + loc + ") does not return a shared frozen instance");
+              }
+              DateTimePatternGenerator thawed = DateTimePatternGenerator.getInstance(loc);
+              if (thawed.isFrozen() || !frozen.isFrozen()) {
+                  errln("FAIL: getInstance(" + loc + ") changed the frozen state");
+              }
+              final String[] expected = new String[SKELETONS.length * OPTIONS.length];
+              for (int i = 0; i < expected.length; i++) {
+                  expected[i] = thawed.getBestPattern(SKELETONS[i / OPTIONS.length], OPTIONS[i % OPTIONS.length]);
+              }
+
+              // Look up the patterns in several threads, twice, to hit the cache
+              final String[][] results = new String[4][];
+              Thread[] threads = new Thread[results.length];
+              for (int t = 0; t < threads.length; t++) {
+                  final int tidx = t;
+                  threads[t] = new Thread() {
+                      public void run() {
+                          String[] res = new String[expected.length];
+                          for (int n = 0; n < 2; n++) {
+                              for (int i = 0; i < res.length; i++) {
+                                  res[i] = frozen.getBestPattern(SKELETONS[i / OPTIONS.length], OPTIONS[i % OPTIONS.length]);
+                              }
+                          }
+                          results[tidx] = res;
+                      }
+                  };
+                  threads[t].start();
+              }
+              for (Thread thread : threads) {
+                  try {
+                      thread.join();
+                  } catch (InterruptedException e) {
+                      errln("Interrupted");
+                  }
+              }
+              for (int t = 0; t < results.length; t++) {
+                  for (int i = 0; i < expected.length; i++) {
+                      if (!expected[i].equals(results[t][i])) {
+                          errln("FAIL: " + loc + " skeleton " + SKELETONS[i / OPTIONS.length] + " options "
+                                  + OPTIONS[i % OPTIONS.length] + ": got " + results[t][i] + ", expected " + expected[i]);
+                      }
+                  }
+              }
+          }
+      }
 }
@@ -435,4 +435,43 @@ public class PluralRulesTest extends TestFmwk {
             }
         }
     }
+
+    /*
+     * Tests select(long) and the integer fast path of select(double)
+     */
+    public void TestSelectLong() {
+        PluralRules pr = PluralRules.createRules(
+                "two: n in 1000..1003; " +
+                "one: n mod 10 is 1 and n mod 100 is not 11; " +
+                "few: n mod 10 in 2..4 and n mod 100 not in 12..14; " +
+                "many: n mod 10 is 0 or n mod 10 in 5..9 or n mod 100 in 11..14");
+        Object[][] tests = {
+            {0L, "many"}, {1L, "one"}, {2L, "few"}, {5L, "many"}, {11L, "many"}, {12L, "many"},
+            {21L, "one"}, {22L, "few"}, {101L, "one"}, {111L, "many"}, {1000L, "two"},
+            {1001L, "two"}, {1004L, "few"}, {1011L, "many"}, {12345678901L, "one"},
+            {98765432112L, "many"}, {Long.MAX_VALUE, "many"}, {Long.MAX_VALUE - 5, "few"},
+        };
+        for (Object[] test : tests) {
+            long n = ((Long) test[0]).longValue();
+            assertEquals("select(" + n + ")", test[1], pr.select(n));
+            if (n < (1L << 53)) {
+                assertEquals("select(" + n + ".0)", test[1], pr.select((double) n));
+            }
+        }
+        assertEquals("select(1.5)", "other", pr.select(1.5));
+        assertEquals("select(-1)", pr.select(-1.0), pr.select(-1L));
+
+        // Moduli with a large common multiple
+        pr = PluralRules.createRules("a: n mod 997 is 1; b: n mod 991 is 1");
+        assertEquals("select(997 * 991 + 1)", "a", pr.select(997L * 991 + 1));
+        assertEquals("select(991 * 3 + 1)", "b", pr.select(991L * 3 + 1));
+        assertEquals("select(991 * 3 + 2)", "other", pr.select(991L * 3 + 2));
+
+        for (ULocale locale : PluralRules.getAvailableULocales()) {
+            PluralRules rules = PluralRules.forLocale(locale);
+            if (rules != PluralRules.forLocale(locale)) {
+                errln("PluralRules.forLocale(" + locale + ") does not return the cached rules");
+            }
+        }
+    }
 }
@@ -24,12 +24,16 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
+import com.ibm.icu.impl.MessagePatternCache;
+import com.ibm.icu.text.CompiledMessageFormat;
 import com.ibm.icu.text.DateFormat;
 import com.ibm.icu.text.DecimalFormat;
 import com.ibm.icu.text.DecimalFormatSymbols;
 import com.ibm.icu.text.MessageFormat;
 import com.ibm.icu.text.MessagePattern;
 import com.ibm.icu.text.NumberFormat;
+import com.ibm.icu.text.PluralFormat;
+import com.ibm.icu.text.SelectFormat;
 import com.ibm.icu.text.SimpleDateFormat;
 import com.ibm.icu.text.UFormat;
 import com.ibm.icu.util.TimeZone;
@@ -1861,4 +1865,144 @@ public class TestMessageFormat extends com.ibm.icu.dev.test.TestFmwk {
         assertEquals("plural-and-ordinal format(3) failed", "3 files, 3rd file",
                      m.format(args, result, ignore).toString());
     }
+
+    public void TestCompile() {
+        String[] patterns = {
+            "{0,plural,one{1 file}other{# files}}, " +
+            "{0,selectordinal,one{#st file}two{#nd file}few{#rd file}other{#th file}}",
+            "{1,select,female{{2} sent her {0,plural,=0{nothing}one{one file}other{# files}}}" +
+                "other{{2} sent their {0,plural,offset:1 =0{nothing}one{file and # more}other{# files}}}}",
+            "{0,choice,0#no files|1#one file|1<{0,number,integer} files} on {3,date,short}",
+            "It''s {0} and '{'{1}'}' at {2}, {4}",
+        };
+        Object[][] argsList = {
+            { 0, "female", "Ann", new Date(0), "x" },
+            { 1, "male", "Bob", new Date(1234567890000L), null },
+            { 2.5, "other", "Cat", new Date(0) },
+            { 1234567, "female" },
+        };
+        for (String pattern : patterns) {
+            MessageFormat mf = new MessageFormat(pattern, ULocale.ENGLISH);
+            CompiledMessageFormat compiled = mf.compile();
+            for (Object[] args : argsList) {
+                String expected = mf.format(args, new StringBuffer(), null).toString();
+                assertEquals("compiled format of " + pattern, expected, compiled.format(args));
+                StringBuilder sb = new StringBuilder("prefix:");
+                assertEquals("compiled format to an Appendable", "prefix:" + expected,
+                        compiled.format(args, sb).toString());
+            }
+            // JDK apostrophe mode
+            MessageFormat jdk = new MessageFormat("", ULocale.ENGLISH);
+            jdk.applyPattern(pattern, MessagePattern.ApostropheMode.DOUBLE_REQUIRED);
+            compiled = jdk.compile();
+            for (Object[] args : argsList) {
+                assertEquals("compiled JDK-mode format of " + pattern,
+                        jdk.format(args, new StringBuffer(), null).toString(), compiled.format(args));
+            }
+        }
+
+        // Named arguments, and a custom format that does not change the compiled form later
+        MessageFormat mf = new MessageFormat("{num,number,integer} {who} {missing}", ULocale.ENGLISH);
+        CompiledMessageFormat compiled = mf.compile();
+        mf.setFormatByArgumentName("num", NumberFormat.getPercentInstance(ULocale.ENGLISH));
+        Map<String, Object> map = new HashMap<String, Object>();
+        map.put("num", 12.4);
+        map.put("who", "me");
+        assertEquals("compiled named-argument format", "12 me {missing}", compiled.format(map));
+        try {
+            compiled.format(new Object[] { 1 });
+            errln("compiled format of named arguments with an array did not throw an exception");
+        } catch (IllegalArgumentException e) {
+            logln("Got the expected exception: " + e.getMessage());
+        }
+
+        // Share the compiled form between threads
+        final CompiledMessageFormat shared = new MessageFormat(
+                "{0,plural,one{# file}other{# files}} in {1,number,#,##0.00} s", ULocale.ENGLISH).compile();
+        final String[] errors = new String[4];
+        Thread[] threads = new Thread[errors.length];
+        for (int t = 0; t < threads.length; ++t) {
+            final int tidx = t;
+            threads[t] = new Thread() {
+                public void run() {
+                    for (int i = 0; i < 1000 && errors[tidx] == null; ++i) {
+                        String expected = (i == 1 ? "1 file" : i + " files") + " in " + i + ".50 s";
+                        String result = shared.format(new Object[] { i, i + 0.5 });
+                        if (!expected.equals(result)) {
+                            errors[tidx] = result + " != " + expected;
+                        }
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (int t = 0; t < threads.length; ++t) {
+            try {
+                threads[t].join();
+            } catch (InterruptedException e) {
+                errln("Interrupted");
+            }
+            if (errors[t] != null) {
+                errln("concurrent compiled format: " + errors[t]);
+            }
+        }
+    }
+
+    public void TestMessagePatternCache() {
+        int oldMaxSize = MessagePatternCache.getMaxSize();
+        try {
+            MessagePatternCache.setMaxSize(10);
+            MessagePatternCache.clear();
+            String pattern = "{0,select,female{She has {1}}other{They have {1}}} '{'quoted'}'";
+            Object[] args = { "female", "it" };
+            String expected = "She has it {quoted}";
+            MessageFormat mf1 = new MessageFormat(pattern, ULocale.ENGLISH);
+            MessageFormat mf2 = new MessageFormat(pattern, ULocale.ENGLISH);
+            assertEquals("cached pattern format", expected, mf1.format(args));
+            assertEquals("cached pattern format, second instance", expected, mf2.format(args));
+            assertEquals("cache misses", 1, MessagePatternCache.getMissCount());
+            assertEquals("cache hits", 1, MessagePatternCache.getHitCount());
+
+            // Another apostrophe mode is cached separately.
+            MessageFormat jdk = new MessageFormat("", ULocale.ENGLISH);
+            jdk.applyPattern(pattern, MessagePattern.ApostropheMode.DOUBLE_REQUIRED);
+            assertEquals("cached DOUBLE_REQUIRED pattern format", expected, jdk.format(args));
+            jdk.applyPattern("It''s '{0}", MessagePattern.ApostropheMode.DOUBLE_OPTIONAL);
+            assertEquals("cached pattern after changing the mode", "It's {0}", jdk.format(args));
+
+            // Invalid patterns are not cached, and reset the format.
+            try {
+                mf1.applyPattern("{0,select,female{x}");
+                errln("applyPattern() with an invalid pattern did not throw an exception");
+            } catch (IllegalArgumentException e) {
+                logln("Got the expected exception: " + e.getMessage());
+            }
+            mf1.applyPattern("x{0}y");
+            assertEquals("format after an invalid pattern", "xity", mf1.format(new Object[] { "it" }));
+            assertEquals("format of a MessageFormat sharing the pattern", expected, mf2.format(args));
+
+            SelectFormat sf1 = new SelectFormat("female{her}other{their}");
+            SelectFormat sf2 = new SelectFormat("female{her}other{their}");
+            assertEquals("cached SelectFormat pattern", "her", sf1.format("female"));
+            assertEquals("cached SelectFormat pattern, second instance", "their", sf2.format("male"));
+            PluralFormat pf1 = new PluralFormat(ULocale.ENGLISH, "one{# file}other{# files}");
+            PluralFormat pf2 = new PluralFormat(ULocale.ENGLISH, "one{# file}other{# files}");
+            assertEquals("cached PluralFormat pattern", "1 file", pf1.format(1));
+            assertEquals("cached PluralFormat pattern, second instance", "2 files", pf2.format(2));
+            long hits = MessagePatternCache.getHitCount();
+            assertTrue("cache hits " + hits, hits >= 3);
+            assertTrue("cache size", MessagePatternCache.size() <= 10);
+
+            // A full cache still parses patterns.
+            MessagePatternCache.setMaxSize(1);
+            MessagePatternCache.clear();
+            mf1.applyPattern("a{0}");
+            mf1.applyPattern("b{0}");
+            assertEquals("format with a full cache", "bit", mf1.format(new Object[] { "it" }));
+            assertEquals("full cache size", 1, MessagePatternCache.size());
+        } finally {
+            MessagePatternCache.setMaxSize(oldMaxSize);
+            MessagePatternCache.clear();
+        }
+    }
 }
@@ -7,18 +7,27 @@
 
 package com.ibm.icu.dev.test.format;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.text.ParseException;
 import java.text.ParsePosition;
+import java.util.Collection;
 import java.util.Date;
 import java.util.EnumSet;
 import java.util.Set;
+import java.util.TreeSet;
 
+import com.ibm.icu.impl.TimeZoneNamesIndex;
 import com.ibm.icu.lang.UCharacter;
 import com.ibm.icu.text.SimpleDateFormat;
 import com.ibm.icu.text.TimeZoneFormat;
 import com.ibm.icu.text.TimeZoneFormat.ParseOption;
 import com.ibm.icu.text.TimeZoneFormat.Style;
 import com.ibm.icu.text.TimeZoneFormat.TimeType;
+import com.ibm.icu.text.TimeZoneNames;
+import com.ibm.icu.text.TimeZoneNames.MatchInfo;
+import com.ibm.icu.text.TimeZoneNames.NameType;
 import com.ibm.icu.util.BasicTimeZone;
 import com.ibm.icu.util.Calendar;
 import com.ibm.icu.util.Output;
@@ -429,4 +438,84 @@ public class TimeZoneFormatTest extends com.ibm.icu.dev.test.TestFmwk {
             }
         }
     }
+
+    public void TestNamesIndex() {
+        final String[] TEXTS = {
+            "Eastern Standard Time",
+            "pacific daylight time, and more",
+            "EST",
+            "GMT",
+            "British Summer Time",
+            "no such zone",
+        };
+        TimeZoneNames tznames = TimeZoneNames.getInstance(ULocale.ENGLISH);
+        Set<String> tzIDs = TimeZone.getAvailableIDs(SystemTimeZoneType.CANONICAL, null, null);
+        TimeZoneNamesIndex index = TimeZoneNamesIndex.build(tznames, tzIDs, tznames.getAvailableMetaZoneIDs());
+
+        // write and read back, as done for precompiled indexes
+        TimeZoneNamesIndex readIndex = null;
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            index.write(out);
+            readIndex = TimeZoneNamesIndex.read(new ByteArrayInputStream(out.toByteArray()));
+        } catch (IOException e) {
+            errln("Fail: Cannot write and read the time zone names index: " + e);
+            return;
+        }
+
+        // a few fixed expectations, independent of the index
+        checkNamesIndexMatch(index, "Eastern Standard Time", NameType.LONG_STANDARD, null, "America_Eastern");
+        checkNamesIndexMatch(index, "British Summer Time", NameType.LONG_DAYLIGHT, "Europe/London", null);
+        if (!index.find("no such zone", 0, null).isEmpty()) {
+            errln("Fail: Index matches for \"no such zone\"");
+        }
+
+        for (String text : TEXTS) {
+            // expected matches by a brute-force scan of all the names
+            String foldedText = UCharacter.foldCase(text, true);
+            TreeSet<String> expectedSet = new TreeSet<String>();
+            for (NameType type : NameType.values()) {
+                for (String tzID : tzIDs) {
+                    String name = tznames.getTimeZoneDisplayName(tzID, type);
+                    if (name != null && name.length() > 0 && foldedText.startsWith(UCharacter.foldCase(name, true))) {
+                        expectedSet.add(type + "/" + tzID + "/null/" + name.length());
+                    }
+                }
+                for (String mzID : tznames.getAvailableMetaZoneIDs()) {
+                    String name = tznames.getMetaZoneDisplayName(mzID, type);
+                    if (name != null && name.length() > 0 && foldedText.startsWith(UCharacter.foldCase(name, true))) {
+                        expectedSet.add(type + "/null/" + mzID + "/" + name.length());
+                    }
+                }
+            }
+            String expected = expectedSet.toString();
+            String actual = toSortedString(index.find(text, 0, null));
+            if (!expected.equals(actual)) {
+                errln("Fail: Index matches for \"" + text + "\": " + actual + " - expected: " + expected);
+            }
+            actual = toSortedString(readIndex.find(text, 0, null));
+            if (!expected.equals(actual)) {
+                errln("Fail: Deserialized index matches for \"" + text + "\": " + actual + " - expected: " + expected);
+            }
+        }
+    }
+
+    private void checkNamesIndexMatch(TimeZoneNamesIndex index, String text, NameType type, String tzID, String mzID) {
+        for (MatchInfo match : index.find(text, 0, null)) {
+            if (match.nameType() == type && match.matchLength() == text.length()
+                    && (tzID == null ? match.tzID() == null : tzID.equals(match.tzID()))
+                    && (mzID == null ? match.mzID() == null : mzID.equals(match.mzID()))) {
+                return;
+            }
+        }
+        errln("Fail: No " + type + " match for \"" + text + "\" with zone " + tzID + " / meta zone " + mzID);
+    }
+
+    private static String toSortedString(Collection<MatchInfo> matches) {
+        TreeSet<String> set = new TreeSet<String>();
+        for (MatchInfo match : matches) {
+            set.add(match.nameType() + "/" + match.tzID() + "/" + match.mzID() + "/" + match.matchLength());
+        }
+        return set.toString();
+    }
 }
\ No newline at end of file
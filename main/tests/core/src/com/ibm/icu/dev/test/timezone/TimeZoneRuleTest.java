@@ -14,6 +14,7 @@ import java.io.OutputStreamWriter;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.util.Date;
+import java.util.Random;
 
 import com.ibm.icu.dev.test.TestFmwk;
 import com.ibm.icu.util.AnnualTimeZoneRule;
@@ -1826,4 +1827,88 @@ public class TimeZoneRuleTest extends TestFmwk {
             errln("Fail: Exception thrown - " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /*
+     * Check that the UTC offsets of an OlsonTimeZone, which are looked up in
+     * precomputed tables, match the offsets of the equivalent RBTZ around
+     * every transition and at arbitrary times, including the final rule range.
+     */
+    public void TestOlsonOffsets() {
+        long start = getUTCMillis(1900, Calendar.JANUARY, 1);
+        long end = getUTCMillis(2150, Calendar.JANUARY, 1);
+        int[] offsets1 = new int[2];
+        int[] offsets2 = new int[2];
+        Random rnd = new Random(2013);
+
+        String[] zids = getTestZIDs();
+        for (int i = 0; i < zids.length; i++) {
+            BasicTimeZone tz = (BasicTimeZone)TimeZone.getTimeZone(zids[i], TimeZone.TIMEZONE_ICU);
+            TimeZoneRule[] rules = tz.getTimeZoneRules();
+            RuleBasedTimeZone rbtz = new RuleBasedTimeZone(tz.getID() + "(RBTZ)",
+                    (InitialTimeZoneRule)rules[0]);
+            for (int k = 1; k < rules.length; k++) {
+                rbtz.addTransitionRule(rules[k]);
+            }
+
+            long time = start;
+            while (time < end) {
+                TimeZoneTransition tzt = tz.getNextTransition(time, false);
+                if (tzt == null) {
+                    break;
+                }
+                time = tzt.getTime();
+                for (long t = time - 1; t <= time; t++) {
+                    tz.getOffset(t, false, offsets1);
+                    rbtz.getOffset(t, false, offsets2);
+                    if (offsets1[0] != offsets2[0] || offsets1[1] != offsets2[1]) {
+                        errln("FAIL: Offsets of " + tz.getID() + " at " + t + " are "
+                                + offsets1[0] + "/" + offsets1[1] + ", expected "
+                                + offsets2[0] + "/" + offsets2[1]);
+                    }
+                }
+            }
+            for (int n = 0; n < 1000; n++) {
+                long t = start + (long)(rnd.nextDouble() * (end - start));
+                tz.getOffset(t, false, offsets1);
+                rbtz.getOffset(t, false, offsets2);
+                if (offsets1[0] != offsets2[0] || offsets1[1] != offsets2[1]) {
+                    errln("FAIL: Offsets of " + tz.getID() + " at " + t + " are "
+                            + offsets1[0] + "/" + offsets1[1] + ", expected "
+                            + offsets2[0] + "/" + offsets2[1]);
+                }
+            }
+        }
+    }
+
+    /*
+     * Clones of a system zone share its precomputed offsets until one of them
+     * is modified. Check that modifying one clone does not affect the others.
+     */
+    public void TestOlsonOffsetsClones() {
+        long t = getUTCMillis(2030, Calendar.JULY, 1);
+        int[] offsets = new int[2];
+        TimeZone tz1 = TimeZone.getTimeZone("America/New_York", TimeZone.TIMEZONE_ICU);
+        TimeZone tz2 = TimeZone.getTimeZone("America/New_York", TimeZone.TIMEZONE_ICU);
+        tz1.getOffset(t, false, offsets);
+        int expectedRaw = offsets[0];
+        int expectedDst = offsets[1];
+
+        tz2.setRawOffset(expectedRaw + 3600000);
+        tz2.getOffset(t, false, offsets);
+        if (offsets[0] != expectedRaw + 3600000) {
+            errln("FAIL: Raw offset of the modified clone is " + offsets[0] + ", expected "
+                    + (expectedRaw + 3600000));
+        }
+        tz1.getOffset(t, false, offsets);
+        if (offsets[0] != expectedRaw || offsets[1] != expectedDst) {
+            errln("FAIL: Offsets of the unmodified clone are " + offsets[0] + "/" + offsets[1]
+                    + ", expected " + expectedRaw + "/" + expectedDst);
+        }
+        TimeZone tz3 = TimeZone.getTimeZone("America/New_York", TimeZone.TIMEZONE_ICU);
+        tz3.getOffset(t, false, offsets);
+        if (offsets[0] != expectedRaw || offsets[1] != expectedDst) {
+            errln("FAIL: Offsets of a new instance are " + offsets[0] + "/" + offsets[1]
+                    + ", expected " + expectedRaw + "/" + expectedDst);
+        }
+    }
+}
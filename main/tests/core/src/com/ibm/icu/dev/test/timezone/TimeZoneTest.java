@@ -1804,6 +1804,47 @@ public class TimeZoneTest extends TestFmwk
         }
     }
 
+    public void TestZoneMetaConcurrent() {
+        final String[] ids = TimeZone.getAvailableIDs();
+        final String[][] results = new String[4][];
+        Thread[] threads = new Thread[results.length];
+        for (int t = 0; t < threads.length; t++) {
+            final int tidx = t;
+            threads[t] = new Thread() {
+                public void run() {
+                    String[] res = new String[ids.length];
+                    // Walk the IDs from a different start in each thread
+                    for (int i = 0; i < ids.length; i++) {
+                        String id = ids[(i + tidx * ids.length / results.length) % ids.length];
+                        StringBuilder buf = new StringBuilder(TimeZone.getCanonicalID(id));
+                        buf.append(' ').append(TimeZone.getRegion(id));
+                        int n = TimeZone.countEquivalentIDs(id);
+                        for (int j = 0; j < n; j++) {
+                            buf.append(' ').append(TimeZone.getEquivalentID(id, j));
+                        }
+                        buf.append(' ').append(TimeZone.getAvailableIDs(SystemTimeZoneType.CANONICAL_LOCATION,
+                                TimeZone.getRegion(id), null).size());
+                        res[(i + tidx * ids.length / results.length) % ids.length] = buf.toString();
+                    }
+                    results[tidx] = res;
+                }
+            };
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                errln("Interrupted");
+            }
+        }
+        for (int t = 1; t < results.length; t++) {
+            if (!Arrays.equals(results[0], results[t])) {
+                errln("FAIL: Different zone meta data in thread " + t);
+            }
+        }
+    }
+
     public void TestZoneFields() {
         assertEquals("UNKNOWN_ZONE wrong ID", "Etc/Unknown", TimeZone.UNKNOWN_ZONE.getID());
         assertEquals("UNKNOWN_ZONE wrong offset", 0, TimeZone.UNKNOWN_ZONE.getRawOffset());
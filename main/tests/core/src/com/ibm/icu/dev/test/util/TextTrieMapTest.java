@@ -1,6 +1,6 @@
 /*
  *******************************************************************************
- * Copyright (C) 2007, International Business Machines Corporation and         *
+ * Copyright (C) 2007-2013, International Business Machines Corporation and    *
  * others. All Rights Reserved.                                                *
  *******************************************************************************
 */
@@ -67,8 +67,8 @@ public class TextTrieMapTest extends TestFmwk {
     }
 
     public void TestCaseSensitive() {
-        Iterator itr = null;
-        TextTrieMap map = new TextTrieMap(false);
+        Iterator<Object> itr = null;
+        TextTrieMap<Object> map = new TextTrieMap<Object>(false);
         for (int i = 0; i < TESTDATA.length; i++) {
             map.put((String)TESTDATA[i][0], TESTDATA[i][1]);
         }
@@ -102,8 +102,8 @@ public class TextTrieMapTest extends TestFmwk {
     }
 
     public void TestCaseInsensitive() {
-        Iterator itr = null;
-        TextTrieMap map = new TextTrieMap(true);
+        Iterator<Object> itr = null;
+        TextTrieMap<Object> map = new TextTrieMap<Object>(true);
         for (int i = 0; i < TESTDATA.length; i++) {
             map.put((String)TESTDATA[i][0], TESTDATA[i][1]);
         }
@@ -136,6 +136,33 @@ public class TextTrieMapTest extends TestFmwk {
         checkResult(itr, new Object[]{SUN, FOO, BAR});
     }
 
+    public void TestFreeze() {
+        Iterator<Object> itr = null;
+        TextTrieMap<Object> map = new TextTrieMap<Object>(false);
+        for (int i = 0; i < TESTDATA.length; i++) {
+            map.put((String)TESTDATA[i][0], TESTDATA[i][1]);
+        }
+        if (map.isFrozen()) {
+            errln("FAIL: A new TextTrieMap must not be frozen");
+        }
+        map.freeze();
+        if (!map.isFrozen()) {
+            errln("FAIL: TextTrieMap is not frozen after freeze()");
+        }
+
+        for (int i = 0; i < TESTCASES.length; i++) {
+            itr = map.get((String)TESTCASES[i][0]);
+            checkResult(itr, TESTCASES[i][1]);
+        }
+
+        try {
+            map.put("Sunday", FOO);
+            errln("FAIL: put() on a frozen TextTrieMap should throw an exception");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
     private boolean eql(Object o1, Object o2) {
         if (o1 == null || o2 == null) {
             if (o1 == null && o2 == null) {
@@ -146,7 +173,7 @@ public class TextTrieMapTest extends TestFmwk {
         return o1.equals(o2);
     }
 
-    private void checkResult(Iterator itr, Object expected) {
+    private void checkResult(Iterator<Object> itr, Object expected) {
         if (itr == null) {
             if (expected != null) {
                 errln("FAIL: Empty results - Expected: " + expected);
@@ -1,12 +1,17 @@
 /**
 *******************************************************************************
-* Copyright (C) 1996-2010, International Business Machines Corporation and    *
+* Copyright (C) 1996-2013, International Business Machines Corporation and    *
 * others. All Rights Reserved.                                                *
 *******************************************************************************
 */
 
 package com.ibm.icu.dev.test.util;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
 import com.ibm.icu.dev.test.TestFmwk;
 import com.ibm.icu.impl.CharTrie;
 import com.ibm.icu.impl.IntTrie;
@@ -527,4 +532,44 @@ public final class TrieTest extends TestFmwk
             }
         }
     }
+
+    /*
+     * Serializes an IntTrie and reads it back from a stream and from a buffer.
+     */
+    public void TestIntTrieByteBuffer() throws IOException {
+        IntTrieBuilder builder = new IntTrieBuilder(null, 2000, 9, 9, true);
+        for (int i = 0; i < setRanges3.length; ++i) {
+            builder.setRange(setRanges3[i].start, setRanges3[i].limit, setRanges3[i].value,
+                             setRanges3[i].overwrite);
+        }
+        IntTrie trie = builder.serialize(new _testFoldedValue(builder), new _testFoldingOffset());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        trie.serialize(out);
+        byte[] bytes = out.toByteArray();
+
+        IntTrie fromStream = new IntTrie(new ByteArrayInputStream(bytes), new _testFoldingOffset());
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        IntTrie fromBuffer = new IntTrie(buffer, new _testFoldingOffset());
+        if (buffer.hasRemaining()) {
+            errln("IntTrie(ByteBuffer) left " + buffer.remaining() + " bytes of the trie unread");
+        }
+        if (!fromBuffer.equals(fromStream) || !fromBuffer.equals(trie)) {
+            errln("IntTrie(ByteBuffer) is not equal to IntTrie(InputStream)");
+        }
+        for (int c = 0; c <= 0x10ffff; ++c) {
+            if (fromBuffer.getCodePointValue(c) != fromStream.getCodePointValue(c)) {
+                errln("IntTrie(ByteBuffer).getCodePointValue(U+" + hex(c) + ")=0x"
+                      + hex(fromBuffer.getCodePointValue(c)) + " instead of 0x"
+                      + hex(fromStream.getCodePointValue(c)));
+                break;
+            }
+        }
+
+        try {
+            new IntTrie(ByteBuffer.wrap(bytes, 0, bytes.length - 4), new _testFoldingOffset());
+            errln("IntTrie(ByteBuffer) of a truncated trie should throw an IOException");
+        } catch (IOException e) {
+            logln("PASS: IntTrie(ByteBuffer) of a truncated trie failed as expected");
+        }
+    }
 }
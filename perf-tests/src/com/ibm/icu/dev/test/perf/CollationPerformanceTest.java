@@ -1,6 +1,6 @@
 /**
 *******************************************************************************
-* Copyright (C) 2002-2007, International Business Machines Corporation and    *
+* Copyright (C) 2002-2013, International Business Machines Corporation and    *
 * others. All Rights Reserved.                                                *
 *******************************************************************************
 */
@@ -43,6 +43,7 @@ public class CollationPerformanceTest {
         + "-binsearch                 Binary Search timing test\n"
         + "-keygen                    Sort Key Generation timing test\n"
         + "-qsort                     Quicksort timing test\n"
+        + "-parsort                   CollationSorter timing test, by number of threads\n"
         + "-iter                      Iteration Performance Test\n"
         + "-dump                      Display strings, sort keys and CEs.\n"
         + "-java                      Run test using java.text.Collator.\n";
@@ -57,6 +58,7 @@ public class CollationPerformanceTest {
     static StringBuffer temp_opt_iLoopCount = new StringBuffer("1");
     static StringBuffer temp_opt_terse      = new StringBuffer("false");
     static StringBuffer temp_opt_qsort      = new StringBuffer("");
+    static StringBuffer temp_opt_parsort    = new StringBuffer("");
     static StringBuffer temp_opt_binsearch  = new StringBuffer("");
     static StringBuffer temp_opt_icu        = new StringBuffer("true");
     //static StringBuffer opt_win        = new StringBuffer("");      // Run with Windows native functions.
@@ -89,6 +91,7 @@ public class CollationPerformanceTest {
     static int      opt_iLoopCount = 1;
     static boolean  opt_terse      = false;
     static boolean  opt_qsort      = false;
+    static boolean  opt_parsort    = false;
     static boolean  opt_binsearch  = false;
     static boolean  opt_icu        = true;
     //static boolean  opt_win        = false;      // Run with Windows native functions.
@@ -117,6 +120,7 @@ public class CollationPerformanceTest {
         //new OptionSpec("-langid", 1, temp_opt_langid),
         new OptionSpec("-rules", 2, temp_opt_rules),
         new OptionSpec("-qsort", 0, temp_opt_qsort),
+        new OptionSpec("-parsort", 0, temp_opt_parsort),
         new OptionSpec("-binsearch", 0, temp_opt_binsearch),
         new OptionSpec("-iter", 0, temp_opt_itertest),
         //new OptionSpec("-win", 0, temp_opt_win),
@@ -174,6 +178,10 @@ public class CollationPerformanceTest {
             collPerf.doQSort();
         }
         
+        if (opt_parsort) {
+            collPerf.doParallelSort();
+        }
+        
         if (opt_binsearch) {
             collPerf.doBinarySearch();
         }
@@ -297,6 +305,59 @@ public class CollationPerformanceTest {
         }
     }
     
+    /**---------------------------------------------------------------------------------------
+     *
+     *    doParallelSort()    CollationSorter timing test.  Sorts the list of names with
+     *                        Arrays.sort() and with CollationSorter using 1, 2, 4, ...
+     *                        threads up to the number of processors.
+     *
+     *---------------------------------------------------------------------------------------
+     */
+    void doParallelSort() {
+        if (!(icuCol instanceof RuleBasedCollator)) {
+            System.out.println("parsort:  requires a RuleBasedCollator");
+            return;
+        }
+        RuleBasedCollator coll = ((RuleBasedCollator) icuCol).cloneAsThawed();
+        coll.freeze();
+        int processors = Runtime.getRuntime().availableProcessors();
+
+        callGC();
+        long startTime = System.currentTimeMillis();
+        for (int loop = 0; loop < opt_loopCount; loop++) {
+            String[] sortTests = tests.clone();
+            Arrays.sort(sortTests, coll);
+        }
+        long baseTime = System.currentTimeMillis() - startTime;
+        if (!opt_terse) {
+            System.out.println("parsort:  Arrays.sort() time = " + baseTime + " ms");
+        } else {
+            System.out.println(baseTime);
+        }
+
+        for (int threads = 1;; threads *= 2) {
+            if (threads > processors) {
+                threads = processors;
+            }
+            callGC();
+            startTime = System.currentTimeMillis();
+            for (int loop = 0; loop < opt_loopCount; loop++) {
+                String[] sortTests = tests.clone();
+                CollationSorter.sort(coll, sortTests, threads);
+            }
+            long elapsedTime = System.currentTimeMillis() - startTime;
+            if (!opt_terse) {
+                System.out.println("parsort:  " + threads + " thread(s) time = " + elapsedTime + " ms, speedup = "
+                        + nf.format(baseTime / (elapsedTime + 0.0)));
+            } else {
+                System.out.println(elapsedTime);
+            }
+            if (threads == processors) {
+                break;
+            }
+        }
+    }
+    
     /**---------------------------------------------------------------------------------------
      *
      *    doBinarySearch()    Binary Search timing test.  Each name from the list
@@ -947,6 +1008,9 @@ public class CollationPerformanceTest {
         if (temp_opt_qsort.toString().equalsIgnoreCase("true")) {
             opt_qsort = true;
         }
+        if (temp_opt_parsort.toString().equalsIgnoreCase("true")) {
+            opt_parsort = true;
+        }
         if (temp_opt_binsearch.toString().equalsIgnoreCase("true")) {
             opt_binsearch = true;
         }
@@ -315,4 +315,66 @@ public class ConverterPerformanceTest extends PerfTest {
             throw new RuntimeException(e.getMessage());
         }
     }
+
+    /*
+     * Same as TestCharsetDecoderICU, but with direct buffers that have no accessible array,
+     * which the UTF-16 converters handle through CharBuffer views.
+     */
+    PerfTest.Function TestCharsetDecoderICUDirect() {
+        try{
+            return new PerfTest.Function() {
+                CharBuffer outBuf = ByteBuffer.allocateDirect(unicodeBuffer.length * 2).asCharBuffer();
+                Charset myCharset = new CharsetProviderICU().charsetForName(testName);
+                ByteBuffer srcBuf = (ByteBuffer)ByteBuffer.allocateDirect(encBuffer.length).put(encBuffer).flip();
+                CharsetDecoder decoder = myCharset.newDecoder();
+
+                public void call() {
+                    try{
+                        decoder.decode(srcBuf,outBuf,false);
+                        decoder.reset();
+                        srcBuf.rewind();
+                        outBuf.rewind();
+                    }catch(Exception e){
+                        e.printStackTrace();
+                        throw new RuntimeException(e.getMessage());
+                    }
+                }
+                public long getOperationsPerIteration() {
+                    return encBuffer.length;
+                }
+            };
+        }catch(Exception e){
+            e.printStackTrace();
+            throw new RuntimeException(e.getMessage());
+        }
+    }
+
+    PerfTest.Function TestCharsetEncoderICUDirect() {
+        try{
+            return new PerfTest.Function() {
+                ByteBuffer outBuf = ByteBuffer.allocateDirect(encBuffer.length);
+                Charset myCharset = new CharsetProviderICU().charsetForName(testName);
+                CharBuffer srcBuf = (CharBuffer)ByteBuffer.allocateDirect(unicodeBuffer.length * 2).asCharBuffer().put(unicodeBuffer).flip();
+                CharsetEncoder encoder = myCharset.newEncoder();
+
+                public void call() {
+                    try{
+                        encoder.encode(srcBuf,outBuf,false);
+                        encoder.reset();
+                        srcBuf.rewind();
+                        outBuf.rewind();
+                    }catch(Exception e){
+                        e.printStackTrace();
+                        throw new RuntimeException(e.getMessage());
+                    }
+                }
+                public long getOperationsPerIteration() {
+                    return unicodeBuffer.length;
+                }
+            };
+        }catch(Exception e){
+            e.printStackTrace();
+            throw new RuntimeException(e.getMessage());
+        }
+    }
 }
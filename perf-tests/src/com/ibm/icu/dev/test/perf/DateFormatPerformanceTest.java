@@ -1,11 +1,12 @@
 /*
  * ******************************************************************************
- * Copyright (C) 2007, International Business Machines Corporation and others.  * 
+ * Copyright (C) 2007-2013, International Business Machines Corporation and others. * 
  * All Rights Reserved.                                                         *
  * ******************************************************************************
  */
 package com.ibm.icu.dev.test.perf;
 
+import java.text.FieldPosition;
 import java.text.ParseException;
 import java.util.Date;
 import java.util.Locale;
@@ -24,6 +25,10 @@ public class DateFormatPerformanceTest extends PerfTest {
 
     private java.text.SimpleDateFormat[] jdkDateFormat;
 
+    // Consecutive times for the bulk format tests, one per minute
+    private static final int TIMES_COUNT = 1000;
+    private long[] times;
+
     public static void main(String[] args) throws Exception {
         new DateFormatPerformanceTest().run(args);
     }
@@ -49,6 +54,10 @@ public class DateFormatPerformanceTest extends PerfTest {
             if (args.length == 2) {
                 dateString = args[1];
                 date = icuDateFormat[0].parse(dateString);
+                times = new long[TIMES_COUNT];
+                for (int i = 0; i < TIMES_COUNT; i++) {
+                    times[i] = date.getTime() + i * 60000L;
+                }
             }
         } catch (Exception e) {
             e.printStackTrace();
@@ -112,4 +121,56 @@ public class DateFormatPerformanceTest extends PerfTest {
             }
         };
     }
+
+    PerfTest.Function TestICUFormatEach() {
+        return new PerfTest.Function() {
+            public void call(int id) {
+                StringBuffer buf = new StringBuffer();
+                FieldPosition pos = new FieldPosition(0);
+                for (int i = 0; i < TIMES_COUNT; i++) {
+                    icuDateFormat[id].format(new Date(times[i]), buf, pos);
+                }
+            }
+
+            public long getOperationsPerIteration() {
+                return TIMES_COUNT;
+            }
+        };
+    }
+
+    PerfTest.Function TestICUFormatTimes() {
+        return new PerfTest.Function() {
+            public void call(int id) {
+                StringBuffer buf = new StringBuffer();
+                icuDateFormat[id].format(times, 0, TIMES_COUNT, buf, null);
+            }
+
+            public long getOperationsPerIteration() {
+                return TIMES_COUNT;
+            }
+        };
+    }
+
+    /*
+     * TimeZone.getTimeZone returns a new clone each time; the first getOffset
+     * of each clone must not rebuild the per-zone offset tables.
+     */
+    PerfTest.Function TestICUTimeZoneOffset() {
+        return new PerfTest.Function() {
+            public void call(int id) {
+                String tzid = icuDateFormat[id].getTimeZone().getID();
+                com.ibm.icu.util.TimeZone.getTimeZone(tzid, com.ibm.icu.util.TimeZone.TIMEZONE_ICU).getOffset(
+                        date.getTime());
+            }
+        };
+    }
+
+    PerfTest.Function TestJDKTimeZoneOffset() {
+        return new PerfTest.Function() {
+            public void call(int id) {
+                String tzid = jdkDateFormat[id].getTimeZone().getID();
+                java.util.TimeZone.getTimeZone(tzid).getOffset(date.getTime());
+            }
+        };
+    }
 }